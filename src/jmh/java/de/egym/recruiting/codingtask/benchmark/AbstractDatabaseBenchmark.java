@@ -0,0 +1,113 @@
+package de.egym.recruiting.codingtask.benchmark;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.persist.UnitOfWork;
+import de.egym.recruiting.codingtask.RootModule;
+import de.egym.recruiting.codingtask.ranking.RankingScoreIndex;
+import org.apache.log4j.Level;
+import org.apache.log4j.LogManager;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Starts the application modules against the in-memory HSQLDB and fills it with generated exercises once per fork.
+ * The data set size is configurable through the JMH parameters, e.g. {@code -p users=10000 -p exercisesPerUser=100}.
+ */
+@State(Scope.Benchmark)
+public abstract class AbstractDatabaseBenchmark {
+
+    /**
+     * Generated user ids start here, so that they do not mix with the users of the TestData.
+     */
+    protected static final long FIRST_USER_ID = 1000L;
+
+    protected static final int HISTORY_DAYS = 56;
+
+    @Param("1000")
+    public int users;
+
+    @Param("100")
+    public int exercisesPerUser;
+
+    /**
+     * Number of users passed to a single ranking request.
+     */
+    @Param("1000")
+    public int rankedUsers;
+
+    protected Injector injector;
+
+    private UnitOfWork unitOfWork;
+
+    protected List<Long> rankedUserIds;
+
+    private final Random random = new Random(7);
+
+    @Setup
+    public void setUpDatabase() {
+        // debug logging of every request would dominate the measurements
+        LogManager.getLogger("de.egym").setLevel(Level.WARN);
+
+        injector = Guice.createInjector(new RootModule(propertyOverrides()));
+        unitOfWork = injector.getInstance(UnitOfWork.class);
+        if (!isDataGenerated()) {
+            injector.getInstance(ExerciseDataGenerator.class).generate(FIRST_USER_ID, users, exercisesPerUser, HISTORY_DAYS, 42L);
+            // the generator writes through the ExerciseDao, the index loaded at startup does not know the exercises
+            injector.getInstance(RankingScoreIndex.class).reload();
+        }
+
+        rankedUserIds = new ArrayList<>(rankedUsers);
+        for (int i = 0; i < Math.min(rankedUsers, users); i++) {
+            rankedUserIds.add(FIRST_USER_ID + i);
+        }
+        unitOfWork.end();
+        setUp();
+        unitOfWork.end();
+    }
+
+    /**
+     * @return configuration entries the benchmark runs with instead of the application.properties ones
+     */
+    protected Properties propertyOverrides() {
+        return new Properties();
+    }
+
+    /**
+     * @return true if the database already holds the generated data set, e.g. a file database of an earlier run
+     */
+    protected boolean isDataGenerated() {
+        return false;
+    }
+
+    /**
+     * Hook for the benchmark specific set up, called after the data set has been generated.
+     */
+    protected void setUp() {
+    }
+
+    /**
+     * Runs the call in its own unit of work like the JpaPersistFilter does for every request,
+     * otherwise the persistence context of the benchmark thread would grow with every loaded exercise.
+     */
+    protected <T> T inUnitOfWork(Supplier<T> call) {
+        unitOfWork.begin();
+        try {
+            return call.get();
+        } finally {
+            unitOfWork.end();
+        }
+    }
+
+    protected long randomUserId() {
+        return FIRST_USER_ID + random.nextInt(users);
+    }
+}
@@ -0,0 +1,55 @@
+package de.egym.recruiting.codingtask.benchmark;
+
+import de.egym.recruiting.codingtask.jpa.dao.ExerciseDao;
+import de.egym.recruiting.codingtask.jpa.domain.Exercise;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conflict check of create/update answered by the database query or by the in-memory interval index.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ConflictCheckBenchmark extends AbstractDatabaseBenchmark {
+
+    @Param({"false", "true"})
+    public boolean conflictIndex;
+
+    private ExerciseDao exerciseDao;
+
+    private final Random random = new Random(13);
+
+    @Override
+    protected Properties propertyOverrides() {
+        final Properties properties = new Properties();
+        properties.setProperty("conflict.index.enabled", String.valueOf(conflictIndex));
+        return properties;
+    }
+
+    @Override
+    protected void setUp() {
+        exerciseDao = injector.getInstance(ExerciseDao.class);
+    }
+
+    @Benchmark
+    public List<Long> findConflictExerciseIds() {
+        final Exercise exercise = new Exercise();
+        exercise.setUserId(randomUserId());
+        exercise.setDuration(3600);
+        exercise.setStartTime(Instant.ofEpochMilli(System.currentTimeMillis() - (long) (random.nextDouble() * TimeUnit.DAYS.toMillis(HISTORY_DAYS))));
+        return inUnitOfWork(() -> exerciseDao.findConflictExerciseIds(exercise));
+    }
+}
@@ -0,0 +1,100 @@
+package de.egym.recruiting.codingtask.benchmark;
+
+import de.egym.recruiting.codingtask.dto.ExerciseDto;
+import de.egym.recruiting.codingtask.dto.PoolStatisticsDto;
+import de.egym.recruiting.codingtask.jpa.domain.Enums;
+import de.egym.recruiting.codingtask.jpa.domain.Exercise;
+import de.egym.recruiting.codingtask.rest.ExerciseService;
+import de.egym.recruiting.codingtask.rest.MetricsService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Concurrent creates and user exercise listings competing for the connections of the pool: 2 writing and 6 reading
+ * threads against pools of different sizes. Every create invalidates the cached listings, so most of them reach the
+ * database. The pool statistics of the trial, including how long the threads waited for a connection, are printed
+ * when it ends.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ConnectionPoolBenchmark extends AbstractDatabaseBenchmark {
+
+    @Param({"1", "4", "10"})
+    public int poolSize;
+
+    private ExerciseService exerciseService;
+
+    private MetricsService metricsService;
+
+    private final AtomicLong nextCreateStartTime = new AtomicLong();
+
+    @Override
+    protected Properties propertyOverrides() {
+        final Properties properties = new Properties();
+        properties.setProperty("db.pool.minSize", String.valueOf(poolSize));
+        properties.setProperty("db.pool.maxSize", String.valueOf(poolSize));
+        return properties;
+    }
+
+    @Override
+    protected void setUp() {
+        exerciseService = injector.getInstance(ExerciseService.class);
+        metricsService = injector.getInstance(MetricsService.class);
+        // created exercises are placed after the generated history, so they never conflict
+        nextCreateStartTime.set(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1));
+    }
+
+    @TearDown
+    public void printPoolStatistics() {
+        final PoolStatisticsDto statistics = metricsService.getPoolStatistics();
+        System.out.printf("%npool of %d: %d acquisitions, %d timeouts, average wait %d us, max wait %d us%n", poolSize,
+                statistics.getAcquisitions(), statistics.getTimeouts(), statistics.getAverageWaitMicros(),
+                statistics.getMaxWaitMicros());
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(2)
+    public Exercise create() {
+        final Exercise exercise = new Exercise();
+        exercise.setUserId(concurrentRandomUserId());
+        exercise.setType(Enums.ExerciseType.RUNNING);
+        exercise.setDescription("benchmark run");
+        exercise.setDuration(1800);
+        exercise.setDistance(5000);
+        exercise.setCalories(400);
+        exercise.setStartTime(Instant.ofEpochMilli(nextCreateStartTime.getAndAdd(TimeUnit.HOURS.toMillis(1))));
+        return inUnitOfWork(() -> exerciseService.create(exercise));
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(6)
+    public List<ExerciseDto> getExercises() {
+        return inUnitOfWork(() -> exerciseService.getExercises(concurrentRandomUserId(), null, null, null, null));
+    }
+
+    /**
+     * The shared random of the base class would be contended by the benchmark threads.
+     */
+    private long concurrentRandomUserId() {
+        return FIRST_USER_ID + ThreadLocalRandom.current().nextInt(users);
+    }
+}
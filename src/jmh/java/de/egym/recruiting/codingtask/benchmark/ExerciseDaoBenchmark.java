@@ -0,0 +1,66 @@
+package de.egym.recruiting.codingtask.benchmark;
+
+import de.egym.recruiting.codingtask.dto.ExerciseDto;
+import de.egym.recruiting.codingtask.jpa.dao.ExerciseDao;
+import de.egym.recruiting.codingtask.jpa.domain.Enums;
+import de.egym.recruiting.codingtask.jpa.domain.Exercise;
+import de.egym.recruiting.codingtask.jpa.domain.IdRank;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DAO level queries behind the service hot paths, without the service logic around them.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ExerciseDaoBenchmark extends AbstractDatabaseBenchmark {
+
+    private ExerciseDao exerciseDao;
+
+    private final Random random = new Random(11);
+
+    @Override
+    protected void setUp() {
+        exerciseDao = injector.getInstance(ExerciseDao.class);
+    }
+
+    @Benchmark
+    public List<Long> findConflictExerciseIds() {
+        final Exercise exercise = new Exercise();
+        exercise.setUserId(randomUserId());
+        exercise.setDuration(3600);
+        exercise.setStartTime(Instant.ofEpochMilli(System.currentTimeMillis() - (long) (random.nextDouble() * TimeUnit.DAYS.toMillis(HISTORY_DAYS))));
+        return inUnitOfWork(() -> exerciseDao.findConflictExerciseIds(exercise));
+    }
+
+    @Benchmark
+    public List<ExerciseDto> findExercisesByType() {
+        return inUnitOfWork(() -> exerciseDao.findExercises(randomUserId(), Enums.ExerciseType.CYCLING, null));
+    }
+
+    @Benchmark
+    public List<ExerciseDto> findByDescription() {
+        return inUnitOfWork(() -> exerciseDao.findByDescription("Evening Bike"));
+    }
+
+    @Benchmark
+    public List<ExerciseDto> getRankingExercises() {
+        return inUnitOfWork(() -> exerciseDao.getRankingExercises(rankedUserIds));
+    }
+
+    @Benchmark
+    public List<IdRank> getRankingScores() {
+        return inUnitOfWork(() -> exerciseDao.getRankingScores(rankedUserIds));
+    }
+}
@@ -0,0 +1,90 @@
+package de.egym.recruiting.codingtask.benchmark;
+
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import com.google.inject.persist.Transactional;
+import de.egym.recruiting.codingtask.jpa.dao.ExerciseDao;
+import de.egym.recruiting.codingtask.jpa.domain.Enums;
+import de.egym.recruiting.codingtask.jpa.domain.Exercise;
+
+import javax.annotation.Nonnull;
+import javax.persistence.EntityManager;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generates synthetic exercise histories for benchmarks.
+ * <p>
+ * Unlike {@link de.egym.recruiting.codingtask.TestData} it creates any number of users, each with a
+ * non-overlapping history over the given number of days ending now, with all exercise types and descriptions
+ * built from a small vocabulary, so that filters, conflict checks, description search and ranking all find data.
+ */
+public class ExerciseDataGenerator {
+
+    public static final String[] DESCRIPTION_WORDS = {"morning", "evening", "run", "bike", "swim", "interval",
+            "recovery", "long", "tempo", "class"};
+
+    private static final Enums.ExerciseType[] TYPES = Enums.ExerciseType.values();
+
+    private final ExerciseDao exerciseDao;
+
+    private final Provider<EntityManager> entityManagerProvider;
+
+    @Inject
+    ExerciseDataGenerator(final ExerciseDao exerciseDao, final Provider<EntityManager> entityManagerProvider) {
+        this.exerciseDao = exerciseDao;
+        this.entityManagerProvider = entityManagerProvider;
+    }
+
+    /**
+     * Generates and persists the exercises of the users firstUserId .. firstUserId + users - 1, one transaction per user.
+     *
+     * @return the number of persisted exercises
+     */
+    public long generate(long firstUserId, int users, int exercisesPerUser, int days, long seed) {
+        final Random random = new Random(seed);
+        final long now = System.currentTimeMillis();
+        long generated = 0;
+        for (long userId = firstUserId; userId < firstUserId + users; userId++) {
+            final List<Exercise> exercises = generateUser(random, userId, exercisesPerUser, days, now);
+            insert(exercises);
+            generated += exercises.size();
+        }
+        return generated;
+    }
+
+    /**
+     * Exercises of one user, each placed in its own time slot so that they never overlap, newest first.
+     */
+    @Nonnull
+    public List<Exercise> generateUser(@Nonnull Random random, long userId, int exercisesPerUser, int days, long now) {
+        final long slotMillis = TimeUnit.DAYS.toMillis(days) / exercisesPerUser;
+        final int maxDurationSeconds = (int) Math.max(1, Math.min(TimeUnit.HOURS.toSeconds(3), slotMillis / 2000));
+        final List<Exercise> exercises = new ArrayList<>(exercisesPerUser);
+        for (int i = 0; i < exercisesPerUser; i++) {
+            final Exercise exercise = new Exercise();
+            exercise.setUserId(userId);
+            exercise.setType(TYPES[random.nextInt(TYPES.length)]);
+            exercise.setDescription(DESCRIPTION_WORDS[random.nextInt(DESCRIPTION_WORDS.length)] + " "
+                    + DESCRIPTION_WORDS[random.nextInt(DESCRIPTION_WORDS.length)]);
+            exercise.setDuration(1 + random.nextInt(maxDurationSeconds));
+            exercise.setDistance(random.nextInt(50000));
+            exercise.setCalories(random.nextInt(1500));
+            exercise.setStartTime(Instant.ofEpochMilli(now - (i + 1) * slotMillis + (long) (random.nextDouble() * slotMillis / 2)));
+            exercises.add(exercise);
+        }
+        return exercises;
+    }
+
+    @Transactional
+    public void insert(@Nonnull List<Exercise> exercises) {
+        for (Exercise exercise : exercises) {
+            exerciseDao.create(exercise);
+        }
+        entityManagerProvider.get().flush();
+        entityManagerProvider.get().clear();
+    }
+}
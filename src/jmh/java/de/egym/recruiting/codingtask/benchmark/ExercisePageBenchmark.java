@@ -0,0 +1,64 @@
+package de.egym.recruiting.codingtask.benchmark;
+
+import de.egym.recruiting.codingtask.dto.ExercisePageDto;
+import de.egym.recruiting.codingtask.rest.ExerciseService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The first and the last page of the exercises of a user. The keyset pages cost the same at any depth, whatever
+ * the size of the history, e.g. {@code -p users=20 -p exercisesPerUser=5000}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ExercisePageBenchmark extends AbstractDatabaseBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    private ExerciseService exerciseService;
+
+    /**
+     * Cursor of the last page per user, indexed by userId - FIRST_USER_ID.
+     */
+    private final List<String> lastPageCursors = new ArrayList<>();
+
+    @Override
+    protected void setUp() {
+        exerciseService = injector.getInstance(ExerciseService.class);
+        for (int i = 0; i < users; i++) {
+            final long userId = FIRST_USER_ID + i;
+            String cursor = null;
+            String lastPageCursor = null;
+            do {
+                final String after = cursor;
+                lastPageCursor = after;
+                cursor = inUnitOfWork(() -> exerciseService.getExercisePage(userId, null, null, null, null, PAGE_SIZE, after, null))
+                        .getNextCursor();
+            } while (cursor != null);
+            lastPageCursors.add(lastPageCursor);
+        }
+    }
+
+    @Benchmark
+    public ExercisePageDto firstPage() {
+        final long userId = randomUserId();
+        return inUnitOfWork(() -> exerciseService.getExercisePage(userId, null, null, null, null, PAGE_SIZE, null, null));
+    }
+
+    @Benchmark
+    public ExercisePageDto lastPage() {
+        final long userId = randomUserId();
+        final String after = lastPageCursors.get((int) (userId - FIRST_USER_ID));
+        return inUnitOfWork(() -> exerciseService.getExercisePage(userId, null, null, null, null, PAGE_SIZE, after, null));
+    }
+}
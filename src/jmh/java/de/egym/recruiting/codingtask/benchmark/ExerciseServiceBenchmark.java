@@ -0,0 +1,160 @@
+package de.egym.recruiting.codingtask.benchmark;
+
+import de.egym.recruiting.codingtask.dto.BatchItemResultDto;
+import de.egym.recruiting.codingtask.dto.ExerciseDto;
+import de.egym.recruiting.codingtask.dto.ExercisePageDto;
+import de.egym.recruiting.codingtask.dto.ExerciseTotalsDto;
+import de.egym.recruiting.codingtask.jpa.domain.Enums;
+import de.egym.recruiting.codingtask.jpa.domain.Exercise;
+import de.egym.recruiting.codingtask.rest.ExerciseServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service level hot paths: creating an exercise (including the conflict check), the user exercise listing
+ * with and without filters, the description search and the ranking implementations.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ExerciseServiceBenchmark extends AbstractDatabaseBenchmark {
+
+    private ExerciseServiceImpl exerciseService;
+
+    private static final int BATCH_SIZE = 100;
+
+    private String yesterday;
+
+    private String monthAgo;
+
+    private long nextCreateStartTime;
+
+    @Override
+    protected Properties propertyOverrides() {
+        final Properties properties = new Properties();
+        // measures the ranking itself, see RankingCacheBenchmark for the cached one
+        properties.setProperty("ranking.cache.size", "0");
+        return properties;
+    }
+
+    @Override
+    protected void setUp() {
+        exerciseService = injector.getInstance(ExerciseServiceImpl.class);
+        yesterday = LocalDate.now(ZoneOffset.UTC).minusDays(1).toString();
+        monthAgo = LocalDate.now(ZoneOffset.UTC).minusDays(28).toString();
+        // created exercises are placed after the generated history, so they never conflict
+        nextCreateStartTime = System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1);
+        // computes the precomputed ranking scores of the generated exercises outside of the measurement
+        exerciseService.getRanking(rankedUserIds, null, null);
+    }
+
+    @Benchmark
+    public Exercise create() {
+        final Exercise exercise = newExercise();
+        return inUnitOfWork(() -> exerciseService.create(exercise));
+    }
+
+    /**
+     * Creates {@value #BATCH_SIZE} exercises per operation, compare with {@value #BATCH_SIZE} times {@link #create()}.
+     */
+    @Benchmark
+    public List<BatchItemResultDto> createBatch() {
+        final List<Exercise> exercises = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            exercises.add(newExercise());
+        }
+        return inUnitOfWork(() -> exerciseService.createAll(exercises));
+    }
+
+    private Exercise newExercise() {
+        final Exercise exercise = new Exercise();
+        exercise.setUserId(randomUserId());
+        exercise.setType(Enums.ExerciseType.RUNNING);
+        exercise.setDescription("benchmark run");
+        exercise.setDuration(1800);
+        exercise.setDistance(5000);
+        exercise.setCalories(400);
+        exercise.setStartTime(Instant.ofEpochMilli(nextCreateStartTime));
+        nextCreateStartTime += TimeUnit.HOURS.toMillis(1);
+        return exercise;
+    }
+
+    @Benchmark
+    public List<ExerciseDto> getExercises() {
+        return inUnitOfWork(() -> exerciseService.getExercises(randomUserId(), null, null, null, null));
+    }
+
+    @Benchmark
+    public List<ExerciseDto> getExercisesByType() {
+        return inUnitOfWork(() -> exerciseService.getExercises(randomUserId(), Enums.ExerciseType.RUNNING, null, null, null));
+    }
+
+    @Benchmark
+    public List<ExerciseDto> getExercisesByDate() {
+        return inUnitOfWork(() -> exerciseService.getExercises(randomUserId(), null, yesterday, null, null));
+    }
+
+    @Benchmark
+    public List<ExerciseDto> getExercisesByTypeAndDate() {
+        return inUnitOfWork(() -> exerciseService.getExercises(randomUserId(), Enums.ExerciseType.RUNNING, yesterday, null, null));
+    }
+
+    @Benchmark
+    public List<ExerciseDto> getExercisesOfMonth() {
+        return inUnitOfWork(() -> exerciseService.getExercises(randomUserId(), null, null, monthAgo, yesterday));
+    }
+
+    /**
+     * The daily totals of the month, replacing the download of {@link #getExercisesOfMonth()}.
+     */
+    @Benchmark
+    public List<ExerciseTotalsDto> getExerciseTotalsOfMonth() {
+        return inUnitOfWork(() -> exerciseService.getExerciseTotals(randomUserId(), monthAgo, yesterday, null, null));
+    }
+
+    @Benchmark
+    public List<ExerciseDto> getExerciseByDescription() {
+        return inUnitOfWork(() -> exerciseService.getExerciseByDescription("morning run"));
+    }
+
+    /**
+     * Prefix search served by the description index, compare with {@link #getExerciseByDescription()}.
+     */
+    @Benchmark
+    public ExercisePageDto searchExercises() {
+        return inUnitOfWork(() -> exerciseService.searchExercises("morn ru", null, null));
+    }
+
+    @Benchmark
+    public List<Long> getRankingPrecomputed() {
+        return inUnitOfWork(() -> exerciseService.getRanking(rankedUserIds, null, null));
+    }
+
+    @Benchmark
+    public List<Long> getRankingTop20() {
+        return inUnitOfWork(() -> exerciseService.getRanking(rankedUserIds, 20, null));
+    }
+
+    @Benchmark
+    public List<Long> getRankingCalculated() {
+        return inUnitOfWork(() -> exerciseService.calculateRanking(rankedUserIds));
+    }
+
+    @Benchmark
+    public List<Long> getRankingWithStreamingApi() {
+        return inUnitOfWork(() -> exerciseService.getRankingWithStreamingApi(rankedUserIds));
+    }
+}
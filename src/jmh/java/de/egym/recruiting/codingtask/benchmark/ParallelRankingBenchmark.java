@@ -0,0 +1,69 @@
+package de.egym.recruiting.codingtask.benchmark;
+
+import de.egym.recruiting.codingtask.dto.ExerciseDto;
+import de.egym.recruiting.codingtask.jpa.dao.ExerciseDao;
+import de.egym.recruiting.codingtask.jpa.domain.IdRank;
+import de.egym.recruiting.codingtask.ranking.ParallelRankingExecutor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+
+/**
+ * Scaling curve of the ranking calculation over the workers of the {@link ParallelRankingExecutor}, without
+ * the query of the exercises: they are loaded once. 1 worker is the sequential calculation on the calling thread,
+ * e.g. {@code -p users=10000 -p rankedUsers=10000} for a larger user set. More workers than available processors
+ * only measure the overhead of the partitioning.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ParallelRankingBenchmark extends AbstractDatabaseBenchmark {
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    private ParallelRankingExecutor rankingExecutor;
+
+    private List<ExerciseDto> rankingExercises;
+
+    @Override
+    protected Properties propertyOverrides() {
+        final Properties properties = new Properties();
+        properties.setProperty("ranking.parallel.threads", String.valueOf(threads));
+        properties.setProperty("ranking.parallel.minUsers", "0");
+        return properties;
+    }
+
+    @Override
+    protected void setUp() {
+        rankingExecutor = injector.getInstance(ParallelRankingExecutor.class);
+        final ExerciseDao exerciseDao = injector.getInstance(ExerciseDao.class);
+        rankingExercises = inUnitOfWork(() -> exerciseDao.getRankingExercises(rankedUserIds));
+    }
+
+    @TearDown
+    public void shutDownRanking() {
+        rankingExecutor.shutdown();
+    }
+
+    @Benchmark
+    public List<IdRank> rank() {
+        return rankingExecutor.rank(rankedUserIds, rankingExercises);
+    }
+
+    @Benchmark
+    public ToLongFunction<Long> scores() {
+        return rankingExecutor.scores(rankedUserIds, rankingExercises);
+    }
+}
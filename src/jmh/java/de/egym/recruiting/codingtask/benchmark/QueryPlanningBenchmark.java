@@ -0,0 +1,69 @@
+package de.egym.recruiting.codingtask.benchmark;
+
+import de.egym.recruiting.codingtask.jpa.domain.Enums;
+import de.egym.recruiting.codingtask.jpa.domain.Exercise;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Query;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per call cost of preparing the user exercise query filtered by type and day, without executing it:
+ * the JPQL concatenated on every call (as ExerciseDaoImpl used to do) against the named query compiled at startup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class QueryPlanningBenchmark extends AbstractDatabaseBenchmark {
+
+    private EntityManager entityManager;
+
+    private Instant dayStart;
+
+    private Instant dayEnd;
+
+    @Override
+    protected void setUp() {
+        entityManager = injector.getInstance(EntityManagerFactory.class).createEntityManager();
+        final LocalDate yesterday = LocalDate.now(ZoneOffset.UTC).minusDays(1);
+        dayStart = yesterday.atStartOfDay().toInstant(ZoneOffset.UTC);
+        dayEnd = yesterday.plusDays(1).atStartOfDay().toInstant(ZoneOffset.UTC);
+    }
+
+    @TearDown
+    public void tearDown() {
+        entityManager.close();
+    }
+
+    @Benchmark
+    public Query concatenatedQuery() {
+        String query = "SELECT e FROM Exercise e WHERE e.userId = :userId";
+        query += " AND e.type = :type";
+        query += " AND e.endTime >= :date AND e.startTime >= :date AND e.startTime < DATEADD('dd', 1, :date)";
+        return entityManager.createQuery(query)
+                .setParameter("userId", randomUserId())
+                .setParameter("date", dayStart)
+                .setParameter("type", Enums.ExerciseType.RUNNING);
+    }
+
+    @Benchmark
+    public Query namedQuery() {
+        return entityManager.createNamedQuery(Exercise.FIND_BY_USER_TYPE_IN_RANGE)
+                .setParameter("userId", randomUserId())
+                .setParameter("rangeStart", dayStart)
+                .setParameter("rangeEnd", dayEnd)
+                .setParameter("type", Enums.ExerciseType.RUNNING);
+    }
+}
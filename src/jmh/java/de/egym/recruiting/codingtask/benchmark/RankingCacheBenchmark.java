@@ -0,0 +1,76 @@
+package de.egym.recruiting.codingtask.benchmark;
+
+import de.egym.recruiting.codingtask.jpa.domain.Enums;
+import de.egym.recruiting.codingtask.jpa.domain.Exercise;
+import de.egym.recruiting.codingtask.rest.ExerciseServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A leaderboard requesting the ranking of the same users over and over, without and with the ranking cache,
+ * and the same after each write of an exercise of a ranked user.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class RankingCacheBenchmark extends AbstractDatabaseBenchmark {
+
+    @Param({"0", "1000"})
+    public int rankingCacheSize;
+
+    @Param({"PRECOMPUTED", "CALCULATED"})
+    public String rankingStrategy;
+
+    private ExerciseServiceImpl exerciseService;
+
+    private long nextCreateStartTime;
+
+    @Override
+    protected Properties propertyOverrides() {
+        final Properties properties = new Properties();
+        properties.setProperty("ranking.cache.size", String.valueOf(rankingCacheSize));
+        properties.setProperty("ranking.strategy", rankingStrategy);
+        return properties;
+    }
+
+    @Override
+    protected void setUp() {
+        exerciseService = injector.getInstance(ExerciseServiceImpl.class);
+        // created exercises are placed after the generated history, so they never conflict
+        nextCreateStartTime = System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1);
+        exerciseService.getRanking(rankedUserIds, null, null);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public List<Long> repeatedRanking() {
+        return inUnitOfWork(() -> exerciseService.getRanking(rankedUserIds, 20, null));
+    }
+
+    @Benchmark
+    public List<Long> rankingAfterWrite() {
+        final Exercise exercise = new Exercise();
+        exercise.setUserId(rankedUserIds.get(0));
+        exercise.setType(Enums.ExerciseType.RUNNING);
+        exercise.setDescription("benchmark run");
+        exercise.setDuration(1800);
+        exercise.setDistance(5000);
+        exercise.setCalories(400);
+        exercise.setStartTime(Instant.ofEpochMilli(nextCreateStartTime));
+        nextCreateStartTime += TimeUnit.HOURS.toMillis(1);
+        inUnitOfWork(() -> exerciseService.create(exercise));
+        return inUnitOfWork(() -> exerciseService.getRanking(rankedUserIds, 20, null));
+    }
+}
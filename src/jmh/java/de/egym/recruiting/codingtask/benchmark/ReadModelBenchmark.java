@@ -0,0 +1,76 @@
+package de.egym.recruiting.codingtask.benchmark;
+
+import com.google.inject.Provider;
+import de.egym.recruiting.codingtask.jpa.dao.ExerciseDao;
+import de.egym.recruiting.codingtask.jpa.domain.Exercise;
+import de.egym.recruiting.codingtask.ranking.RankingRules;
+import org.hibernate.FlushMode;
+import org.hibernate.jpa.QueryHints;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.persistence.EntityManager;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Listing the exercises of a user and loading the ranking exercises: managed entities (as ExerciseDaoImpl used
+ * to return them) against the read-only ExerciseDto projections. Run with {@code -prof gc} to compare the allocation
+ * per call. The user listing runs its named query directly, the DAO would answer it from the query cache.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ReadModelBenchmark extends AbstractDatabaseBenchmark {
+
+    private ExerciseDao exerciseDao;
+
+    private Provider<EntityManager> entityManagerProvider;
+
+    @Override
+    protected void setUp() {
+        exerciseDao = injector.getInstance(ExerciseDao.class);
+        entityManagerProvider = injector.getProvider(EntityManager.class);
+    }
+
+    @Benchmark
+    public List<?> userExerciseEntities() {
+        return inUnitOfWork(() -> entityManagerProvider.get()
+                .createQuery("SELECT e FROM Exercise e WHERE e.userId = :userId", Exercise.class)
+                .setParameter("userId", randomUserId())
+                .getResultList());
+    }
+
+    @Benchmark
+    public List<?> userExerciseProjections() {
+        return inUnitOfWork(() -> entityManagerProvider.get()
+                .createNamedQuery(Exercise.FIND_BY_USER)
+                .setParameter("userId", randomUserId())
+                .setHint(QueryHints.HINT_READONLY, true)
+                .setHint(QueryHints.HINT_FLUSH_MODE, FlushMode.MANUAL)
+                .getResultList());
+    }
+
+    @Benchmark
+    public List<?> rankingExerciseEntities() {
+        final Instant tillTime = Instant.now();
+        return inUnitOfWork(() -> entityManagerProvider.get()
+                .createQuery("SELECT e FROM Exercise e WHERE e.userId in :userIds AND e.endTime >= :startTime"
+                        + " AND e.startTime >= :startTime AND e.startTime <= :tillTime ORDER BY e.startTime desc", Exercise.class)
+                .setParameter("userIds", rankedUserIds)
+                .setParameter("tillTime", tillTime)
+                .setParameter("startTime", RankingRules.rankingPeriodStart(tillTime))
+                .getResultList());
+    }
+
+    @Benchmark
+    public List<?> rankingExerciseProjections() {
+        return inUnitOfWork(() -> exerciseDao.getRankingExercises(rankedUserIds));
+    }
+}
@@ -0,0 +1,114 @@
+package de.egym.recruiting.codingtask.benchmark;
+
+import com.google.inject.Provider;
+import com.google.inject.persist.PersistService;
+import de.egym.recruiting.codingtask.jpa.StorageMode;
+import de.egym.recruiting.codingtask.jpa.dao.ExerciseDao;
+import de.egym.recruiting.codingtask.jpa.domain.Enums;
+import de.egym.recruiting.codingtask.jpa.domain.Exercise;
+import de.egym.recruiting.codingtask.rest.ExerciseService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.persistence.EntityManager;
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Insert and ranking throughput of the in-memory database against the file database with cached tables. The ranking
+ * is calculated from the exercises of the ranking period (ranking.strategy=CALCULATED), which are read from the
+ * tables on every call.
+ * <p>
+ * The file database is kept in the temporary directory per data set size and only generated on the first run, the
+ * on-disk data set of 10M exercises is run with {@code -p users=100000 -p exercisesPerUser=100 -p storage=FILE}
+ * (the in-memory database needs a heap of several GB for it). The exercises created by the measurements stay in it.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class StorageBenchmark extends AbstractDatabaseBenchmark {
+
+    @Param({"MEMORY", "FILE"})
+    public StorageMode storage;
+
+    private ExerciseService exerciseService;
+
+    private long nextCreateStartTime;
+
+    @Override
+    protected Properties propertyOverrides() {
+        final Properties properties = new Properties();
+        properties.setProperty("db.storage", storage.name());
+        properties.setProperty("db.file.path", getDatabasePath());
+        properties.setProperty("ranking.strategy", "CALCULATED");
+        properties.setProperty("ranking.cache.size", "0");
+        return properties;
+    }
+
+    @Override
+    protected boolean isDataGenerated() {
+        final ExerciseDao exerciseDao = injector.getInstance(ExerciseDao.class);
+        return storage == StorageMode.FILE
+                && inUnitOfWork(() -> !exerciseDao.findExercises(FIRST_USER_ID + users - 1, null, null).isEmpty());
+    }
+
+    @Override
+    protected void setUp() {
+        exerciseService = injector.getInstance(ExerciseService.class);
+        // created exercises are placed after the generated history and those of earlier runs, so they never conflict
+        final Provider<EntityManager> entityManagerProvider = injector.getProvider(EntityManager.class);
+        final Instant lastStartTime = inUnitOfWork(() -> entityManagerProvider.get()
+                .createQuery("SELECT MAX(e.startTime) FROM Exercise e", Instant.class).getSingleResult());
+        nextCreateStartTime = lastStartTime.toEpochMilli() + TimeUnit.DAYS.toMillis(1);
+    }
+
+    @TearDown
+    public void shutDownDatabase() throws SQLException {
+        injector.getInstance(PersistService.class).stop();
+        if (storage == StorageMode.FILE) {
+            // checkpoints the log, otherwise the next run replays it
+            try (Connection connection = DriverManager.getConnection("jdbc:hsqldb:file:" + getDatabasePath(), "sa", "");
+                 Statement statement = connection.createStatement()) {
+                statement.execute("SHUTDOWN");
+            }
+        }
+    }
+
+    @Benchmark
+    public Exercise create() {
+        final Exercise exercise = new Exercise();
+        exercise.setUserId(randomUserId());
+        exercise.setType(Enums.ExerciseType.RUNNING);
+        exercise.setDescription("benchmark run");
+        exercise.setDuration(1800);
+        exercise.setDistance(5000);
+        exercise.setCalories(400);
+        exercise.setStartTime(Instant.ofEpochMilli(nextCreateStartTime));
+        nextCreateStartTime += TimeUnit.HOURS.toMillis(1);
+        return inUnitOfWork(() -> exerciseService.create(exercise));
+    }
+
+    @Benchmark
+    public List<Long> getRanking() {
+        return inUnitOfWork(() -> exerciseService.getRanking(rankedUserIds, null, null));
+    }
+
+    private String getDatabasePath() {
+        return new File(System.getProperty("java.io.tmpdir"), "egym-benchmark-" + users + "x" + exercisesPerUser
+                + File.separator + "egym").getAbsolutePath();
+    }
+}
@@ -0,0 +1,54 @@
+package de.egym.recruiting.codingtask.jpa.dao;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Turning the date filter of the exercise listing into the bounds of the day: a new SimpleDateFormat and Calendar
+ * per call (as ExerciseDaoImpl used to do, leaving the end of the day to DATEADD in the database) against the cached
+ * DateTimeFormatter computing both bounds in Java.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DayBoundsBenchmark {
+
+    private static final DateTimeFormatter DAY_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    private final String date = "2016-06-20";
+
+    @Benchmark
+    public Date[] simpleDateFormat() throws ParseException {
+        final Date dayStart = new SimpleDateFormat("yyyy-MM-dd").parse(date);
+        final Calendar calendar = Calendar.getInstance();
+        calendar.setTime(dayStart);
+        calendar.add(Calendar.DAY_OF_MONTH, 1);
+        return new Date[]{dayStart, calendar.getTime()};
+    }
+
+    @Benchmark
+    public Instant[] dateTimeFormatter() {
+        final LocalDate day = LocalDate.parse(date, DAY_FORMATTER);
+        return new Instant[]{day.atStartOfDay().toInstant(ZoneOffset.UTC), day.plusDays(1).atStartOfDay().toInstant(ZoneOffset.UTC)};
+    }
+}
@@ -0,0 +1,70 @@
+package de.egym.recruiting.codingtask.ranking;
+
+import de.egym.recruiting.codingtask.dto.ExerciseDto;
+import de.egym.recruiting.codingtask.jpa.domain.Enums;
+import de.egym.recruiting.codingtask.jpa.domain.IdRank;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The ranking calculations the service used before {@link RankingCalculator}, kept as benchmark baselines.
+ * Both expect the exercises ordered by startTime descending.
+ */
+final class LegacyRanking {
+
+    private LegacyRanking() {
+    }
+
+    /**
+     * Groups the exercises by user and streams the list of every user once per exercise type.
+     */
+    static List<Long> rankWithPerTypeStreams(List<Long> userIds, List<ExerciseDto> exercisesToRank) {
+        Map<Long, List<ExerciseDto>> userIdExercises = exercisesToRank.stream().collect(Collectors.groupingBy(ExerciseDto::getUserId));
+        PriorityQueue<IdRank> idRanks = new PriorityQueue<>();
+
+        for (Long userId : userIds) {
+            long sum = 0;
+            for (Enums.ExerciseType type : Enums.ExerciseType.values()) {
+                List<ExerciseDto> exerciseByUserSpecificType = userIdExercises.get(userId).stream()
+                        .filter(exercise -> type.equals(exercise.getType())).limit(10).collect(Collectors.toList());
+                int percent = 100;
+                for (ExerciseDto exercise : exerciseByUserSpecificType) {
+                    sum += percent * RankingRules.multiplicationFactor(type) * (exercise.getDuration() / 60
+                            + exercise.getCalories()) / 100;
+                    percent -= 10;
+                }
+            }
+            idRanks.add(new IdRank(userId, sum));
+        }
+        return Stream.generate(idRanks::poll).limit(idRanks.size()).map(idRank -> idRank.id).collect(Collectors.toList());
+    }
+
+    /**
+     * Filters the whole exercise list for every (user, type) pair in nested parallel streams.
+     */
+    static List<Long> rankWithStreamingApi(List<Long> userIds, List<ExerciseDto> exercisesToRank) {
+        return userIds.stream().parallel().map(userId -> {
+                    long sumByUserId = Arrays.stream(Enums.ExerciseType.values()).parallel()
+                            .mapToLong(type -> {
+                                List<ExerciseDto> exerciseByUserAndSpecificType = exercisesToRank.stream()
+                                        .filter(exercise -> exercise.getUserId().equals(userId))
+                                        .filter(exercise -> exercise.getType().equals(type)).limit(10).collect(Collectors.toList());
+                                int percent = 100;
+                                long sumPerUserAndType = 0L;
+                                for (ExerciseDto exercise : exerciseByUserAndSpecificType) {
+                                    sumPerUserAndType += percent * RankingRules.multiplicationFactor(type)
+                                            * (exercise.getDuration() / 60 + exercise.getCalories()) / 100;
+                                    percent -= 10;
+                                }
+                                return sumPerUserAndType;
+                            }).sum();
+                    return new IdRank(userId, sumByUserId);
+                }
+        ).sorted().map(idRank -> idRank.id).collect(Collectors.toList());
+    }
+}
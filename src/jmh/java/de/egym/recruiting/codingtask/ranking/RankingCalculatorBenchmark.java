@@ -0,0 +1,78 @@
+package de.egym.recruiting.codingtask.ranking;
+
+import de.egym.recruiting.codingtask.dto.ExerciseDto;
+import de.egym.recruiting.codingtask.jpa.domain.Enums;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the single pass {@link RankingCalculator} with the former per-type stream and streaming API rankings
+ * on in-memory exercises, so that only the calculation itself is measured.
+ * The streaming API baseline is O(users x types x exercises) and takes minutes per invocation at the default size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+public class RankingCalculatorBenchmark {
+
+    @Param("10000")
+    public int users;
+
+    @Param("1000000")
+    public int exercises;
+
+    private List<Long> userIds;
+
+    private List<ExerciseDto> exercisesToRank;
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(42);
+        final Enums.ExerciseType[] types = Enums.ExerciseType.values();
+        final long now = System.currentTimeMillis();
+        final long step = RankingRules.RANKING_PERIOD_MILLIS / exercises;
+
+        userIds = new ArrayList<>(users);
+        for (long userId = 1; userId <= users; userId++) {
+            userIds.add(userId);
+        }
+        exercisesToRank = new ArrayList<>(exercises);
+        for (int i = 0; i < exercises; i++) {
+            // every user gets at least one exercise, the legacy per-type ranking fails for users without one
+            final long userId = i < users ? i + 1L : 1L + random.nextInt(users);
+            exercisesToRank.add(new ExerciseDto((long) i + 1, userId, "Run", types[random.nextInt(types.length)],
+                    Instant.ofEpochMilli(now - i * step), 600 + random.nextInt(7200), 0, 50 + random.nextInt(1000)));
+        }
+    }
+
+    @Benchmark
+    public Object singlePassCalculator() {
+        return new RankingCalculator(userIds).addAll(exercisesToRank).getIdRanks(userIds);
+    }
+
+    @Benchmark
+    public Object legacyPerTypeStreams() {
+        return LegacyRanking.rankWithPerTypeStreams(userIds, exercisesToRank);
+    }
+
+    @Benchmark
+    public Object legacyStreamingApi() {
+        return LegacyRanking.rankWithStreamingApi(userIds, exercisesToRank);
+    }
+}
@@ -0,0 +1,89 @@
+package de.egym.recruiting.codingtask.rest;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import de.egym.recruiting.codingtask.jpa.domain.Enums;
+import de.egym.recruiting.codingtask.jpa.domain.Exercise;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing and reading an exercise listing as JSON and as Smile, the body formats clients can negotiate.
+ * The payload sizes are printed once per trial.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BinaryFormatBenchmark {
+
+    @Param({"json", "smile"})
+    public String format;
+
+    @Param({"10", "1000"})
+    public int exercises;
+
+    private List<Exercise> payload;
+
+    private byte[] body;
+
+    private ObjectWriter listWriter;
+
+    private ObjectReader listReader;
+
+    @Setup
+    public void setUp() throws Exception {
+        final Random random = new Random(42);
+        final long now = System.currentTimeMillis();
+        payload = new ArrayList<>(exercises);
+        for (int i = 0; i < exercises; i++) {
+            final Exercise exercise = new Exercise();
+            exercise.setId((long) i + 1);
+            exercise.setUserId((long) random.nextInt(1000));
+            exercise.setType(Enums.ExerciseType.values()[random.nextInt(Enums.ExerciseType.values().length)]);
+            exercise.setDescription("Evening Bike");
+            exercise.setDuration(random.nextInt(7200));
+            exercise.setDistance(random.nextInt(50000));
+            exercise.setCalories(random.nextInt(1000));
+            exercise.setStartTime(Instant.ofEpochMilli(now - TimeUnit.HOURS.toMillis(i)));
+            payload.add(exercise);
+        }
+        final ObjectMapper mapper = "smile".equals(format) ? ObjectMapperProvider.smileMapper() : ObjectMapperProvider.objectMapper();
+        final JavaType listType = mapper.getTypeFactory().constructType(new TypeReference<List<Exercise>>() {
+        });
+        listWriter = mapper.writerFor(listType);
+        listReader = mapper.reader(listType);
+        body = listWriter.writeValueAsBytes(payload);
+        System.out.println(format + " payload of " + exercises + " exercises: " + body.length + " bytes");
+    }
+
+    @Benchmark
+    public byte[] write() throws Exception {
+        return listWriter.writeValueAsBytes(payload);
+    }
+
+    @Benchmark
+    public List<Exercise> read() throws Exception {
+        return listReader.readValue(body);
+    }
+}
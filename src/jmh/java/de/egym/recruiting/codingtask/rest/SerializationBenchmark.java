@@ -0,0 +1,85 @@
+package de.egym.recruiting.codingtask.rest;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import de.egym.recruiting.codingtask.jpa.domain.Enums;
+import de.egym.recruiting.codingtask.jpa.domain.Exercise;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of exercise listings: a new pretty printing ObjectMapper with a SimpleDateFormat per response
+ * (as the ObjectMapperProvider used to hand out) against the shared mapper with the cached compact writer.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    @Param({"10", "1000"})
+    public int exercises;
+
+    private List<Exercise> payload;
+
+    private ObjectWriter listWriter;
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(42);
+        final long now = System.currentTimeMillis();
+        payload = new ArrayList<>(exercises);
+        for (int i = 0; i < exercises; i++) {
+            final Exercise exercise = new Exercise();
+            exercise.setId((long) i + 1);
+            exercise.setUserId((long) random.nextInt(1000));
+            exercise.setType(Enums.ExerciseType.values()[random.nextInt(Enums.ExerciseType.values().length)]);
+            exercise.setDescription("Evening Bike");
+            exercise.setDuration(random.nextInt(7200));
+            exercise.setDistance(random.nextInt(50000));
+            exercise.setCalories(random.nextInt(1000));
+            exercise.setStartTime(Instant.ofEpochMilli(now - TimeUnit.HOURS.toMillis(i)));
+            payload.add(exercise);
+        }
+        listWriter = ObjectMapperProvider.writerFor(ObjectMapperProvider.objectMapper().getTypeFactory()
+                .constructType(new TypeReference<List<Exercise>>() {
+                }));
+    }
+
+    @Benchmark
+    public byte[] newPrettyMapperPerResponse() throws Exception {
+        final ObjectMapper mapper = new ObjectMapper();
+        mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        mapper.configure(SerializationFeature.INDENT_OUTPUT, true);
+        mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        mapper.setDateFormat(new SimpleDateFormat(ObjectMapperProvider.DATE_TIME_PATTERN));
+        return mapper.writeValueAsBytes(payload);
+    }
+
+    @Benchmark
+    public byte[] sharedCompactWriter() throws Exception {
+        return listWriter.writeValueAsBytes(payload);
+    }
+}
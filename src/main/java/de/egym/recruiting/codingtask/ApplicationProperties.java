@@ -0,0 +1,62 @@
+package de.egym.recruiting.codingtask;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Loads the application configuration from the application.properties on the classpath.
+ * Every entry can be overridden by a system property with the same name, e.g. {@code -Dranking.strategy=SQL}.
+ */
+public final class ApplicationProperties {
+
+	private static final String RESOURCE = "/application.properties";
+
+	private ApplicationProperties() {
+	}
+
+	/**
+	 * @param overrides
+	 *            entries that take precedence over the file and the system properties
+	 * @return the configuration
+	 */
+	@Nonnull
+	public static Properties load(@Nonnull final Properties overrides) {
+		final Properties properties = new Properties();
+		try (InputStream in = ApplicationProperties.class.getResourceAsStream(RESOURCE)) {
+			if (in != null) {
+				properties.load(in);
+			}
+		} catch (IOException e) {
+			throw new IllegalStateException("Could not read " + RESOURCE, e);
+		}
+		for (String name : properties.stringPropertyNames()) {
+			final String systemValue = System.getProperty(name);
+			if (systemValue != null) {
+				properties.setProperty(name, systemValue);
+			}
+		}
+		properties.putAll(overrides);
+		return properties;
+	}
+
+	/**
+	 * @param properties
+	 *            the configuration
+	 * @param name
+	 *            of the entry
+	 * @return the value of the entry
+	 * @throws IllegalStateException
+	 *             if the configuration lacks the entry
+	 */
+	@Nonnull
+	public static String getRequired(@Nonnull final Properties properties, @Nonnull final String name) {
+		final String value = properties.getProperty(name);
+		if (value == null) {
+			throw new IllegalStateException("Missing configuration entry " + name);
+		}
+		return value;
+	}
+}
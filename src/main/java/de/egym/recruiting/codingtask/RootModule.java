@@ -1,17 +1,43 @@
 package de.egym.recruiting.codingtask;
 
+import java.util.Properties;
+
 import com.google.inject.AbstractModule;
+import com.google.inject.name.Names;
 
 import de.egym.recruiting.codingtask.jpa.JpaModule;
+import de.egym.recruiting.codingtask.jpa.StorageMode;
 import de.egym.recruiting.codingtask.rest.RestServiceModule;
 
 public class RootModule extends AbstractModule {
 
+	private final Properties propertyOverrides;
+
+	public RootModule() {
+		this(new Properties());
+	}
+
+	/**
+	 * @param propertyOverrides
+	 *            configuration entries that take precedence over the application.properties
+	 */
+	public RootModule(final Properties propertyOverrides) {
+		this.propertyOverrides = propertyOverrides;
+	}
+
 	@Override
 	protected void configure() {
-		install(new JpaModule());
-		install(new RestServiceModule());
+		final Properties properties = ApplicationProperties.load(propertyOverrides);
+		Names.bindProperties(binder(), properties);
+
+		install(new JpaModule(properties));
 
-		bind(TestData.class).asEagerSingleton();
+		// a file database keeps its data over restarts, only the in-memory one is seeded on every start; before the
+		// services are installed, their eager singletons load the seeded exercises
+		if (StorageMode.valueOf(ApplicationProperties.getRequired(properties, "db.storage")) == StorageMode.MEMORY) {
+			bind(TestData.class).asEagerSingleton();
+		}
+
+		install(new RestServiceModule());
 	}
 }
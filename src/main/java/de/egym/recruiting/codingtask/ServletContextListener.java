@@ -3,13 +3,23 @@ package de.egym.recruiting.codingtask;
 import java.util.Arrays;
 import java.util.List;
 
+import javax.servlet.ServletContextEvent;
+
 import com.google.inject.Module;
 import com.squarespace.jersey2.guice.JerseyGuiceServletContextListener;
 
+import de.egym.recruiting.codingtask.ranking.ParallelRankingExecutor;
+
 public class ServletContextListener extends JerseyGuiceServletContextListener {
 
 	@Override
 	protected List<? extends Module> modules() {
 		return Arrays.asList(new RootModule());
 	}
+
+	@Override
+	public void contextDestroyed(ServletContextEvent servletContextEvent) {
+		getInjector().getInstance(ParallelRankingExecutor.class).shutdown();
+		super.contextDestroyed(servletContextEvent);
+	}
 }
@@ -50,7 +50,7 @@ public class TestData {
 		exercise11.setUserId(userId1);
 		exercise11.setDistance(250000);
 		try {
-			exercise11.setStartTime(DateUtils.parseDate("2016-06-02T14:23:35", TIME_PATTERN));
+			exercise11.setStartTime(DateUtils.parseDate("2016-06-02T14:23:35", TIME_PATTERN).toInstant());
 		} catch (ParseException e) {
 			// ignoring
 		}
@@ -64,7 +64,7 @@ public class TestData {
 		exercise12.setDistance(280000);
 		exercise12.setUserId(userId1);
 		try {
-			exercise12.setStartTime(DateUtils.parseDate("2016-06-17T16:33:45", TIME_PATTERN));
+			exercise12.setStartTime(DateUtils.parseDate("2016-06-17T16:33:45", TIME_PATTERN).toInstant());
 		} catch (ParseException e) {
 			// ignoring
 		}
@@ -80,7 +80,7 @@ public class TestData {
 		exercise21.setDistance(92000);
 		exercise21.setUserId(userId2);
 		try {
-			exercise21.setStartTime(DateUtils.parseDate("2016-05-12T19:13:07", TIME_PATTERN));
+			exercise21.setStartTime(DateUtils.parseDate("2016-05-12T19:13:07", TIME_PATTERN).toInstant());
 		} catch (ParseException e) {
 			// ignoring
 		}
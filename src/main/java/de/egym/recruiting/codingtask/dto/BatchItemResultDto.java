@@ -0,0 +1,90 @@
+package de.egym.recruiting.codingtask.dto;
+
+import java.util.List;
+
+/**
+ * This Data Transfer Object (DTO) is used to pass the outcome of one exercise of a batch import via the REST interface.
+ * Exactly one of id, conflictExerciseIds and error is set.
+ *
+ * @see de.egym.recruiting.codingtask.rest.ExerciseService#createAll
+ */
+public class BatchItemResultDto {
+
+	/**
+	 * 0-based position of the exercise in the batch.
+	 */
+	private int index;
+
+	/**
+	 * Id of the created exercise.
+	 */
+	private Long id;
+
+	/**
+	 * Ids of the exercises of the user the exercise overlaps, including the ones created by the same batch.
+	 */
+	private List<Long> conflictExerciseIds;
+
+	/**
+	 * Reason the exercise has been rejected as invalid.
+	 */
+	private String error;
+
+	/**
+	 * Used for serialization only.
+	 */
+	BatchItemResultDto() {
+		super();
+	}
+
+	private BatchItemResultDto(int index, Long id, List<Long> conflictExerciseIds, String error) {
+		this.index = index;
+		this.id = id;
+		this.conflictExerciseIds = conflictExerciseIds;
+		this.error = error;
+	}
+
+	public static BatchItemResultDto created(int index, long id) {
+		return new BatchItemResultDto(index, id, null, null);
+	}
+
+	public static BatchItemResultDto conflict(int index, List<Long> conflictExerciseIds) {
+		return new BatchItemResultDto(index, null, conflictExerciseIds, null);
+	}
+
+	public static BatchItemResultDto invalid(int index, String error) {
+		return new BatchItemResultDto(index, null, null, error);
+	}
+
+	public int getIndex() {
+		return index;
+	}
+
+	void setIndex(int index) {
+		this.index = index;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	void setId(Long id) {
+		this.id = id;
+	}
+
+	public List<Long> getConflictExerciseIds() {
+		return conflictExerciseIds;
+	}
+
+	void setConflictExerciseIds(List<Long> conflictExerciseIds) {
+		this.conflictExerciseIds = conflictExerciseIds;
+	}
+
+	public String getError() {
+		return error;
+	}
+
+	void setError(String error) {
+		this.error = error;
+	}
+}
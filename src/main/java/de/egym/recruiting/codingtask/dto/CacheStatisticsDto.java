@@ -0,0 +1,119 @@
+package de.egym.recruiting.codingtask.dto;
+
+/**
+ * This Data Transfer Object (DTO) is used to pass the statistics of a second-level or query cache region
+ * via the REST interface. The counts are cumulated since the start of the application.
+ *
+ * @see de.egym.recruiting.codingtask.rest.MetricsService#getCacheStatistics
+ */
+public class CacheStatisticsDto {
+
+	/**
+	 * Name of the cache region.
+	 */
+	private String region;
+
+	/**
+	 * Number of entries currently in the region.
+	 */
+	private long size;
+
+	/**
+	 * Number of lookups answered by the region.
+	 */
+	private long hitCount;
+
+	/**
+	 * Number of lookups not found or expired in the region.
+	 */
+	private long missCount;
+
+	/**
+	 * Number of entries put into the region.
+	 */
+	private long putCount;
+
+	/**
+	 * Number of entries evicted because the region was full.
+	 */
+	private long evictionCount;
+
+	/**
+	 * Number of entries removed because their time to live passed.
+	 */
+	private long expiredCount;
+
+	/**
+	 * Used for serialization only.
+	 */
+	CacheStatisticsDto() {
+		super();
+	}
+
+	public CacheStatisticsDto(String region, long size, long hitCount, long missCount, long putCount, long evictionCount,
+			long expiredCount) {
+		this.region = region;
+		this.size = size;
+		this.hitCount = hitCount;
+		this.missCount = missCount;
+		this.putCount = putCount;
+		this.evictionCount = evictionCount;
+		this.expiredCount = expiredCount;
+	}
+
+	public String getRegion() {
+		return region;
+	}
+
+	void setRegion(String region) {
+		this.region = region;
+	}
+
+	public long getSize() {
+		return size;
+	}
+
+	void setSize(long size) {
+		this.size = size;
+	}
+
+	public long getHitCount() {
+		return hitCount;
+	}
+
+	void setHitCount(long hitCount) {
+		this.hitCount = hitCount;
+	}
+
+	public long getMissCount() {
+		return missCount;
+	}
+
+	void setMissCount(long missCount) {
+		this.missCount = missCount;
+	}
+
+	public long getPutCount() {
+		return putCount;
+	}
+
+	void setPutCount(long putCount) {
+		this.putCount = putCount;
+	}
+
+	public long getEvictionCount() {
+		return evictionCount;
+	}
+
+	void setEvictionCount(long evictionCount) {
+		this.evictionCount = evictionCount;
+	}
+
+	public long getExpiredCount() {
+		return expiredCount;
+	}
+
+	void setExpiredCount(long expiredCount) {
+		this.expiredCount = expiredCount;
+	}
+}
@@ -0,0 +1,101 @@
+package de.egym.recruiting.codingtask.dto;
+
+import java.time.Instant;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import de.egym.recruiting.codingtask.jpa.domain.Enums;
+
+/**
+ * This Data Transfer Object (DTO) is used to pass stored exercises to read-only clients via the REST interface.
+ * It is created by the constructor expressions of the Exercise queries, so listing exercises neither hydrates nor
+ * snapshots managed entities. The JSON is the same as the one of the Exercise.
+ *
+ * @see de.egym.recruiting.codingtask.rest.ExerciseService#getExercises
+ */
+@JsonPropertyOrder({"id", "userId", "description", "type", "startTime", "duration", "distance", "calories"})
+public final class ExerciseDto {
+
+	private final Long id;
+
+	private final Long userId;
+
+	private final String description;
+
+	private final Enums.ExerciseType type;
+
+	/**
+	 * format: yyyy-MM-dd'T'HH:mm:ss in UTC, see ObjectMapperProvider
+	 */
+	private final Instant startTime;
+
+	/**
+	 * in seconds
+	 */
+	private final Integer duration;
+
+	/**
+	 * in meters
+	 */
+	private final Integer distance;
+
+	/**
+	 * in kcal
+	 */
+	private final Integer calories;
+
+	@JsonCreator
+	public ExerciseDto(@JsonProperty("id") Long id, @JsonProperty("userId") Long userId,
+			@JsonProperty("description") String description, @JsonProperty("type") Enums.ExerciseType type,
+			@JsonProperty("startTime") Instant startTime, @JsonProperty("duration") Integer duration,
+			@JsonProperty("distance") Integer distance, @JsonProperty("calories") Integer calories) {
+		this.id = id;
+		this.userId = userId;
+		this.description = description;
+		this.type = type;
+		this.startTime = startTime;
+		this.duration = duration;
+		this.distance = distance;
+		this.calories = calories;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public Long getUserId() {
+		return userId;
+	}
+
+	public String getDescription() {
+		return description;
+	}
+
+	public Enums.ExerciseType getType() {
+		return type;
+	}
+
+	public Instant getStartTime() {
+		return startTime;
+	}
+
+	public Integer getDuration() {
+		return duration;
+	}
+
+	public Integer getDistance() {
+		return distance;
+	}
+
+	public Integer getCalories() {
+		return calories;
+	}
+
+	@Override
+	public String toString() {
+		return "ExerciseDto[id=" + id + ", userId=" + userId + ", type=" + type + ", startTime=" + startTime
+				+ ", duration=" + duration + "]";
+	}
+}
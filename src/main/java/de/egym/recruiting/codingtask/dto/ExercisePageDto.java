@@ -0,0 +1,50 @@
+package de.egym.recruiting.codingtask.dto;
+
+import java.util.List;
+
+/**
+ * This Data Transfer Object (DTO) is used to pass one page of exercises via the REST interface.
+ *
+ * @see de.egym.recruiting.codingtask.rest.ExerciseService#getExercisePage
+ * @see de.egym.recruiting.codingtask.rest.ExerciseService#searchExercises
+ */
+public class ExercisePageDto {
+
+	/**
+	 * Exercises of the page.
+	 */
+	private List<ExerciseDto> exercises;
+
+	/**
+	 * Cursor to pass as {@code after} parameter to get the next page, null on the last page.
+	 */
+	private String nextCursor;
+
+	/**
+	 * Used for serialization only.
+	 */
+	ExercisePageDto() {
+		super();
+	}
+
+	public ExercisePageDto(List<ExerciseDto> exercises, String nextCursor) {
+		this.exercises = exercises;
+		this.nextCursor = nextCursor;
+	}
+
+	public List<ExerciseDto> getExercises() {
+		return exercises;
+	}
+
+	void setExercises(List<ExerciseDto> exercises) {
+		this.exercises = exercises;
+	}
+
+	public String getNextCursor() {
+		return nextCursor;
+	}
+
+	void setNextCursor(String nextCursor) {
+		this.nextCursor = nextCursor;
+	}
+}
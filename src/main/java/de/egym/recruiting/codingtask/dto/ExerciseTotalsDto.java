@@ -0,0 +1,114 @@
+package de.egym.recruiting.codingtask.dto;
+
+import de.egym.recruiting.codingtask.jpa.domain.Enums;
+
+/**
+ * This Data Transfer Object (DTO) is used to pass the summed up exercises of a user of one type in one day or week
+ * via the REST interface.
+ *
+ * @see de.egym.recruiting.codingtask.rest.ExerciseService#getExerciseTotals
+ */
+public class ExerciseTotalsDto {
+
+	/**
+	 * First day of the period: format yyyy-MM-dd in UTC, the Monday of a week.
+	 */
+	private String periodStart;
+
+	private Enums.ExerciseType type;
+
+	/**
+	 * Number of exercises.
+	 */
+	private long exercises;
+
+	/**
+	 * in seconds
+	 */
+	private long duration;
+
+	/**
+	 * in meters
+	 */
+	private long distance;
+
+	/**
+	 * in kcal
+	 */
+	private long calories;
+
+	/**
+	 * Used for serialization only.
+	 */
+	ExerciseTotalsDto() {
+		super();
+	}
+
+	public ExerciseTotalsDto(String periodStart, Enums.ExerciseType type, long exercises, long duration, long distance,
+			long calories) {
+		this.periodStart = periodStart;
+		this.type = type;
+		this.exercises = exercises;
+		this.duration = duration;
+		this.distance = distance;
+		this.calories = calories;
+	}
+
+	/**
+	 * Adds the sums of a day to the totals of its period.
+	 */
+	public void add(long exercises, long duration, long distance, long calories) {
+		this.exercises += exercises;
+		this.duration += duration;
+		this.distance += distance;
+		this.calories += calories;
+	}
+
+	public String getPeriodStart() {
+		return periodStart;
+	}
+
+	void setPeriodStart(String periodStart) {
+		this.periodStart = periodStart;
+	}
+
+	public Enums.ExerciseType getType() {
+		return type;
+	}
+
+	void setType(Enums.ExerciseType type) {
+		this.type = type;
+	}
+
+	public long getExercises() {
+		return exercises;
+	}
+
+	void setExercises(long exercises) {
+		this.exercises = exercises;
+	}
+
+	public long getDuration() {
+		return duration;
+	}
+
+	void setDuration(long duration) {
+		this.duration = duration;
+	}
+
+	public long getDistance() {
+		return distance;
+	}
+
+	void setDistance(long distance) {
+		this.distance = distance;
+	}
+
+	public long getCalories() {
+		return calories;
+	}
+
+	void setCalories(long calories) {
+		this.calories = calories;
+	}
+}
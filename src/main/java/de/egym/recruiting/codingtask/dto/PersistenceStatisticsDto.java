@@ -0,0 +1,91 @@
+package de.egym.recruiting.codingtask.dto;
+
+/**
+ * This Data Transfer Object (DTO) is used to pass how requests and transactions used the persistence layer
+ * via the REST interface. The counts are cumulated since the start of the application.
+ *
+ * @see de.egym.recruiting.codingtask.rest.MetricsService#getPersistenceStatistics
+ */
+public class PersistenceStatisticsDto {
+
+	/**
+	 * Number of finished requests.
+	 */
+	private long requests;
+
+	/**
+	 * Number of finished requests that opened an entity manager.
+	 */
+	private long requestsWithUnitOfWork;
+
+	/**
+	 * Number of finished requests answered without an entity manager, e.g. from a cache.
+	 */
+	private long requestsWithoutUnitOfWork;
+
+	/**
+	 * Number of transactions run as read-only ones, within and outside of requests.
+	 */
+	private long readOnlyTransactions;
+
+	/**
+	 * Number of read-write transactions, within and outside of requests.
+	 */
+	private long readWriteTransactions;
+
+	/**
+	 * Used for serialization only.
+	 */
+	PersistenceStatisticsDto() {
+		super();
+	}
+
+	public PersistenceStatisticsDto(long requests, long requestsWithUnitOfWork, long requestsWithoutUnitOfWork,
+			long readOnlyTransactions, long readWriteTransactions) {
+		this.requests = requests;
+		this.requestsWithUnitOfWork = requestsWithUnitOfWork;
+		this.requestsWithoutUnitOfWork = requestsWithoutUnitOfWork;
+		this.readOnlyTransactions = readOnlyTransactions;
+		this.readWriteTransactions = readWriteTransactions;
+	}
+
+	public long getRequests() {
+		return requests;
+	}
+
+	void setRequests(long requests) {
+		this.requests = requests;
+	}
+
+	public long getRequestsWithUnitOfWork() {
+		return requestsWithUnitOfWork;
+	}
+
+	void setRequestsWithUnitOfWork(long requestsWithUnitOfWork) {
+		this.requestsWithUnitOfWork = requestsWithUnitOfWork;
+	}
+
+	public long getRequestsWithoutUnitOfWork() {
+		return requestsWithoutUnitOfWork;
+	}
+
+	void setRequestsWithoutUnitOfWork(long requestsWithoutUnitOfWork) {
+		this.requestsWithoutUnitOfWork = requestsWithoutUnitOfWork;
+	}
+
+	public long getReadOnlyTransactions() {
+		return readOnlyTransactions;
+	}
+
+	void setReadOnlyTransactions(long readOnlyTransactions) {
+		this.readOnlyTransactions = readOnlyTransactions;
+	}
+
+	public long getReadWriteTransactions() {
+		return readWriteTransactions;
+	}
+
+	void setReadWriteTransactions(long readWriteTransactions) {
+		this.readWriteTransactions = readWriteTransactions;
+	}
+}
@@ -0,0 +1,148 @@
+package de.egym.recruiting.codingtask.dto;
+
+/**
+ * This Data Transfer Object (DTO) is used to pass the usage of the JDBC connection pool via the REST interface.
+ * The connection counts are the current ones, the acquisition counts are cumulated since the start of the
+ * application.
+ *
+ * @see de.egym.recruiting.codingtask.rest.MetricsService#getPoolStatistics
+ */
+public class PoolStatisticsDto {
+
+	/**
+	 * Number of connections the pool currently holds.
+	 */
+	private int connections;
+
+	/**
+	 * Number of connections currently checked out by a session.
+	 */
+	private int activeConnections;
+
+	/**
+	 * Number of connections currently available in the pool.
+	 */
+	private int idleConnections;
+
+	/**
+	 * Number of threads currently waiting for a connection.
+	 */
+	private int waitingThreads;
+
+	/**
+	 * Number of prepared statements currently cached over all connections.
+	 */
+	private int cachedStatements;
+
+	/**
+	 * Number of connections handed out.
+	 */
+	private long acquisitions;
+
+	/**
+	 * Number of acquisitions that failed because no connection became available within the acquisition timeout.
+	 */
+	private long timeouts;
+
+	/**
+	 * Average time in microseconds a session waited for its connection.
+	 */
+	private long averageWaitMicros;
+
+	/**
+	 * Longest time in microseconds a session waited for its connection.
+	 */
+	private long maxWaitMicros;
+
+	/**
+	 * Used for serialization only.
+	 */
+	PoolStatisticsDto() {
+		super();
+	}
+
+	public PoolStatisticsDto(int connections, int activeConnections, int idleConnections, int waitingThreads,
+			int cachedStatements, long acquisitions, long timeouts, long averageWaitMicros, long maxWaitMicros) {
+		this.connections = connections;
+		this.activeConnections = activeConnections;
+		this.idleConnections = idleConnections;
+		this.waitingThreads = waitingThreads;
+		this.cachedStatements = cachedStatements;
+		this.acquisitions = acquisitions;
+		this.timeouts = timeouts;
+		this.averageWaitMicros = averageWaitMicros;
+		this.maxWaitMicros = maxWaitMicros;
+	}
+
+	public int getConnections() {
+		return connections;
+	}
+
+	void setConnections(int connections) {
+		this.connections = connections;
+	}
+
+	public int getActiveConnections() {
+		return activeConnections;
+	}
+
+	void setActiveConnections(int activeConnections) {
+		this.activeConnections = activeConnections;
+	}
+
+	public int getIdleConnections() {
+		return idleConnections;
+	}
+
+	void setIdleConnections(int idleConnections) {
+		this.idleConnections = idleConnections;
+	}
+
+	public int getWaitingThreads() {
+		return waitingThreads;
+	}
+
+	void setWaitingThreads(int waitingThreads) {
+		this.waitingThreads = waitingThreads;
+	}
+
+	public int getCachedStatements() {
+		return cachedStatements;
+	}
+
+	void setCachedStatements(int cachedStatements) {
+		this.cachedStatements = cachedStatements;
+	}
+
+	public long getAcquisitions() {
+		return acquisitions;
+	}
+
+	void setAcquisitions(long acquisitions) {
+		this.acquisitions = acquisitions;
+	}
+
+	public long getTimeouts() {
+		return timeouts;
+	}
+
+	void setTimeouts(long timeouts) {
+		this.timeouts = timeouts;
+	}
+
+	public long getAverageWaitMicros() {
+		return averageWaitMicros;
+	}
+
+	void setAverageWaitMicros(long averageWaitMicros) {
+		this.averageWaitMicros = averageWaitMicros;
+	}
+
+	public long getMaxWaitMicros() {
+		return maxWaitMicros;
+	}
+
+	void setMaxWaitMicros(long maxWaitMicros) {
+		this.maxWaitMicros = maxWaitMicros;
+	}
+}
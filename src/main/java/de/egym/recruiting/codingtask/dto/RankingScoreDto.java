@@ -0,0 +1,47 @@
+package de.egym.recruiting.codingtask.dto;
+
+/**
+ * This Data Transfer Object (DTO) is used to pass the ranking points of a user via the REST interface.
+ *
+ * @see de.egym.recruiting.codingtask.rest.ExerciseService#getRankingScores
+ */
+public class RankingScoreDto {
+
+	/**
+	 * Id of the ranked user.
+	 */
+	private long userId;
+
+	/**
+	 * Ranking points of the user.
+	 */
+	private long score;
+
+	/**
+	 * Used for serialization only.
+	 */
+	RankingScoreDto() {
+		super();
+	}
+
+	public RankingScoreDto(long userId, long score) {
+		this.userId = userId;
+		this.score = score;
+	}
+
+	public long getUserId() {
+		return userId;
+	}
+
+	void setUserId(long userId) {
+		this.userId = userId;
+	}
+
+	public long getScore() {
+		return score;
+	}
+
+	void setScore(long score) {
+		this.score = score;
+	}
+}
@@ -0,0 +1,188 @@
+package de.egym.recruiting.codingtask.jpa;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.Properties;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.egym.recruiting.codingtask.ApplicationProperties;
+
+/**
+ * Sets up the HSQLDB database the persistence unit works on, configured by the {@code db.*} entries of the
+ * application.properties: the connection url of the {@link StorageMode}, the write settings of a file database and
+ * whether Hibernate has to update the schema.
+ * <p>
+ * The schema update (hbm2ddl.auto=update) compares every mapping with the database metadata on each start. It only
+ * runs when the database does not have the {@link #SCHEMA_VERSION} of the mappings yet, which is stored once the
+ * update succeeded.
+ * <p>
+ * The second-level cache regions are shared by all entity manager factories of the JVM. Those of a file database get
+ * the file as {@code hibernate.cache.region_prefix}, so that they never serve the rows of another database under the
+ * same ids; the in-memory database is the same for the whole JVM and keeps the unprefixed regions.
+ */
+final class DatabaseStorage {
+
+	/**
+	 * Version of the entity mappings, increase it with every change of them, otherwise existing databases keep their
+	 * old schema.
+	 */
+	static final int SCHEMA_VERSION = 3;
+
+	private static final Logger log = LoggerFactory.getLogger(DatabaseStorage.class);
+
+	private static final String MEMORY_URL = "jdbc:hsqldb:mem:egym-test;hsqldb.tx=mvcc;hsqldb.write_delay=false";
+
+	/**
+	 * Applies to a new database only.
+	 */
+	private static final String FILE_URL_SETTINGS = ";hsqldb.tx=mvcc;hsqldb.default_table_type=cached";
+
+	/**
+	 * Same as in the persistence.xml.
+	 */
+	private static final String USER = "sa";
+
+	private static final String PASSWORD = "";
+
+	private static final String SCHEMA_VERSION_TABLE = "SCHEMA_VERSION";
+
+	private final StorageMode mode;
+
+	private final String url;
+
+	private final Properties properties;
+
+	private final Map<String, String> persistenceProperties;
+
+	private boolean schemaCurrent;
+
+	/**
+	 * @param properties
+	 *            the application configuration
+	 * @param persistenceProperties
+	 *            the properties the persistence unit is created with, receives the connection url, the cache region
+	 *            prefix and, when {@link #prepare()} is called, the schema update setting
+	 */
+	DatabaseStorage(final Properties properties, final Map<String, String> persistenceProperties) {
+		this.properties = properties;
+		this.persistenceProperties = persistenceProperties;
+		mode = StorageMode.valueOf(ApplicationProperties.getRequired(properties, "db.storage"));
+		if (mode == StorageMode.FILE) {
+			final String path = ApplicationProperties.getRequired(properties, "db.file.path");
+			url = "jdbc:hsqldb:file:" + path + FILE_URL_SETTINGS;
+			// region names are qualified by a '.', which the prefix must not contain
+			persistenceProperties.put("hibernate.cache.region_prefix",
+					"file_" + new File(path).getAbsolutePath().replaceAll("[^A-Za-z0-9]", "_"));
+		} else {
+			url = MEMORY_URL;
+		}
+		persistenceProperties.put("hibernate.connection.url", url);
+	}
+
+	/**
+	 * Applies the write settings of a file database and decides whether Hibernate updates the schema, must be called
+	 * before the persistence service starts.
+	 */
+	void prepare() {
+		try (Connection connection = DriverManager.getConnection(url, USER, PASSWORD)) {
+			if (mode == StorageMode.FILE) {
+				try (Statement statement = connection.createStatement()) {
+					// unlike the url properties these also apply to an existing database
+					statement.execute("SET FILES WRITE DELAY " + getFileSetting("db.file.writeDelayMillis") + " MILLIS");
+					statement.execute("SET FILES LOG SIZE " + getFileSetting("db.file.logSizeMb"));
+					statement.execute("SET FILES DEFRAG " + getFileSetting("db.file.defragPercent"));
+				}
+			}
+			final Integer version = readSchemaVersion(connection);
+			schemaCurrent = version != null && version == SCHEMA_VERSION;
+			log.info("Database {} has schema version {}, current is {}", url, version, SCHEMA_VERSION);
+		} catch (SQLException e) {
+			throw new IllegalStateException("Could not open the database " + url, e);
+		}
+		persistenceProperties.put("hibernate.hbm2ddl.auto", schemaCurrent ? "none" : "update");
+	}
+
+	/**
+	 * Records that the schema has been updated to the current version, called once the persistence service started.
+	 */
+	void schemaUpdated() {
+		if (schemaCurrent) {
+			return;
+		}
+		try (Connection connection = DriverManager.getConnection(url, USER, PASSWORD)) {
+			try (Statement statement = connection.createStatement()) {
+				if (readSchemaVersion(connection) == null) {
+					statement.execute("CREATE TABLE " + SCHEMA_VERSION_TABLE + " (VERSION INTEGER NOT NULL)");
+				}
+				statement.execute("DELETE FROM " + SCHEMA_VERSION_TABLE);
+			}
+			try (PreparedStatement insert = connection.prepareStatement("INSERT INTO " + SCHEMA_VERSION_TABLE
+					+ " (VERSION) VALUES (?)")) {
+				insert.setInt(1, SCHEMA_VERSION);
+				insert.executeUpdate();
+			}
+			schemaCurrent = true;
+		} catch (SQLException e) {
+			throw new IllegalStateException("Could not store the schema version of the database " + url, e);
+		}
+	}
+
+	/**
+	 * Shuts a file database down, which checkpoints the transaction log into the data file so that the next start
+	 * does not have to replay it. Called once the persistence service stopped.
+	 */
+	void shutdown() {
+		if (mode != StorageMode.FILE) {
+			return;
+		}
+		try (Connection connection = DriverManager.getConnection(url, USER, PASSWORD);
+				Statement statement = connection.createStatement()) {
+			statement.execute("SHUTDOWN");
+		} catch (SQLException e) {
+			throw new IllegalStateException("Could not shut down the database " + url, e);
+		}
+	}
+
+	/**
+	 * @return whether Hibernate updates the schema on this start, so that data derived from the existing one has to be
+	 *         built before {@link #schemaUpdated()}
+	 */
+	boolean isUpdatingSchema() {
+		return !schemaCurrent;
+	}
+
+	/**
+	 * @return the version stored by {@link #schemaUpdated()}, null for a new database
+	 */
+	private Integer readSchemaVersion(final Connection connection) throws SQLException {
+		try (ResultSet tables = connection.getMetaData().getTables(null, null, SCHEMA_VERSION_TABLE, null)) {
+			if (!tables.next()) {
+				return null;
+			}
+		}
+		try (Statement statement = connection.createStatement();
+				ResultSet version = statement.executeQuery("SELECT MAX(VERSION) FROM " + SCHEMA_VERSION_TABLE)) {
+			return version.next() ? (Integer) version.getObject(1) : null;
+		}
+	}
+
+	/**
+	 * @return the value of a numeric entry, checked as it becomes part of a statement
+	 */
+	private int getFileSetting(final String name) {
+		final String value = ApplicationProperties.getRequired(properties, name);
+		try {
+			return Integer.parseInt(value.trim());
+		} catch (NumberFormatException e) {
+			throw new IllegalStateException("Configuration entry " + name + " is not a number: " + value, e);
+		}
+	}
+}
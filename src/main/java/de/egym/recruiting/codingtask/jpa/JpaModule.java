@@ -1,11 +1,20 @@
 package de.egym.recruiting.codingtask.jpa;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
 import com.google.inject.Singleton;
+import com.google.inject.matcher.Matchers;
+import com.google.inject.persist.Transactional;
 import com.google.inject.persist.jpa.JpaPersistModule;
 import com.google.inject.servlet.ServletModule;
 
+import de.egym.recruiting.codingtask.ApplicationProperties;
+import de.egym.recruiting.codingtask.jpa.dao.DescriptionIndex;
 import de.egym.recruiting.codingtask.jpa.dao.ExerciseDao;
 import de.egym.recruiting.codingtask.jpa.dao.ExerciseDaoImpl;
+import de.egym.recruiting.codingtask.jpa.dao.ExerciseIntervalIndex;
 
 public class JpaModule extends ServletModule {
 
@@ -14,14 +23,60 @@ public class JpaModule extends ServletModule {
 	 */
 	private static final String PERSISTENCE_UNIT_NAME = "hsqldb";
 
+	private final Properties properties;
+
+	/**
+	 * @param properties
+	 *            the application configuration, the {@code db.*} entries configure the database and the connection
+	 *            pool
+	 */
+	public JpaModule(final Properties properties) {
+		this.properties = properties;
+	}
+
 	@Override
 	protected void configureServlets() {
 		super.configureServlets();
 
-		install(new JpaPersistModule(PERSISTENCE_UNIT_NAME));
+		// interceptors run in the order they are bound: the scope interceptor around the Guice Persist transaction,
+		// the read-only one inside of it
+		final TransactionScopeInterceptor transactionScopeInterceptor = new TransactionScopeInterceptor();
+		requestInjection(transactionScopeInterceptor);
+		bindInterceptor(Matchers.annotatedWith(Transactional.class), Matchers.any(), transactionScopeInterceptor);
+		bindInterceptor(Matchers.any(), Matchers.annotatedWith(Transactional.class), transactionScopeInterceptor);
+
+		// Guice Persist reads the properties when the persistence service starts, JpaPersistenceInitializer lets the
+		// DatabaseStorage complete them first
+		final Map<String, String> persistenceProperties = connectionPoolProperties();
+		bind(DatabaseStorage.class).toInstance(new DatabaseStorage(properties, persistenceProperties));
+		install(new JpaPersistModule(PERSISTENCE_UNIT_NAME).properties(persistenceProperties));
+
+		final ReadOnlyTransactionInterceptor readOnlyTransactionInterceptor = new ReadOnlyTransactionInterceptor();
+		requestInjection(readOnlyTransactionInterceptor);
+		bindInterceptor(Matchers.any(), Matchers.annotatedWith(ReadOnly.class), readOnlyTransactionInterceptor);
+
 		filter("/*").through(JpaPersistFilter.class);
 		bind(JpaPersistenceInitializer.class).asEagerSingleton();
 
 		bind(ExerciseDao.class).to(ExerciseDaoImpl.class).in(Singleton.class);
+		// warm up once the persistence service has been started
+		bind(ExerciseIntervalIndex.class).asEagerSingleton();
+		bind(DescriptionIndex.class).asEagerSingleton();
+	}
+
+	/**
+	 * @return the Hibernate properties replacing its built-in connection provider with the c3p0 pool
+	 */
+	private Map<String, String> connectionPoolProperties() {
+		final Map<String, String> poolProperties = new HashMap<>();
+		poolProperties.put("hibernate.connection.provider_class", PooledConnectionProvider.class.getName());
+		poolProperties.put("hibernate.c3p0.min_size", ApplicationProperties.getRequired(properties, "db.pool.minSize"));
+		poolProperties.put("hibernate.c3p0.max_size", ApplicationProperties.getRequired(properties, "db.pool.maxSize"));
+		// passed on to c3p0 as c3p0.checkoutTimeout and c3p0.maxStatementsPerConnection
+		poolProperties.put("hibernate.c3p0.checkoutTimeout",
+				ApplicationProperties.getRequired(properties, "db.pool.acquireTimeoutMillis"));
+		poolProperties.put("hibernate.c3p0.maxStatementsPerConnection",
+				ApplicationProperties.getRequired(properties, "db.pool.statementCacheSize"));
+		return poolProperties;
 	}
 }
@@ -12,24 +12,27 @@ import javax.servlet.ServletResponse;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import com.google.inject.persist.PersistService;
-import com.google.inject.persist.UnitOfWork;
 
 /**
  * Overrides Guice implementation to handle when the persistence service is already started.
+ * The unit of work of a request is only opened once a transactional method needs it, see {@link UnitOfWorkScope}.
  *
  * https://stackoverflow.com/questions/17402081/how-to-start-jpa-in-a-guice-quartz-web-application
  */
 @Singleton
 final class JpaPersistFilter implements Filter {
 
-	private final UnitOfWork unitOfWork;
+	private final UnitOfWorkScope unitOfWorkScope;
 
 	private final PersistService persistService;
 
+	private final DatabaseStorage databaseStorage;
+
 	@Inject
-	JpaPersistFilter(UnitOfWork unitOfWork, PersistService persistService) {
-		this.unitOfWork = unitOfWork;
+	JpaPersistFilter(UnitOfWorkScope unitOfWorkScope, PersistService persistService, DatabaseStorage databaseStorage) {
+		this.unitOfWorkScope = unitOfWorkScope;
 		this.persistService = persistService;
+		this.databaseStorage = databaseStorage;
 	}
 
 	public void init(FilterConfig filterConfig) throws ServletException {
@@ -42,15 +45,16 @@ final class JpaPersistFilter implements Filter {
 
 	public void destroy() {
 		persistService.stop();
+		databaseStorage.shutdown();
 	}
 
 	public void doFilter(final ServletRequest servletRequest, final ServletResponse servletResponse, final FilterChain filterChain)
 			throws IOException, ServletException {
-		unitOfWork.begin();
+		unitOfWorkScope.beginRequest();
 		try {
 			filterChain.doFilter(servletRequest, servletResponse);
 		} finally {
-			unitOfWork.end();
+			unitOfWorkScope.endRequest();
 		}
 	}
 }
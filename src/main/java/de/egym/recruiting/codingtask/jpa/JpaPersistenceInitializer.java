@@ -1,14 +1,57 @@
 package de.egym.recruiting.codingtask.jpa;
 
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.metamodel.EntityType;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import com.google.inject.Inject;
+import com.google.inject.Provider;
 import com.google.inject.persist.PersistService;
 import com.google.inject.persist.Transactional;
 
+import de.egym.recruiting.codingtask.jpa.dao.AbstractBaseDao;
+import de.egym.recruiting.codingtask.jpa.dao.ExerciseDao;
+
 @Transactional
 class JpaPersistenceInitializer {
 
+	private static final Logger log = LoggerFactory.getLogger(JpaPersistenceInitializer.class);
+
+	/**
+	 * Prepares the database (see {@link DatabaseStorage}), starts the persistence unit, which compiles the named queries (hibernate.query.startup_check), and checks that
+	 * every entity declares the named queries the {@link AbstractBaseDao} relies on, so that a broken or missing
+	 * query fails the startup instead of a request. Every schema update fills the derived {@code UserDailyStats} from
+	 * the exercises before the schema version is stored, also for a database older than the version table.
+	 */
 	@Inject
-	public JpaPersistenceInitializer(final PersistService persistenceService) {
+	public JpaPersistenceInitializer(final PersistService persistenceService,
+			final Provider<EntityManagerFactory> entityManagerFactoryProvider, final DatabaseStorage databaseStorage,
+			final Provider<ExerciseDao> exerciseDaoProvider) {
+		databaseStorage.prepare();
 		persistenceService.start();
+		// part of the schema update: the version is only stored once the tables it added are filled, a failed
+		// backfill runs again on the next start. A new database has no exercises to sum up
+		if (databaseStorage.isUpdatingSchema()) {
+			log.info("Rebuilt {} daily stats of the existing exercises", exerciseDaoProvider.get().rebuildDailyStats());
+		}
+		databaseStorage.schemaUpdated();
+
+		final EntityManager entityManager = entityManagerFactoryProvider.get().createEntityManager();
+		try {
+			for (EntityType<?> entity : entityManager.getMetamodel().getEntities()) {
+				final String queryName = entity.getName() + AbstractBaseDao.FIND_ALL_SUFFIX;
+				try {
+					entityManager.createNamedQuery(queryName);
+				} catch (IllegalArgumentException e) {
+					throw new IllegalStateException("Entity " + entity.getName() + " does not declare the named query "
+							+ queryName, e);
+				}
+			}
+		} finally {
+			entityManager.close();
+		}
 	}
 }
@@ -0,0 +1,70 @@
+package de.egym.recruiting.codingtask.jpa;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.sql.DataSource;
+
+import org.hibernate.c3p0.internal.C3P0ConnectionProvider;
+
+import com.mchange.v2.c3p0.PooledDataSource;
+import com.mchange.v2.resourcepool.TimeoutException;
+
+import de.egym.recruiting.codingtask.dto.PoolStatisticsDto;
+
+/**
+ * The c3p0 connection pool of Hibernate, additionally measuring how long the sessions wait for a connection and how
+ * often the acquisition timed out. Configured through the {@code db.pool.*} entries of the application.properties,
+ * see {@link JpaModule}.
+ */
+public class PooledConnectionProvider extends C3P0ConnectionProvider {
+
+	private static final long serialVersionUID = 1L;
+
+	private final LongAdder acquisitions = new LongAdder();
+
+	private final LongAdder waitNanos = new LongAdder();
+
+	private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0L);
+
+	private final LongAdder timeouts = new LongAdder();
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		final long start = System.nanoTime();
+		try {
+			final Connection connection = super.getConnection();
+			final long waited = System.nanoTime() - start;
+			acquisitions.increment();
+			waitNanos.add(waited);
+			maxWaitNanos.accumulate(waited);
+			return connection;
+		} catch (SQLException e) {
+			if (e.getCause() instanceof TimeoutException) {
+				timeouts.increment();
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * @return the current usage of the pool and the acquisitions since it was started
+	 */
+	public PoolStatisticsDto getStatistics() {
+		final PooledDataSource dataSource = (PooledDataSource) unwrap(DataSource.class);
+		final long acquisitionCount = acquisitions.sum();
+		final long averageWaitNanos = acquisitionCount > 0 ? waitNanos.sum() / acquisitionCount : 0L;
+		try {
+			return new PoolStatisticsDto(dataSource.getNumConnectionsDefaultUser(),
+					dataSource.getNumBusyConnectionsDefaultUser(), dataSource.getNumIdleConnectionsDefaultUser(),
+					dataSource.getNumThreadsAwaitingCheckoutDefaultUser(),
+					dataSource.getStatementCacheNumStatementsDefaultUser(), acquisitionCount, timeouts.sum(),
+					TimeUnit.NANOSECONDS.toMicros(averageWaitNanos), TimeUnit.NANOSECONDS.toMicros(maxWaitNanos.get()));
+		} catch (SQLException e) {
+			throw new IllegalStateException("Could not read the connection pool statistics", e);
+		}
+	}
+}
@@ -0,0 +1,46 @@
+package de.egym.recruiting.codingtask.jpa;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.ehcache.SingletonEhCacheRegionFactory;
+
+import net.sf.ehcache.Cache;
+import net.sf.ehcache.config.CacheConfiguration;
+
+/**
+ * The JVM-wide ehcache region factory, additionally configuring the regions of a {@code hibernate.cache.region_prefix}
+ * like the ehcache.xml regions of the same name without the prefix. ehcache would otherwise create them from its
+ * defaultCache, e.g. an update timestamps region that expires before the query results.
+ *
+ * @see DatabaseStorage
+ */
+public class PrefixedEhCacheRegionFactory extends SingletonEhCacheRegionFactory {
+
+	public PrefixedEhCacheRegionFactory() {
+		super();
+	}
+
+	public PrefixedEhCacheRegionFactory(Properties properties) {
+		super(properties);
+	}
+
+	@Override
+	public void start(SessionFactoryOptions settings, Properties properties) {
+		super.start(settings, properties);
+		final String prefix = settings.getCacheRegionPrefix();
+		if (prefix == null) {
+			return;
+		}
+		// copied, the added caches enter the configuration
+		final List<CacheConfiguration> configurations = new ArrayList<>(
+				manager.getConfiguration().getCacheConfigurations().values());
+		for (CacheConfiguration configuration : configurations) {
+			if (!configuration.getName().startsWith(prefix + '.')) {
+				manager.addCacheIfAbsent(new Cache(configuration.clone().name(prefix + '.' + configuration.getName())));
+			}
+		}
+	}
+}
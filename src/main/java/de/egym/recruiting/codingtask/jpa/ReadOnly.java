@@ -0,0 +1,19 @@
+package de.egym.recruiting.codingtask.jpa;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a {@link com.google.inject.persist.Transactional} DAO method that only reads. When it opens the transaction,
+ * the session neither flushes nor takes dirty checking snapshots of the loaded entities; called from a read-write
+ * transaction it runs as part of that one.
+ * <p>
+ * Entities loaded by the method stay read-only for the rest of the unit of work, so do not annotate lookups whose
+ * entities a later write of the same request merges into.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface ReadOnly {
+}
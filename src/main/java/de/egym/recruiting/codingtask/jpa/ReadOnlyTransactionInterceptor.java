@@ -0,0 +1,46 @@
+package de.egym.recruiting.codingtask.jpa;
+
+import javax.persistence.EntityManager;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+
+/**
+ * Runs inside the Guice Persist transaction of a {@link ReadOnly} method and switches the session to read-only
+ * for the call: loaded entities are not snapshotted for dirty checking and the commit does not flush.
+ */
+final class ReadOnlyTransactionInterceptor implements MethodInterceptor {
+
+	@Inject
+	private UnitOfWorkScope unitOfWorkScope;
+
+	@Inject
+	private Provider<EntityManager> entityManagerProvider;
+
+	@Override
+	public Object invoke(final MethodInvocation invocation) throws Throwable {
+		if (!unitOfWorkScope.isReadOnlyTransaction()) {
+			// part of a read-write transaction
+			return invocation.proceed();
+		}
+		final Session session = entityManagerProvider.get().unwrap(Session.class);
+		if (session.isDefaultReadOnly()) {
+			// switched by an outer read-only method
+			return invocation.proceed();
+		}
+		final FlushMode flushMode = session.getFlushMode();
+		session.setDefaultReadOnly(true);
+		session.setFlushMode(FlushMode.MANUAL);
+		try {
+			return invocation.proceed();
+		} finally {
+			session.setFlushMode(flushMode);
+			session.setDefaultReadOnly(false);
+		}
+	}
+}
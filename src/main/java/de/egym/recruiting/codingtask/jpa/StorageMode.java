@@ -0,0 +1,18 @@
+package de.egym.recruiting.codingtask.jpa;
+
+/**
+ * Where the HSQLDB database keeps its data, selected by the {@code db.storage} property.
+ */
+public enum StorageMode {
+
+	/**
+	 * All tables in memory, the data is lost on restart and the TestData seeds it again.
+	 */
+	MEMORY,
+
+	/**
+	 * Cached tables in the files {@code db.file.path}.*, only the most recently used rows are held in memory and the
+	 * data is kept over restarts.
+	 */
+	FILE
+}
@@ -0,0 +1,26 @@
+package de.egym.recruiting.codingtask.jpa;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import com.google.inject.Inject;
+
+/**
+ * Runs around the Guice Persist transaction interceptor, so that the unit of work of a request is open before the
+ * transaction starts and {@link UnitOfWorkScope} knows whether the outermost transaction is read-only.
+ */
+final class TransactionScopeInterceptor implements MethodInterceptor {
+
+	@Inject
+	private UnitOfWorkScope unitOfWorkScope;
+
+	@Override
+	public Object invoke(final MethodInvocation invocation) throws Throwable {
+		unitOfWorkScope.enterTransaction(invocation.getMethod().isAnnotationPresent(ReadOnly.class));
+		try {
+			return invocation.proceed();
+		} finally {
+			unitOfWorkScope.exitTransaction();
+		}
+	}
+}
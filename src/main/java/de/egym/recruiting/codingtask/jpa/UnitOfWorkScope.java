@@ -0,0 +1,115 @@
+package de.egym.recruiting.codingtask.jpa;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.persistence.EntityManager;
+
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import com.google.inject.Singleton;
+import com.google.inject.persist.UnitOfWork;
+
+import de.egym.recruiting.codingtask.dto.PersistenceStatisticsDto;
+
+/**
+ * Opens the unit of work of a request lazily: {@link JpaPersistFilter} only marks the request, the entity manager is
+ * created when the first transactional DAO method is called and closed when the request ends. Requests answered
+ * without the database (caches, swagger, static files) never create one.
+ * <p>
+ * Outside of requests (start up, tests, benchmarks) every transaction opens and closes its own unit of work as
+ * Guice Persist does by default, unless the caller began one.
+ */
+@Singleton
+public class UnitOfWorkScope {
+
+	private final ThreadLocal<State> state = ThreadLocal.withInitial(State::new);
+
+	private final AtomicLong requests = new AtomicLong();
+
+	private final AtomicLong requestsWithUnitOfWork = new AtomicLong();
+
+	private final AtomicLong readOnlyTransactions = new AtomicLong();
+
+	private final AtomicLong readWriteTransactions = new AtomicLong();
+
+	private final UnitOfWork unitOfWork;
+
+	private final Provider<EntityManager> entityManagerProvider;
+
+	@Inject
+	UnitOfWorkScope(final UnitOfWork unitOfWork, final Provider<EntityManager> entityManagerProvider) {
+		this.unitOfWork = unitOfWork;
+		this.entityManagerProvider = entityManagerProvider;
+	}
+
+	void beginRequest() {
+		final State current = state.get();
+		current.inRequest = true;
+		current.unitOfWorkStarted = false;
+	}
+
+	void endRequest() {
+		final State current = state.get();
+		requests.incrementAndGet();
+		if (current.unitOfWorkStarted) {
+			requestsWithUnitOfWork.incrementAndGet();
+		}
+		current.inRequest = false;
+		current.unitOfWorkStarted = false;
+		// also closes an entity manager someone got from the provider directly, no-op without one
+		unitOfWork.end();
+	}
+
+	/**
+	 * Called before a transactional method runs, the outermost one decides whether the transaction is read-only.
+	 */
+	void enterTransaction(final boolean readOnly) {
+		final State current = state.get();
+		if (current.depth == 0) {
+			if (current.inRequest && !current.unitOfWorkStarted) {
+				// begins the unit of work, the transaction interceptor then leaves it open for the rest of the request
+				entityManagerProvider.get();
+				current.unitOfWorkStarted = true;
+			}
+			current.readOnly = readOnly;
+			(readOnly ? readOnlyTransactions : readWriteTransactions).incrementAndGet();
+		}
+		current.depth++;
+	}
+
+	void exitTransaction() {
+		state.get().depth--;
+	}
+
+	/**
+	 * @return true if the outermost transactional method of the thread is a read-only one
+	 */
+	boolean isReadOnlyTransaction() {
+		final State current = state.get();
+		return current.depth > 0 && current.readOnly;
+	}
+
+	/**
+	 * @return the request and transaction counts since the start of the application
+	 */
+	public PersistenceStatisticsDto getStatistics() {
+		final long requestCount = requests.get();
+		final long withUnitOfWork = requestsWithUnitOfWork.get();
+		return new PersistenceStatisticsDto(requestCount, withUnitOfWork, requestCount - withUnitOfWork,
+				readOnlyTransactions.get(), readWriteTransactions.get());
+	}
+
+	private static final class State {
+
+		private boolean inRequest;
+
+		private boolean unitOfWorkStarted;
+
+		/**
+		 * number of transactional methods on the call stack
+		 */
+		private int depth;
+
+		private boolean readOnly;
+	}
+}
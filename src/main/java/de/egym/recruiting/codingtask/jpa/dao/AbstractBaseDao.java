@@ -12,19 +12,29 @@ import org.slf4j.LoggerFactory;
 
 import com.google.inject.Provider;
 
+import de.egym.recruiting.codingtask.jpa.ReadOnly;
 import de.egym.recruiting.codingtask.jpa.domain.AbstractEntity;
 
+/**
+ * Every entity must declare the named query {@code <entity name>.findAll} selecting all of its rows,
+ * the JpaPersistenceInitializer checks it at startup.
+ */
 public abstract class AbstractBaseDao<T extends AbstractEntity> implements BaseDao<T> {
 
+	public static final String FIND_ALL_SUFFIX = ".findAll";
+
 	private final Logger log = LoggerFactory.getLogger(AbstractBaseDao.class);
 
 	private final Provider<EntityManager> entityManagerProvider;
 
 	private final Class<T> clazz;
 
+	private final String findAllQueryName;
+
 	protected AbstractBaseDao(final Provider<EntityManager> entityManagerProvider, final Class<T> clazz) {
 		this.clazz = clazz;
 		this.entityManagerProvider = entityManagerProvider;
+		this.findAllQueryName = clazz.getSimpleName() + FIND_ALL_SUFFIX;
 	}
 
 	protected Class<T> getClazz() {
@@ -37,9 +47,10 @@ public abstract class AbstractBaseDao<T extends AbstractEntity> implements BaseD
 
 	@SuppressWarnings("unchecked")
 	@Override
+	@ReadOnly
 	public List<T> findAll() {
 		log.debug("Finding all items for type = " + clazz);
-		final Query query = getEntityManager().createQuery("SELECT e FROM " + clazz.getName() + " AS e");
+		final Query query = getEntityManager().createNamedQuery(findAllQueryName);
 		try {
 			return query.getResultList();
 		} catch (NoResultException e) {
@@ -58,14 +69,14 @@ public abstract class AbstractBaseDao<T extends AbstractEntity> implements BaseD
 
 	@Override
 	public T create(final T item) {
-		log.debug("Creating item = " + String.valueOf(item));
+		log.debug("Creating item = {}", item);
 		getEntityManager().persist(item);
 		return item;
 	}
 
 	@Override
 	public T update(final T item) {
-		log.debug("Updating item = " + String.valueOf(item));
+		log.debug("Updating item = {}", item);
 		if (item == null) {
 			return null;
 		}
@@ -74,7 +85,7 @@ public abstract class AbstractBaseDao<T extends AbstractEntity> implements BaseD
 
 	@Override
 	public void refresh(final T item) {
-		log.debug("Refreshing item = " + String.valueOf(item));
+		log.debug("Refreshing item = {}", item);
 		if (item == null) {
 			return;
 		}
@@ -0,0 +1,106 @@
+package de.egym.recruiting.codingtask.jpa.dao;
+
+import de.egym.recruiting.codingtask.dto.ExerciseDto;
+import de.egym.recruiting.codingtask.jpa.domain.Enums;
+import de.egym.recruiting.codingtask.jpa.domain.Exercise;
+import de.egym.recruiting.codingtask.jpa.domain.UserDailyStats;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Changes of the {@link UserDailyStats} rows by exercise writes, summed up per user, day and type, so that a batch
+ * changes every row once. The values are copied when an exercise is added or removed, later changes of the exercise
+ * do not affect them.
+ */
+final class DailyStatsChanges {
+
+    private final Map<Key, UserDailyStats> changes = new LinkedHashMap<>();
+
+    /**
+     * Adds the created or updated exercise.
+     */
+    void add(Exercise exercise) {
+        change(exercise.getUserId(), exercise.getStartTime(), exercise.getType(), 1, exercise.getDuration(),
+                exercise.getDistance(), exercise.getCalories());
+    }
+
+    /**
+     * Adds the stored exercise, e.g. when the rows are rebuilt.
+     */
+    void add(ExerciseDto exercise) {
+        change(exercise.getUserId(), exercise.getStartTime(), exercise.getType(), 1, exercise.getDuration(),
+                exercise.getDistance(), exercise.getCalories());
+    }
+
+    /**
+     * Removes the deleted exercise, or the values of an exercise before its update.
+     */
+    void remove(Exercise exercise) {
+        change(exercise.getUserId(), exercise.getStartTime(), exercise.getType(), -1, exercise.getDuration(),
+                exercise.getDistance(), exercise.getCalories());
+    }
+
+    /**
+     * @return the changes of the rows, an update keeping the day and the values of an exercise changes none
+     */
+    Collection<UserDailyStats> getChanges() {
+        final List<UserDailyStats> nonZero = new ArrayList<>(changes.size());
+        for (UserDailyStats change : changes.values()) {
+            if (!change.isZero()) {
+                nonZero.add(change);
+            }
+        }
+        return nonZero;
+    }
+
+    /**
+     * The row of an exercise is the day of its startTime in UTC, the same days as the ones of a {@link DayRange}.
+     */
+    private void change(Long userId, Instant startTime, Enums.ExerciseType type, int sign, int duration, int distance,
+                        int calories) {
+        final Key key = new Key(userId, LocalDateTime.ofInstant(startTime, ZoneOffset.UTC).toLocalDate(), type);
+        changes.computeIfAbsent(key, k -> new UserDailyStats(k.userId, k.day, k.type))
+                .add(sign, (long) sign * duration, (long) sign * distance, (long) sign * calories);
+    }
+
+    private static final class Key {
+
+        private final Long userId;
+
+        private final LocalDate day;
+
+        private final Enums.ExerciseType type;
+
+        private Key(Long userId, LocalDate day, Enums.ExerciseType type) {
+            this.userId = userId;
+            this.day = day;
+            this.type = type;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            final Key that = (Key) obj;
+            return userId.equals(that.userId) && day.equals(that.day) && type == that.type;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, day, type);
+        }
+    }
+}
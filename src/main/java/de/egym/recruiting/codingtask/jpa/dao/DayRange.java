@@ -0,0 +1,112 @@
+package de.egym.recruiting.codingtask.jpa.dao;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Days filtering the exercises by startTime, from and to inclusive, e.g. 2016-06-01 to 2016-06-30 for June.
+ * The days are taken in UTC like the startTime in the JSON, the queries bind the half-open [start, end) range.
+ */
+public final class DayRange {
+
+    /**
+     * Format of the days, the same as the one of the date filter.
+     */
+    private static final DateTimeFormatter DAY_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    /**
+     * Stand in for an open end of the range, before and after any exercise.
+     */
+    private static final LocalDate FIRST_DAY = LocalDate.of(1900, 1, 1);
+
+    private static final LocalDate LAST_DAY = LocalDate.of(9999, 12, 30);
+
+    private final LocalDate from;
+
+    private final LocalDate to;
+
+    private DayRange(LocalDate from, LocalDate to) {
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Parses the day filters of the exercise listings: either a single date or a range whose ends may be open.
+     *
+     * @param date - optional day in 'yyyy-MM-dd' format
+     * @param from - optional first day in 'yyyy-MM-dd' format
+     * @param to   - optional last day in 'yyyy-MM-dd' format
+     * @return the range, null if none of the filters is given
+     * @throws IllegalArgumentException if a day has another format, date is combined with from or to, or from is
+     *                                  after to
+     */
+    @Nullable
+    public static DayRange of(@Nullable String date, @Nullable String from, @Nullable String to) {
+        if (date != null) {
+            if (from != null || to != null) {
+                throw new IllegalArgumentException("date can not be combined with from and to");
+            }
+            final LocalDate day = parse("date", date);
+            return new DayRange(day, day);
+        }
+        if (from == null && to == null) {
+            return null;
+        }
+        final LocalDate fromDay = from == null ? FIRST_DAY : parse("from", from);
+        final LocalDate toDay = to == null ? LAST_DAY : parse("to", to);
+        if (fromDay.isAfter(toDay)) {
+            throw new IllegalArgumentException("from should not be after to");
+        }
+        return new DayRange(fromDay, toDay);
+    }
+
+    private static LocalDate parse(String name, String day) {
+        try {
+            return LocalDate.parse(day, DAY_FORMATTER);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(name + " should have format yyyy-MM-dd");
+        }
+    }
+
+    /**
+     * @return the first day
+     */
+    @Nonnull
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    /**
+     * @return the last day
+     */
+    @Nonnull
+    public LocalDate getTo() {
+        return to;
+    }
+
+    /**
+     * @return the start of the first day, the earliest startTime in the range
+     */
+    @Nonnull
+    public Instant getStart() {
+        return from.atStartOfDay().toInstant(ZoneOffset.UTC);
+    }
+
+    /**
+     * @return the start of the day after the last day, the first startTime after the range
+     */
+    @Nonnull
+    public Instant getEnd() {
+        return to.plusDays(1).atStartOfDay().toInstant(ZoneOffset.UTC);
+    }
+
+    @Override
+    public String toString() {
+        return "[" + from + ", " + to + "]";
+    }
+}
@@ -0,0 +1,207 @@
+package de.egym.recruiting.codingtask.jpa.dao;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import de.egym.recruiting.codingtask.jpa.domain.Exercise;
+import org.hibernate.CacheMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index of the exercise descriptions, answering the token and prefix search of
+ * {@link ExerciseDao#searchByDescription} without scanning the Exercise table.
+ * <p>
+ * The descriptions only consist of letters, digits and spaces (see the validation of {@link Exercise}), so the
+ * tokens are the lower-cased words between the spaces. Every token maps to the {@link PostingList} of the exercise
+ * ids containing it, the sorted token map finds all tokens starting with a prefix. A search merges the lists of a
+ * prefix lazily from the page cursor down, so it costs about the ids walked for one page, not the ids of the prefix.
+ * All exercises are loaded at startup and afterwards kept up to date by the committed {@link ExerciseDaoImpl} writes,
+ * so the index is only correct while this instance is the only writer.
+ */
+@Singleton
+public class DescriptionIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(DescriptionIndex.class);
+
+    private static final int WARM_UP_FETCH_SIZE = 1000;
+
+    private static final long[] NO_IDS = new long[0];
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final NavigableMap<String, PostingList> postings = new TreeMap<>();
+
+    @Inject
+    DescriptionIndex(final EntityManagerFactory entityManagerFactory) {
+        // a separate entity manager, the one of the unit of work would stay open on the starting thread
+        final EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            warmUp(entityManager);
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    /**
+     * Returns the ids of the exercises whose description contains a token starting with every token of the query,
+     * newest (highest id) first.
+     *
+     * @param query    - tokens separated by spaces, e.g. "morning ru"
+     * @param beforeId - only ids less than this one are returned, the last id of the previous page
+     * @param limit    - maximal number of ids to return
+     * @return ids in descending order
+     */
+    @Nonnull
+    long[] search(@Nonnull String query, long beforeId, int limit) {
+        final Set<String> tokens = tokenize(query);
+        if (tokens.isEmpty() || limit <= 0) {
+            return NO_IDS;
+        }
+        lock.readLock().lock();
+        try {
+            final List<PostingList.DescendingUnion> matches = new ArrayList<>(tokens.size());
+            for (String token : tokens) {
+                final Collection<PostingList> prefixed = postings
+                        .subMap(token, true, token + Character.MAX_VALUE, false).values();
+                if (prefixed.isEmpty()) {
+                    return NO_IDS;
+                }
+                matches.add(new PostingList.DescendingUnion(prefixed, beforeId));
+            }
+            // the rarest token first, it skips the furthest ahead
+            matches.sort(Comparator.comparingInt(PostingList.DescendingUnion::totalSize));
+            final long[] ids = new long[Math.min(limit, matches.get(0).totalSize())];
+            int found = 0;
+            // moves the cursors down to the current candidate in turn until all of them agree on it
+            long candidate = beforeId - 1;
+            int agreeing = 0;
+            for (int match = 0; found < ids.length; match = (match + 1) % matches.size()) {
+                final long id = matches.get(match).seek(candidate);
+                if (id < 0) {
+                    break;
+                }
+                if (id == candidate) {
+                    agreeing++;
+                } else {
+                    candidate = id;
+                    agreeing = 1;
+                }
+                if (agreeing == matches.size()) {
+                    ids[found++] = candidate;
+                    candidate--;
+                    agreeing = 0;
+                }
+            }
+            return found == ids.length ? ids : Arrays.copyOf(ids, found);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds the created exercise.
+     */
+    void put(long id, @Nullable String description) {
+        replace(id, null, description);
+    }
+
+    /**
+     * Moves the updated exercise from the tokens of the old to the tokens of the new description.
+     */
+    void replace(long id, @Nullable String oldDescription, @Nullable String newDescription) {
+        final Set<String> oldTokens = tokenize(oldDescription);
+        final Set<String> newTokens = tokenize(newDescription);
+        lock.writeLock().lock();
+        try {
+            for (String token : oldTokens) {
+                if (!newTokens.contains(token)) {
+                    removeUnlocked(token, id);
+                }
+            }
+            for (String token : newTokens) {
+                postings.computeIfAbsent(token, key -> new PostingList()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the deleted exercise.
+     */
+    void remove(long id, @Nullable String description) {
+        final Set<String> tokens = tokenize(description);
+        lock.writeLock().lock();
+        try {
+            for (String token : tokens) {
+                removeUnlocked(token, id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return the distinct lower-cased words of the text, in their order
+     */
+    @Nonnull
+    static Set<String> tokenize(@Nullable String text) {
+        final Set<String> tokens = new LinkedHashSet<>();
+        if (text != null) {
+            for (String token : text.toLowerCase(Locale.ROOT).split(" ")) {
+                if (!token.isEmpty()) {
+                    tokens.add(token);
+                }
+            }
+        }
+        return tokens;
+    }
+
+    private void removeUnlocked(String token, long id) {
+        final PostingList ids = postings.get(token);
+        if (ids != null) {
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                postings.remove(token);
+            }
+        }
+    }
+
+    private void warmUp(EntityManager entityManager) {
+        final ScrollableResults rows = entityManager
+                .createNamedQuery(Exercise.FIND_DESCRIPTIONS)
+                .unwrap(org.hibernate.Query.class)
+                .setCacheMode(CacheMode.IGNORE)
+                .setFetchSize(WARM_UP_FETCH_SIZE)
+                .scroll(ScrollMode.FORWARD_ONLY);
+        int count = 0;
+        try {
+            while (rows.next()) {
+                put(rows.getLong(0), rows.getString(1));
+                count++;
+            }
+        } finally {
+            rows.close();
+        }
+        log.debug("Loaded {} exercises with {} distinct tokens into the description index", count, postings.size());
+    }
+}
@@ -1,15 +1,32 @@
 package de.egym.recruiting.codingtask.jpa.dao;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.function.Consumer;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
+import de.egym.recruiting.codingtask.dto.ExerciseDto;
+import de.egym.recruiting.codingtask.dto.ExercisePageDto;
+import de.egym.recruiting.codingtask.dto.ExerciseTotalsDto;
 import de.egym.recruiting.codingtask.jpa.domain.Enums;
 import de.egym.recruiting.codingtask.jpa.domain.Exercise;
+import de.egym.recruiting.codingtask.jpa.domain.IdRank;
 
 public interface ExerciseDao extends BaseDao<Exercise> {
 
+	/**
+	 * Returns the exercise for reading only, e.g. to answer a GET request. Unlike {@link #findById} it is loaded in a
+	 * read-only transaction and detached, so that a later write of the same unit of work does not merge into a
+	 * read-only entity
+	 *
+	 * @param id of the exercise
+	 * @return detached exercise, null if it does not exist
+	 */
+	@Nullable
+	Exercise findDetachedById(@Nonnull Long id);
+
 	/**
 	 * Returns a list of exercises with the given description
 	 *
@@ -17,7 +34,29 @@ public interface ExerciseDao extends BaseDao<Exercise> {
 	 * @return filters list of exercise
 	 */
 	@Nonnull
-	List<Exercise> findByDescription(@Nullable String description);
+	List<ExerciseDto> findByDescription(@Nullable String description);
+
+	/**
+	 * Passes the exercises with the given description to the consumer while they are fetched from the database
+	 *
+	 * @param description of the exercise
+	 * @param consumer    - called for every exercise
+	 * @return number of exercises passed to the consumer
+	 */
+	int scrollByDescription(@Nullable String description, @Nonnull Consumer<ExerciseDto> consumer);
+
+	/**
+	 * Returns the exercises whose description contains a word starting with every word of the query, answered by
+	 * the {@link DescriptionIndex}
+	 *
+	 * @param query    - words separated by spaces, e.g. "morning ru" matches "Morning run" and "run in the morning"
+	 * @param beforeId - only exercises with a lower id are returned, the nextCursor of the previous page
+	 * @param pageSize - maximal number of exercises to return
+	 * @return the matching exercises, newest (highest id) first, and the last id of the page as nextCursor if the
+	 * index holds further matches
+	 */
+	@Nonnull
+	ExercisePageDto searchByDescription(@Nonnull String query, long beforeId, int pageSize);
 
 	/**
 	 * Returns a list of exercise ids that conflict with the exercise for the user based on
@@ -31,15 +70,69 @@ public interface ExerciseDao extends BaseDao<Exercise> {
 
 	/**
 	 * Returns list of exercises that satisfies search criteria:
-	 * (userId - mandatory, type and date are optional parameters)
+	 * (userId - mandatory, type and days are optional parameters)
 	 *
 	 * @param userId - id of the user for which to search the exercises
 	 * @param type   - optional type of exercise
-	 * @param date   - optional date in 'yyyy-MM-dd' format on which startTime of exercise happens
+	 * @param days   - optional days (UTC) on which startTime of exercise happens
 	 * @return list of exercises that satisfies search criteria
 	 */
 	@Nonnull
-	List<Exercise> findExercises(@Nonnull Long userId, @Nullable Enums.ExerciseType type, @Nullable String date);
+	List<ExerciseDto> findExercises(@Nonnull Long userId, @Nullable Enums.ExerciseType type, @Nullable DayRange days);
+
+	/**
+	 * Returns one page of the exercises that satisfy the search criteria of {@link #findExercises}, ordered by
+	 * startTime and id
+	 *
+	 * @param userId         - id of the user for which to search the exercises
+	 * @param type           - optional type of exercise
+	 * @param days           - optional days (UTC) on which startTime of exercise happens
+	 * @param order          - newest or oldest exercises first
+	 * @param afterStartTime - optional startTime of the last exercise of the previous page
+	 * @param afterId        - optional id of the last exercise of the previous page
+	 * @param limit          - maximal number of exercises to return
+	 * @return the exercises following the last exercise of the previous page, in the given order
+	 */
+	@Nonnull
+	List<ExerciseDto> findExercisePage(@Nonnull Long userId, @Nullable Enums.ExerciseType type, @Nullable DayRange days,
+									   @Nonnull Enums.SortOrder order, @Nullable Instant afterStartTime,
+									   @Nullable Long afterId, int limit);
+
+	/**
+	 * Passes the exercises that satisfy the search criteria of {@link #findExercises} to the consumer
+	 * while they are fetched from the database
+	 *
+	 * @param userId   - id of the user for which to search the exercises
+	 * @param type     - optional type of exercise
+	 * @param days     - optional days (UTC) on which startTime of exercise happens
+	 * @param consumer - called for every exercise
+	 * @return number of exercises passed to the consumer
+	 */
+	int scrollExercises(@Nonnull Long userId, @Nullable Enums.ExerciseType type, @Nullable DayRange days,
+						@Nonnull Consumer<ExerciseDto> consumer);
+
+	/**
+	 * Returns the number of exercises of the user and their summed up duration, distance and calories per period
+	 * and type, only periods and types having exercises are part of the result. Reads the daily stats the exercise
+	 * writes keep up to date, not the exercises
+	 *
+	 * @param userId - id of the user for which to sum up the exercises
+	 * @param type   - optional type of exercise
+	 * @param days   - days (UTC) on which startTime of exercise happens
+	 * @param period - days or weeks starting on Monday
+	 * @return totals ordered by period and type name
+	 */
+	@Nonnull
+	List<ExerciseTotalsDto> getExerciseTotals(@Nonnull Long userId, @Nullable Enums.ExerciseType type,
+											  @Nonnull DayRange days, @Nonnull Enums.Period period);
+
+	/**
+	 * Replaces all daily stats with the sums of the stored exercises in one transaction. Not exposed by the REST
+	 * interface, the schema update of a database created before the daily stats calls it once
+	 *
+	 * @return number of daily stats, one per user, day and type having exercises
+	 */
+	int rebuildDailyStats();
 
 	/**
 	 * Returns list of exercises for users with userIds that will take part in the ranking
@@ -49,5 +142,32 @@ public interface ExerciseDao extends BaseDao<Exercise> {
 	 * @return exercises for users with userIds that will take part in the ranking ordered by startTime
 	 */
 	@Nonnull
-    List<Exercise> getRankingExercises(@Nonnull List<Long> userIds);
+    List<ExerciseDto> getRankingExercises(@Nonnull List<Long> userIds);
+
+	/**
+	 * Returns the ranking scores of the users calculated by the database, only users having exercises
+	 * in the last 4 weeks are part of the result
+	 * @param userIds ids of the users to calculate the ranking
+	 * @return id-rank pairs in no particular order
+	 */
+	@Nonnull
+	List<IdRank> getRankingScores(@Nonnull List<Long> userIds);
+
+	/**
+	 * Returns list of exercises of the user which time window overlaps the given range, excluding both time ends
+	 * @param userId    - id of the user
+	 * @param startTime - start of the range
+	 * @param tillTime  - end of the range
+	 * @return exercises of the user overlapping the range
+	 */
+	@Nonnull
+	List<Exercise> findExercisesOverlapping(@Nonnull Long userId, @Nonnull Instant startTime, @Nonnull Instant tillTime);
+
+	/**
+	 * Creates all exercises in one transaction, sending the inserts to the database in JDBC batches
+	 * @param exercises - exercises to create
+	 * @return the created exercises, detached from the persistence context
+	 */
+	@Nonnull
+	List<Exercise> createAll(@Nonnull List<Exercise> exercises);
 }
@@ -3,64 +3,441 @@ package de.egym.recruiting.codingtask.jpa.dao;
 import com.google.inject.Inject;
 import com.google.inject.Provider;
 import com.google.inject.persist.Transactional;
+import de.egym.recruiting.codingtask.dto.ExerciseDto;
+import de.egym.recruiting.codingtask.dto.ExercisePageDto;
+import de.egym.recruiting.codingtask.dto.ExerciseTotalsDto;
+import de.egym.recruiting.codingtask.jpa.ReadOnly;
 import de.egym.recruiting.codingtask.jpa.domain.Enums;
 import de.egym.recruiting.codingtask.jpa.domain.Exercise;
+import de.egym.recruiting.codingtask.jpa.domain.IdRank;
+import de.egym.recruiting.codingtask.jpa.domain.UserDailyStats;
+import de.egym.recruiting.codingtask.ranking.RankingRules;
+import org.hibernate.CacheMode;
+import org.hibernate.FlushMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.jpa.QueryHints;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.persistence.EntityManager;
 import javax.persistence.NoResultException;
 import javax.persistence.Query;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import java.io.Serializable;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.Instant;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.LocalTime;
-import java.util.Calendar;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Date;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+/**
+ * The listings and the ranking read {@link ExerciseDto} projections with read-only queries in {@link ReadOnly}
+ * transactions, the managed entities are only loaded for writes and single exercise lookups.
+ * <p>
+ * Exercises are kept in the second-level cache and the projected rows of {@link #findExercises} in the query cache.
+ * All writes go through the entity manager, so Hibernate updates the cached entities and invalidates
+ * the cached query results of the Exercise table when {@link #create}, {@link #update} or {@link #deleteById} commit.
+ * The same writes change the {@link UserDailyStats} of the exercise days, which the totals read instead of the
+ * exercises. The in-memory indexes only see a write once its transaction committed, see {@link #afterCommit}.
+ */
 @Transactional
 public class ExerciseDaoImpl extends AbstractBaseDao<Exercise> implements ExerciseDao {
 
-    private static final int MILLIS_IN_SECOND = 1000;
+    private static final Logger log = LoggerFactory.getLogger(ExerciseDaoImpl.class);
+
+    /**
+     * Same as hibernate.jdbc.batch_size, the persistence context is flushed and cleared after each batch.
+     */
+    private static final int JDBC_BATCH_SIZE = 50;
+
+    private static final int SCROLL_FETCH_SIZE = 100;
+
+    /**
+     * Scores the exercises of the ranking period in the database. HSQLDB does not support
+     * ROW_NUMBER() OVER (PARTITION BY ...), so the position of an exercise among the exercises of the same user
+     * and type (newest first) is the number of newer ones; exercises past the 10th position are filtered out and
+     * the decay and the type factor (as CASE expression) are applied before summing up per user.
+     */
+    private static final String RANKING_SCORES_QUERY = "SELECT r.userId, SUM((100 - " + RankingRules.DECAY_PERCENT
+            + " * r.position) * r.basePoints / 100) FROM ("
+            + "SELECT e.userId AS userId, " + multiplicationFactorCase("e.type") + " * (e.duration / 60 + e.calories) AS basePoints, "
+            + "(SELECT COUNT(*) FROM Exercise n WHERE n.userId = e.userId AND n.type = e.type AND n.startTime <= :tillTime"
+            + " AND (n.startTime > e.startTime OR n.startTime = e.startTime AND n.id > e.id)) AS position"
+            + " FROM Exercise e WHERE e.userId IN (:userIds) AND e.endTime >= :startTime"
+            + " AND e.startTime >= :startTime AND e.startTime <= :tillTime) r"
+            + " WHERE r.position < " + RankingRules.MAX_EXERCISES_PER_TYPE
+            + " GROUP BY r.userId";
+
+    /**
+     * Inserts a missing daily stats row, see {@link #insertDailyStats}.
+     */
+    private static final String INSERT_DAILY_STATS = "INSERT INTO UserDailyStats (id, userId, statsDay, type, exercises,"
+            + " duration, distance, calories) VALUES (:id, :userId, :day, :type, :exercises, :duration, :distance,"
+            + " :calories)";
+
+    /**
+     * Columns of the native exercise page queries, in the order of the ExerciseDto constructor.
+     */
+    private static final String SELECT_PAGE_COLUMNS = "SELECT e.id, e.userId, e.description, e.type, e.startTime,"
+            + " e.duration, e.distance, e.calories FROM Exercise e WHERE e.userId = :userId";
+
+    /**
+     * Order of the types in the totals, the daily stats store the type name.
+     */
+    private static final Enums.ExerciseType[] TYPES_BY_NAME = Stream.of(Enums.ExerciseType.values())
+            .sorted(Comparator.comparing(Enums.ExerciseType::name))
+            .toArray(Enums.ExerciseType[]::new);
+
+    private static String multiplicationFactorCase(String typeColumn) {
+        StringBuilder caseExpression = new StringBuilder("CASE ").append(typeColumn);
+        for (Enums.ExerciseType type : Enums.ExerciseType.values()) {
+            caseExpression.append(" WHEN '").append(type.name()).append("' THEN ")
+                    .append(RankingRules.multiplicationFactor(type));
+        }
+        return caseExpression.append(" END").toString();
+    }
+
+    private final ExerciseIntervalIndex intervalIndex;
+
+    private final DescriptionIndex descriptionIndex;
 
     @Inject
-    ExerciseDaoImpl(final Provider<EntityManager> entityManagerProvider) {
+    ExerciseDaoImpl(final Provider<EntityManager> entityManagerProvider, final ExerciseIntervalIndex intervalIndex,
+                    final DescriptionIndex descriptionIndex) {
         super(entityManagerProvider, Exercise.class);
+        this.intervalIndex = intervalIndex;
+        this.descriptionIndex = descriptionIndex;
+    }
+
+    @Override
+    public Exercise create(final Exercise item) {
+        final DailyStatsChanges dailyStatsChanges = new DailyStatsChanges();
+        final Exercise created = createIndexed(item, dailyStatsChanges);
+        applyDailyStats(dailyStatsChanges);
+        return created;
+    }
+
+    private Exercise createIndexed(Exercise item, DailyStatsChanges dailyStatsChanges) {
+        final Exercise created = super.create(item);
+        afterCommit(() -> {
+            intervalIndex.put(created);
+            descriptionIndex.put(created.getId(), created.getDescription());
+        });
+        dailyStatsChanges.add(created);
+        return created;
+    }
+
+    @Override
+    public Exercise update(final Exercise item) {
+        // read before the merge copies the new values into the managed exercise
+        final Exercise stored = item.getId() == null ? null : getEntityManager().find(Exercise.class, item.getId());
+        final String oldDescription = stored == null ? null : stored.getDescription();
+        final DailyStatsChanges dailyStatsChanges = new DailyStatsChanges();
+        if (stored != null) {
+            dailyStatsChanges.remove(stored);
+        }
+        final Exercise updated = super.update(item);
+        if (updated != null) {
+            afterCommit(() -> {
+                intervalIndex.put(updated);
+                descriptionIndex.replace(updated.getId(), oldDescription, updated.getDescription());
+            });
+            dailyStatsChanges.add(updated);
+        }
+        applyDailyStats(dailyStatsChanges);
+        return updated;
+    }
+
+    @Nonnull
+    @Override
+    public List<Exercise> createAll(@Nonnull List<Exercise> exercises) {
+        EntityManager entityManager = getEntityManager();
+        DailyStatsChanges dailyStatsChanges = new DailyStatsChanges();
+        for (int i = 0; i < exercises.size(); i++) {
+            createIndexed(exercises.get(i), dailyStatsChanges);
+            if ((i + 1) % JDBC_BATCH_SIZE == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        // every day of the batch is changed once
+        applyDailyStats(dailyStatsChanges);
+        entityManager.flush();
+        entityManager.clear();
+        return exercises;
+    }
+
+    @Nullable
+    @Override
+    @ReadOnly
+    public Exercise findDetachedById(@Nonnull Long id) {
+        final Exercise exercise = findById(id);
+        if (exercise != null) {
+            getEntityManager().detach(exercise);
+        }
+        return exercise;
+    }
+
+    @Override
+    public void deleteById(final Long id) {
+        final Exercise exercise = getEntityManager().find(Exercise.class, id);
+        if (exercise == null) {
+            // e.g. deleted by a concurrent request after the service found it
+            throw new IllegalArgumentException("Exercise with id = " + id + " does not exist");
+        }
+        final DailyStatsChanges dailyStatsChanges = new DailyStatsChanges();
+        dailyStatsChanges.remove(exercise);
+        super.deleteById(id);
+        afterCommit(() -> {
+            intervalIndex.remove(exercise.getUserId(), id);
+            descriptionIndex.remove(id, exercise.getDescription());
+        });
+        applyDailyStats(dailyStatsChanges);
+    }
+
+    /**
+     * Adds the changes to the existing rows in place, so concurrent writes of the same day do not lose each other's
+     * change. The row is looked up first, HSQLDB reports an update of no row as warning, which Hibernate logs.
+     * A missing row is inserted. When a concurrent transaction inserts the same row first, the insert waits for it
+     * to commit and fails on the unique (userId, day, type) constraint; the change is added to the committed row then.
+     */
+    private void applyDailyStats(DailyStatsChanges dailyStatsChanges) {
+        for (UserDailyStats change : dailyStatsChanges.getChanges()) {
+            if (addToDailyStats(change)) {
+                continue;
+            }
+            if (change.getExercises() <= 0 || !insertDailyStats(change) && !addToDailyStats(change)) {
+                log.warn("No daily stats to change by " + change + ", they have to be rebuilt");
+            }
+        }
+    }
+
+    /**
+     * @return whether the row of the change exists
+     */
+    private boolean addToDailyStats(UserDailyStats change) {
+        final EntityManager entityManager = getEntityManager();
+        final List<Object[]> rows = entityManager.createNamedQuery(UserDailyStats.FIND_BY_KEY)
+                .setParameter("userId", change.getUserId())
+                .setParameter("day", change.getDay())
+                .setParameter("type", change.getType())
+                .getResultList();
+        if (rows.isEmpty()) {
+            return false;
+        }
+        final Long id = (Long) rows.get(0)[0];
+        entityManager.createNamedQuery(UserDailyStats.ADD)
+                .setParameter("exercises", change.getExercises())
+                .setParameter("duration", change.getDuration())
+                .setParameter("distance", change.getDistance())
+                .setParameter("calories", change.getCalories())
+                .setParameter("id", id)
+                .executeUpdate();
+        // the update locked the row, a concurrent write adding to it is either counted or waits
+        if ((Long) rows.get(0)[1] + change.getExercises() <= 0) {
+            entityManager.createNamedQuery(UserDailyStats.DELETE_IF_EMPTY)
+                    .setParameter("id", id)
+                    .executeUpdate();
+        }
+        return true;
+    }
+
+    /**
+     * Inserts the row through the Hibernate session instead of the entity manager: a failed persist would leave the
+     * persistence context inconsistent and the entity manager marks the transaction for rollback on any failure,
+     * while HSQLDB only rolls back the failed statement. The id comes from the generator of the entity.
+     *
+     * @return whether the row was inserted, false if a concurrent transaction inserted it first
+     */
+    private boolean insertDailyStats(UserDailyStats change) {
+        final SessionImplementor session = (SessionImplementor) getEntityManager().unwrap(Session.class);
+        final Serializable id = session.getFactory().getIdentifierGenerator(UserDailyStats.class.getName())
+                .generate(session, change);
+        try {
+            ((Session) session).createSQLQuery(INSERT_DAILY_STATS)
+                    .addSynchronizedEntityClass(UserDailyStats.class)
+                    .setParameter("id", id)
+                    .setParameter("userId", change.getUserId())
+                    .setParameter("day", Date.valueOf(change.getDay()))
+                    .setParameter("type", change.getType().name())
+                    .setParameter("exercises", change.getExercises())
+                    .setParameter("duration", change.getDuration())
+                    .setParameter("distance", change.getDistance())
+                    .setParameter("calories", change.getCalories())
+                    .executeUpdate();
+            return true;
+        } catch (ConstraintViolationException e) {
+            if (!UserDailyStats.UNIQUE_USER_DAY_TYPE.equalsIgnoreCase(e.getConstraintName())) {
+                throw e;
+            }
+            log.debug("Daily stats of " + change + " were inserted concurrently", e);
+            return false;
+        }
+    }
+
+    /**
+     * Runs the action once the current transaction committed, nothing happens when it rolls back. Keeps the
+     * in-memory indexes in line with the database: a write failing later in its transaction, e.g. an invalid
+     * exercise of a batch, must not leave its changes in them.
+     */
+    private void afterCommit(Runnable action) {
+        getEntityManager().unwrap(Session.class).getTransaction().registerSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == Status.STATUS_COMMITTED) {
+                    action.run();
+                }
+            }
+        });
+    }
+
+    @Override
+    public int rebuildDailyStats() {
+        final EntityManager entityManager = getEntityManager();
+        entityManager.createNamedQuery(UserDailyStats.DELETE_ALL).executeUpdate();
+        // the exercises arrive user after user, only the days of one user are kept in memory
+        final ScrollableResults exercises = openScroll(readOnly(entityManager.createNamedQuery(Exercise.FIND_ALL_BY_USER)));
+        DailyStatsChanges userStats = new DailyStatsChanges();
+        Long userId = null;
+        int rows = 0;
+        try {
+            while (exercises.next()) {
+                final ExerciseDto exercise = (ExerciseDto) exercises.get(0);
+                if (userId != null && !userId.equals(exercise.getUserId())) {
+                    rows = persistDailyStats(userStats, rows);
+                    userStats = new DailyStatsChanges();
+                }
+                userId = exercise.getUserId();
+                userStats.add(exercise);
+            }
+        } finally {
+            exercises.close();
+        }
+        rows = persistDailyStats(userStats, rows);
+        entityManager.flush();
+        entityManager.clear();
+        return rows;
+    }
+
+    /**
+     * @return the number of rows persisted so far, the persistence context is flushed and cleared after each batch
+     */
+    private int persistDailyStats(DailyStatsChanges dailyStats, int rows) {
+        final EntityManager entityManager = getEntityManager();
+        for (UserDailyStats stats : dailyStats.getChanges()) {
+            entityManager.persist(stats);
+            if (++rows % JDBC_BATCH_SIZE == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        return rows;
+    }
+
+    @Nonnull
+    @Override
+    @ReadOnly
+    public ExercisePageDto searchByDescription(@Nonnull String query, long beforeId, int pageSize) {
+        // one more than requested tells whether there is a next page; the index decides it, not the loaded rows,
+        // an exercise deleted in between only shortens the page
+        final long[] ids = descriptionIndex.search(query, beforeId, pageSize + 1);
+        final int found = Math.min(ids.length, pageSize);
+        if (found == 0) {
+            return new ExercisePageDto(Collections.emptyList(), null);
+        }
+        final List<Long> pageIds = new ArrayList<>(found);
+        for (int i = 0; i < found; i++) {
+            pageIds.add(ids[i]);
+        }
+        final List<ExerciseDto> exercises = readOnly(getEntityManager()
+                .createNamedQuery(Exercise.FIND_BY_IDS)
+                .setParameter("ids", pageIds))
+                .getResultList();
+        return new ExercisePageDto(exercises, ids.length > pageSize ? String.valueOf(ids[pageSize - 1]) : null);
     }
 
     @Nonnull
     @Override
-    public List<Exercise> findByDescription(@Nullable String description) {
+    @ReadOnly
+    public List<ExerciseDto> findByDescription(@Nullable String description) {
         if (description == null) {
             return Collections.emptyList();
         }
 
-        description = description.toLowerCase();
-
         try {
-            return getEntityManager()
-                    .createQuery("SELECT e FROM Exercise e WHERE LOWER(e.description) = :description")
-                    .setParameter("description", description)
-                    .getResultList();
+            return createFindByDescriptionQuery(description).getResultList();
         } catch (NoResultException e) {
             return Collections.emptyList();
         }
     }
 
+    @Override
+    @ReadOnly
+    public int scrollByDescription(@Nullable String description, @Nonnull Consumer<ExerciseDto> consumer) {
+        if (description == null) {
+            return 0;
+        }
+        return scroll(createFindByDescriptionQuery(description), consumer);
+    }
+
+    private Query createFindByDescriptionQuery(String description) {
+        return readOnly(getEntityManager()
+                .createNamedQuery(Exercise.FIND_BY_DESCRIPTION)
+                .setParameter("description", description.toLowerCase()));
+    }
+
     @Nonnull
     @Override
+    @ReadOnly
     public List<Long> findConflictExerciseIds(@Nullable Exercise exercise) {
-        Date tillTime = new Date(exercise.getStartTime().getTime() + exercise.getDuration() * MILLIS_IN_SECOND);
+        Instant tillTime = exercise.getStartTime().plusSeconds(exercise.getDuration());
+        if (!intervalIndex.isEnabled()) {
+            return queryConflictExerciseIds(exercise.getUserId(), exercise.getStartTime(), tillTime);
+        }
+        List<Long> conflictExerciseIds = intervalIndex.findOverlapping(exercise.getUserId(),
+                exercise.getStartTime().toEpochMilli(), tillTime.toEpochMilli());
+        if (intervalIndex.shouldVerify()) {
+            List<Long> queriedIds = queryConflictExerciseIds(exercise.getUserId(), exercise.getStartTime(), tillTime);
+            if (!new HashSet<>(queriedIds).equals(new HashSet<>(conflictExerciseIds))) {
+                log.warn("Interval index of user " + exercise.getUserId() + " found conflicts " + conflictExerciseIds
+                        + " instead of " + queriedIds + ", reloading the user");
+                intervalIndex.invalidate(exercise.getUserId());
+                return queriedIds;
+            }
+        }
+        return conflictExerciseIds;
+    }
+
+    @Nonnull
+    @Override
+    @ReadOnly
+    public List<Exercise> findExercisesOverlapping(@Nonnull Long userId, @Nonnull Instant startTime, @Nonnull Instant tillTime) {
         try {
             return getEntityManager()
-                    .createQuery("SELECT e.id FROM Exercise e WHERE e.userId = :userId" +
-                            " AND e.startTime < :tillTime AND " +
-                            "DATEADD('ss', e.duration, e.startTime) > :startTime")
-                    .setParameter("userId", exercise.getUserId())
-                    .setParameter("startTime", exercise.getStartTime())
+                    .createNamedQuery(Exercise.FIND_OVERLAPPING)
+                    .setParameter("userId", userId)
+                    .setParameter("startTime", startTime)
                     .setParameter("tillTime", tillTime)
                     .getResultList();
         } catch (NoResultException e) {
@@ -68,59 +445,240 @@ public class ExerciseDaoImpl extends AbstractBaseDao<Exercise> implements Exerci
         }
     }
 
+    private List<Long> queryConflictExerciseIds(Long userId, Instant startTime, Instant tillTime) {
+        try {
+            return getEntityManager()
+                    .createNamedQuery(Exercise.FIND_OVERLAPPING_IDS)
+                    .setParameter("userId", userId)
+                    .setParameter("startTime", startTime)
+                    .setParameter("tillTime", tillTime)
+                    .getResultList();
+        } catch (NoResultException e) {
+            return Collections.emptyList();
+        }
+    }
+
+    @Nonnull
+    @Override
+    @ReadOnly
+    public List<ExerciseDto> findExercises(@Nullable Long userId, @Nullable Enums.ExerciseType type, @Nullable DayRange days) {
+        try {
+            return createFindExercisesQuery(userId, type, days)
+                    .setHint(QueryHints.HINT_CACHEABLE, true)
+                    .setHint(QueryHints.HINT_CACHE_REGION, Exercise.QUERY_CACHE_REGION)
+                    .getResultList();
+        } catch (NoResultException e) {
+            return Collections.emptyList();
+        }
+    }
+
+    @Override
+    @ReadOnly
+    public int scrollExercises(@Nonnull Long userId, @Nullable Enums.ExerciseType type, @Nullable DayRange days,
+                               @Nonnull Consumer<ExerciseDto> consumer) {
+        return scroll(createFindExercisesQuery(userId, type, days), consumer);
+    }
+
+    @Nonnull
+    @Override
+    @ReadOnly
+    public List<ExerciseDto> findExercisePage(@Nonnull Long userId, @Nullable Enums.ExerciseType type,
+                                              @Nullable DayRange days, @Nonnull Enums.SortOrder order,
+                                              @Nullable Instant afterStartTime, @Nullable Long afterId, int limit) {
+        final boolean seek = afterStartTime != null && afterId != null;
+        final Query query = readOnly(getEntityManager()
+                .createNativeQuery(exercisePageQuery(type != null, days != null, seek, order))
+                .setParameter("userId", userId)
+                .setParameter("limit", limit));
+        if (type != null) {
+            query.setParameter("type", type.name());
+        }
+        if (days != null) {
+            query.setParameter("rangeStart", days.getStart()).setParameter("rangeEnd", days.getEnd());
+        }
+        if (seek) {
+            query.setParameter("afterStartTime", afterStartTime).setParameter("afterId", afterId);
+        }
+        final List<Object[]> rows = query.getResultList();
+        final List<ExerciseDto> exercises = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            exercises.add(new ExerciseDto(((Number) row[0]).longValue(), ((Number) row[1]).longValue(),
+                    (String) row[2], Enums.ExerciseType.valueOf((String) row[3]), ((Timestamp) row[4]).toInstant(),
+                    ((Number) row[5]).intValue(), ((Number) row[6]).intValue(), ((Number) row[7]).intValue()));
+        }
+        return exercises;
+    }
+
+    /**
+     * Keyset page of the user exercises: the seek predicate continues after the (startTime, id) of the last exercise
+     * of the previous page, so a deep page costs the same as the first one. HSQLDB only stops reading the
+     * (userId, [type,] startTime, id) index after the page when the ORDER BY lists all index columns and the LIMIT
+     * is followed by USING INDEX, which JPQL cannot express. The redundant startTime bound in front of the seek
+     * predicate is the start condition of the index scan. ExerciseIndexTest explains the built statements.
+     */
+    static String exercisePageQuery(boolean byType, boolean byDays, boolean seek, Enums.SortOrder order) {
+        final String direction = order == Enums.SortOrder.OLDEST_FIRST ? " ASC" : " DESC";
+        final String after = order == Enums.SortOrder.OLDEST_FIRST ? ">" : "<";
+        final StringBuilder sql = new StringBuilder(SELECT_PAGE_COLUMNS);
+        if (byType) {
+            sql.append(" AND e.type = :type");
+        }
+        if (byDays) {
+            sql.append(" AND e.startTime >= :rangeStart AND e.startTime < :rangeEnd");
+        }
+        if (seek) {
+            sql.append(" AND e.startTime ").append(after).append("= :afterStartTime AND (e.startTime ").append(after)
+                    .append(" :afterStartTime OR e.startTime = :afterStartTime AND e.id ").append(after)
+                    .append(" :afterId)");
+        }
+        sql.append(" ORDER BY e.userId").append(direction);
+        if (byType) {
+            sql.append(", e.type").append(direction);
+        }
+        return sql.append(", e.startTime").append(direction).append(", e.id").append(direction)
+                .append(" LIMIT :limit USING INDEX").toString();
+    }
+
     @Nonnull
     @Override
-    public List<Exercise> findExercises(@Nullable Long userId, @Nullable Enums.ExerciseType type, @Nullable String date) {
-        String query = "SELECT e FROM Exercise e WHERE e.userId = :userId";
+    @ReadOnly
+    public List<ExerciseTotalsDto> getExerciseTotals(@Nonnull Long userId, @Nullable Enums.ExerciseType type,
+                                                     @Nonnull DayRange days, @Nonnull Enums.Period period) {
+        final Query query = readOnly(getEntityManager()
+                .createNamedQuery(type == null ? UserDailyStats.FIND_BY_USER_IN_RANGE
+                        : UserDailyStats.FIND_BY_USER_TYPE_IN_RANGE)
+                .setParameter("userId", userId)
+                .setParameter("from", days.getFrom())
+                .setParameter("to", days.getTo()));
         if (type != null) {
-            query += " AND e.type = :type";
-        }
-        Date dateToSearch = null;
-        if (date != null) {
-            SimpleDateFormat simpleDateFormat = new SimpleDateFormat("yyyy-MM-dd");
-            try {
-                dateToSearch = simpleDateFormat.parse(date);
-            } catch (ParseException e) {
-                throw new IllegalArgumentException("date should have format yyyy-MM-dd");
+            query.setParameter("type", type);
+        }
+        // cached like the listings, the daily stats writes of the exercise writes invalidate it
+        query.setHint(QueryHints.HINT_CACHEABLE, true).setHint(QueryHints.HINT_CACHE_REGION, Exercise.QUERY_CACHE_REGION);
+        final List<Object[]> rows = query.getResultList();
+        // the days arrive in order, the days of a week are summed up per type as long as the week lasts
+        final List<ExerciseTotalsDto> totals = new ArrayList<>(rows.size());
+        final Map<Enums.ExerciseType, ExerciseTotalsDto> periodTotals = new EnumMap<>(Enums.ExerciseType.class);
+        LocalDate periodStart = null;
+        for (Object[] row : rows) {
+            final LocalDate day = (LocalDate) row[0];
+            final LocalDate rowPeriodStart = period == Enums.Period.WEEK
+                    ? day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)) : day;
+            if (!rowPeriodStart.equals(periodStart)) {
+                addTotals(totals, periodTotals);
+                periodStart = rowPeriodStart;
             }
-            query += " AND e.startTime >= :date AND e.startTime < DATEADD('dd', 1, :date)";
+            periodTotals.computeIfAbsent((Enums.ExerciseType) row[1],
+                    rowType -> new ExerciseTotalsDto(rowPeriodStart.toString(), rowType, 0, 0, 0, 0))
+                    .add((Long) row[2], (Long) row[3], (Long) row[4], (Long) row[5]);
         }
-        try {
-            Query queryForSearch = getEntityManager()
-                    .createQuery(query);
-            queryForSearch = queryForSearch.setParameter("userId", userId);
-            if (dateToSearch != null) {
-                queryForSearch = queryForSearch.setParameter("date", dateToSearch);
+        addTotals(totals, periodTotals);
+        return totals;
+    }
+
+    /**
+     * Moves the totals of a period to the result, ordered by type name like the daily stats query
+     */
+    private static void addTotals(List<ExerciseTotalsDto> totals,
+                                  Map<Enums.ExerciseType, ExerciseTotalsDto> periodTotals) {
+        for (Enums.ExerciseType type : TYPES_BY_NAME) {
+            final ExerciseTotalsDto typeTotals = periodTotals.get(type);
+            if (typeTotals != null) {
+                totals.add(typeTotals);
             }
-            if (type != null) {
-                queryForSearch = queryForSearch.setParameter("type", type);
+        }
+        periodTotals.clear();
+    }
+
+    private Query createFindExercisesQuery(Long userId, Enums.ExerciseType type, DayRange days) {
+        if (days == null) {
+            Query query = readOnly(getEntityManager()
+                    .createNamedQuery(type == null ? Exercise.FIND_BY_USER : Exercise.FIND_BY_USER_AND_TYPE)
+                    .setParameter("userId", userId));
+            return type == null ? query : query.setParameter("type", type);
+        }
+        Query query = readOnly(getEntityManager()
+                .createNamedQuery(type == null ? Exercise.FIND_BY_USER_IN_RANGE : Exercise.FIND_BY_USER_TYPE_IN_RANGE)
+                .setParameter("userId", userId)
+                .setParameter("rangeStart", days.getStart())
+                .setParameter("rangeEnd", days.getEnd()));
+        return type == null ? query : query.setParameter("type", type);
+    }
+
+    /**
+     * Marks a query of the read-only path: Hibernate neither snapshots loaded entities for dirty checking
+     * nor flushes the persistence context before running it.
+     */
+    private static Query readOnly(Query query) {
+        return query
+                .setHint(QueryHints.HINT_READONLY, true)
+                .setHint(QueryHints.HINT_FLUSH_MODE, FlushMode.MANUAL);
+    }
+
+    /**
+     * Passes the projected exercises to the consumer while they are fetched, {@value #SCROLL_FETCH_SIZE} rows
+     * at a time. Projections do not enter the persistence context, so the memory use does not grow with the
+     * result size. The rows are not put into the second-level cache, a large listing would only evict the hot ones.
+     *
+     * @return number of exercises passed to the consumer
+     */
+    private int scroll(Query query, Consumer<ExerciseDto> consumer) {
+        ScrollableResults results = openScroll(query);
+        int count = 0;
+        try {
+            while (results.next()) {
+                consumer.accept((ExerciseDto) results.get(0));
+                count++;
             }
-            return queryForSearch.getResultList();
-        } catch (NoResultException e) {
-            return Collections.emptyList();
+        } finally {
+            results.close();
         }
+        return count;
+    }
+
+    private static ScrollableResults openScroll(Query query) {
+        return query.unwrap(org.hibernate.Query.class)
+                .setCacheMode(CacheMode.IGNORE)
+                .setFetchSize(SCROLL_FETCH_SIZE)
+                .scroll(ScrollMode.FORWARD_ONLY);
     }
 
     @Nonnull
     @Override
-    public List<Exercise> getRankingExercises(@Nonnull List<Long> userIds) {
-        Date tillTime = new Date();
-        Calendar calendar = Calendar.getInstance();
-        calendar.setTime(tillTime);
-        calendar.add(Calendar.WEEK_OF_MONTH, -4);
-        Date fourWeeksAgoDate = calendar.getTime();
+    @ReadOnly
+    public List<ExerciseDto> getRankingExercises(@Nonnull List<Long> userIds) {
+        Instant tillTime = Instant.now();
+        Instant fourWeeksAgoDate = RankingRules.rankingPeriodStart(tillTime);
         try {
-            return getEntityManager()
-                    .createQuery("SELECT e FROM Exercise e WHERE e.userId in :userIds" +
-                            " AND e.startTime >= :startTime AND e.startTime <= :tillTime ORDER BY e.startTime desc")
+            return readOnly(getEntityManager()
+                    .createNamedQuery(Exercise.FIND_RANKING_EXERCISES)
                     .setParameter("userIds", userIds)
                     .setParameter("tillTime", tillTime)
-                    .setParameter("startTime", fourWeeksAgoDate)
+                    .setParameter("startTime", fourWeeksAgoDate))
                     .getResultList();
         } catch (NoResultException e) {
             return Collections.emptyList();
         }
     }
 
-
+    @Nonnull
+    @Override
+    @ReadOnly
+    public List<IdRank> getRankingScores(@Nonnull List<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Instant tillTime = Instant.now();
+        List<Object[]> rows = getEntityManager()
+                .createNativeQuery(RANKING_SCORES_QUERY)
+                .setParameter("userIds", userIds)
+                .setParameter("tillTime", tillTime)
+                .setParameter("startTime", RankingRules.rankingPeriodStart(tillTime))
+                .getResultList();
+        List<IdRank> idRanks = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            idRanks.add(new IdRank(((Number) row[0]).longValue(), ((Number) row[1]).longValue()));
+        }
+        return idRanks;
+    }
 }
@@ -0,0 +1,195 @@
+package de.egym.recruiting.codingtask.jpa.dao;
+
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import com.google.inject.Singleton;
+import com.google.inject.name.Named;
+import de.egym.recruiting.codingtask.jpa.domain.Exercise;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-memory time intervals of the exercises per user, answering the conflict check of
+ * {@link ExerciseDao#findConflictExerciseIds(Exercise)} without a database round trip.
+ * <p>
+ * Every user has its {@link ExerciseIntervals}, answering an overlap query in O(log n).
+ * A user is loaded completely on the first conflict check (or by the warm-up at startup) and afterwards kept
+ * up to date by the committed {@link ExerciseDaoImpl} writes, so the index is only correct while this instance is the
+ * only writer. A user whose writes are applied while it is loaded is not installed, the next conflict check loads it
+ * again.
+ * Enabled by {@code conflict.index.enabled}; {@code conflict.index.verifyPercent} compares the given percentage
+ * of the answers with the database query and drops the user from the index on a mismatch.
+ */
+@Singleton
+public class ExerciseIntervalIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ExerciseIntervalIndex.class);
+
+    private static final long MILLIS_IN_SECOND = 1000L;
+
+    private static final int WRITE_COUNT_STRIPES = 64;
+
+    private final Provider<EntityManager> entityManagerProvider;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final boolean enabled;
+
+    private final int verifyPercent;
+
+    private final Map<Long, ExerciseIntervals> userIntervals = new ConcurrentHashMap<>();
+
+    /**
+     * Number of the writes applied per stripe of users, a load compares them before and after its query.
+     */
+    private final AtomicLongArray writeCounts = new AtomicLongArray(WRITE_COUNT_STRIPES);
+
+    @Inject
+    ExerciseIntervalIndex(final Provider<EntityManager> entityManagerProvider,
+                          final EntityManagerFactory entityManagerFactory,
+                          @Named("conflict.index.enabled") final boolean enabled,
+                          @Named("conflict.index.warmUp") final boolean warmUp,
+                          @Named("conflict.index.verifyPercent") final int verifyPercent) {
+        this.entityManagerProvider = entityManagerProvider;
+        this.entityManagerFactory = entityManagerFactory;
+        this.enabled = enabled;
+        this.verifyPercent = verifyPercent;
+        if (enabled && warmUp) {
+            warmUp();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return whether the current answer of the index should be compared with the database
+     */
+    boolean shouldVerify() {
+        return verifyPercent > 0 && ThreadLocalRandom.current().nextInt(100) < verifyPercent;
+    }
+
+    /**
+     * Returns the ids of the exercises of the user overlapping the time range, loading the user on a cache miss.
+     *
+     * @param userId    - id of the user
+     * @param startTime - start of the range in millis, inclusive
+     * @param tillTime  - end of the range in millis, exclusive
+     * @return ids of the overlapping exercises in ascending order
+     */
+    @Nonnull
+    List<Long> findOverlapping(@Nonnull Long userId, long startTime, long tillTime) {
+        ExerciseIntervals intervals = userIntervals.get(userId);
+        if (intervals == null) {
+            intervals = load(userId);
+        }
+        return intervals.findOverlapping(startTime, tillTime);
+    }
+
+    /**
+     * Adds the created or replaces the updated exercise, users that are not loaded yet are skipped.
+     */
+    void put(@Nonnull Exercise exercise) {
+        countWrite(exercise.getUserId());
+        final ExerciseIntervals intervals = userIntervals.get(exercise.getUserId());
+        if (intervals != null) {
+            put(intervals, exercise.getId(), exercise.getStartTime().toEpochMilli(), exercise.getDuration());
+        }
+    }
+
+    /**
+     * Removes the deleted exercise, users that are not loaded yet are skipped.
+     */
+    void remove(@Nonnull Long userId, @Nonnull Long exerciseId) {
+        countWrite(userId);
+        final ExerciseIntervals intervals = userIntervals.get(userId);
+        if (intervals != null) {
+            intervals.remove(exerciseId);
+        }
+    }
+
+    /**
+     * Drops the user, the next conflict check reloads it from the database.
+     */
+    void invalidate(@Nonnull Long userId) {
+        userIntervals.remove(userId);
+    }
+
+    /**
+     * Loads the user in the transaction of the conflict check. A write applied between the query and the installation
+     * of the intervals would be skipped as the user is not loaded yet, so the intervals are installed first and
+     * dropped again if a write of the user's stripe was counted meanwhile; the writes count before they look up the
+     * user.
+     */
+    private ExerciseIntervals load(Long userId) {
+        final int stripe = stripeOf(userId);
+        final long writeCount = writeCounts.get(stripe);
+        final List<Object[]> rows = entityManagerProvider.get()
+                .createNamedQuery(Exercise.FIND_INTERVALS_BY_USER)
+                .setParameter("userId", userId)
+                .getResultList();
+        final ExerciseIntervals intervals = new ExerciseIntervals();
+        for (Object[] row : rows) {
+            putRow(intervals, row, 0);
+        }
+        final ExerciseIntervals existing = userIntervals.putIfAbsent(userId, intervals);
+        if (existing != null) {
+            return existing;
+        }
+        if (writeCounts.get(stripe) != writeCount) {
+            userIntervals.remove(userId, intervals);
+        }
+        return intervals;
+    }
+
+    private void countWrite(Long userId) {
+        writeCounts.incrementAndGet(stripeOf(userId));
+    }
+
+    private static int stripeOf(Long userId) {
+        return (int) (userId & (WRITE_COUNT_STRIPES - 1));
+    }
+
+    /**
+     * Runs before the application serves requests, on a separate entity manager: the one of the unit of work would
+     * stay open on the starting thread.
+     */
+    private void warmUp() {
+        final List<Object[]> rows;
+        final EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            rows = entityManager.createNamedQuery(Exercise.FIND_INTERVALS).getResultList();
+        } finally {
+            entityManager.close();
+        }
+        log.debug("Loading " + rows.size() + " exercises into the interval index");
+        final Map<Long, ExerciseIntervals> loaded = new HashMap<>();
+        for (Object[] row : rows) {
+            putRow(loaded.computeIfAbsent((Long) row[0], userId -> new ExerciseIntervals()), row, 1);
+        }
+        userIntervals.putAll(loaded);
+    }
+
+    /**
+     * @param idColumn - column of the exercise id, followed by the startTime and the duration columns
+     */
+    private static void putRow(ExerciseIntervals intervals, Object[] row, int idColumn) {
+        put(intervals, (Long) row[idColumn], ((Instant) row[idColumn + 1]).toEpochMilli(), (Integer) row[idColumn + 2]);
+    }
+
+    private static void put(ExerciseIntervals intervals, long id, long startTime, int duration) {
+        intervals.put(id, startTime, startTime + duration * MILLIS_IN_SECOND);
+    }
+}
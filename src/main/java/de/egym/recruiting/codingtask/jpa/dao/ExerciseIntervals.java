@@ -0,0 +1,98 @@
+package de.egym.recruiting.codingtask.jpa.dao;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Time intervals of the exercises of one user ordered by startTime.
+ * <p>
+ * An overlap query walks the intervals backwards from the requested end and stops once even the longest interval
+ * ever added could not reach the requested start, which is O(log n) plus the number of overlapping intervals,
+ * as the exercises of a user do not overlap each other.
+ */
+public final class ExerciseIntervals {
+
+    private final TreeSet<Interval> byStart = new TreeSet<>(Interval.BY_START);
+
+    private final Map<Long, Interval> byId = new HashMap<>();
+
+    private long maxLength;
+
+    /**
+     * Adds the interval or replaces the one with the same id.
+     *
+     * @param id        - id of the exercise
+     * @param startTime - start in millis, inclusive
+     * @param endTime   - end in millis, exclusive
+     */
+    public synchronized void put(long id, long startTime, long endTime) {
+        final Interval interval = new Interval(id, startTime, endTime);
+        final Interval replaced = byId.put(id, interval);
+        if (replaced != null) {
+            byStart.remove(replaced);
+        }
+        byStart.add(interval);
+        maxLength = Math.max(maxLength, endTime - startTime);
+    }
+
+    /**
+     * Removes the interval, does nothing if there is no interval with the id.
+     */
+    public synchronized void remove(long id) {
+        final Interval removed = byId.remove(id);
+        if (removed != null) {
+            byStart.remove(removed);
+        }
+    }
+
+    /**
+     * @param startTime - start of the range in millis, inclusive
+     * @param tillTime  - end of the range in millis, exclusive
+     * @return ids of the intervals overlapping the range in ascending order
+     */
+    @Nonnull
+    public synchronized List<Long> findOverlapping(long startTime, long tillTime) {
+        List<Long> ids = null;
+        final Iterator<Interval> newestFirst = byStart.headSet(new Interval(Long.MIN_VALUE, tillTime, tillTime), false)
+                .descendingIterator();
+        while (newestFirst.hasNext()) {
+            final Interval interval = newestFirst.next();
+            if (interval.startTime + maxLength <= startTime) {
+                break;
+            }
+            if (interval.endTime > startTime) {
+                if (ids == null) {
+                    ids = new ArrayList<>();
+                }
+                ids.add(interval.id);
+            }
+        }
+        if (ids == null) {
+            return Collections.emptyList();
+        }
+        Collections.sort(ids);
+        return ids;
+    }
+
+    private static final class Interval {
+        private static final Comparator<Interval> BY_START = Comparator.comparingLong((Interval interval) -> interval.startTime)
+                .thenComparingLong(interval -> interval.id);
+
+        private final long id;
+        private final long startTime;
+        private final long endTime;
+
+        private Interval(long id, long startTime, long endTime) {
+            this.id = id;
+            this.startTime = startTime;
+            this.endTime = endTime;
+        }
+    }
+}
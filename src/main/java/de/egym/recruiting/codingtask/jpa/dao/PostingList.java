@@ -0,0 +1,173 @@
+package de.egym.recruiting.codingtask.jpa.dao;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Ids of the exercises whose description contains a token, ascending in a primitive array.
+ * <p>
+ * The ids are generated in ascending order, so indexing a created exercise appends to the array; only the warm-up
+ * of an unordered result or an update of an old exercise inserts in the middle. Not thread-safe,
+ * {@link DescriptionIndex} guards all lists with its lock.
+ */
+final class PostingList {
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    private long[] ids;
+
+    private int size;
+
+    PostingList() {
+        this.ids = new long[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Adds the id, does nothing if the list already contains it.
+     */
+    void add(long id) {
+        if (size > 0 && ids[size - 1] >= id) {
+            final int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) {
+                insert(-index - 1, id);
+            }
+            return;
+        }
+        insert(size, id);
+    }
+
+    /**
+     * Removes the id, does nothing if the list does not contain it.
+     */
+    void remove(long id) {
+        final int index = Arrays.binarySearch(ids, 0, size, id);
+        if (index >= 0) {
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+        }
+    }
+
+    boolean contains(long id) {
+        return Arrays.binarySearch(ids, 0, size, id) >= 0;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long get(int index) {
+        return ids[index];
+    }
+
+    /**
+     * @return position of the largest id less than the given one, -1 if there is none
+     */
+    int lastIndexBefore(long id) {
+        final int index = Arrays.binarySearch(ids, 0, size, id);
+        return (index >= 0 ? index : -index - 1) - 1;
+    }
+
+    /**
+     * Descending cursor over the ids contained in any of the lists, e.g. of all tokens starting with a prefix.
+     * <p>
+     * The lists are merged lazily: a max-heap holds the current position of every list, so walking the first ids
+     * below a bound only costs a binary search per list and a heap operation per skipped id, not a copy of the lists.
+     */
+    static final class DescendingUnion {
+
+        private final PostingList[] lists;
+
+        private final int[] positions;
+
+        /** indexes of the lists with ids left, the one with the largest current id first */
+        private final int[] heap;
+
+        private int heapSize;
+
+        private final int totalSize;
+
+        /**
+         * @param beforeId - the cursor starts at the largest id less than this one
+         */
+        DescendingUnion(Collection<PostingList> lists, long beforeId) {
+            this.lists = lists.toArray(new PostingList[lists.size()]);
+            this.positions = new int[this.lists.length];
+            this.heap = new int[this.lists.length];
+            int total = 0;
+            for (int list = 0; list < this.lists.length; list++) {
+                total += this.lists[list].size;
+                positions[list] = this.lists[list].lastIndexBefore(beforeId);
+                if (positions[list] >= 0) {
+                    heap[heapSize++] = list;
+                }
+            }
+            this.totalSize = total;
+            for (int index = heapSize / 2 - 1; index >= 0; index--) {
+                siftDown(index);
+            }
+        }
+
+        /**
+         * Moves the cursor down to the given id, an exercise with several tokens of the prefix is only returned once.
+         *
+         * @return the largest id not greater than the given one, -1 if there is none
+         */
+        long seek(long id) {
+            while (heapSize > 0) {
+                final int list = heap[0];
+                final long current = lists[list].get(positions[list]);
+                if (current <= id) {
+                    return current;
+                }
+                positions[list] = lists[list].lastIndexBefore(id + 1);
+                if (positions[list] < 0) {
+                    heap[0] = heap[--heapSize];
+                }
+                siftDown(0);
+            }
+            return -1;
+        }
+
+        /**
+         * @return the number of ids in all lists, an exercise in several of them counted once per list
+         */
+        int totalSize() {
+            return totalSize;
+        }
+
+        private void siftDown(int index) {
+            while (true) {
+                int largest = index;
+                for (int child = 2 * index + 1; child <= 2 * index + 2 && child < heapSize; child++) {
+                    if (currentId(heap[child]) > currentId(heap[largest])) {
+                        largest = child;
+                    }
+                }
+                if (largest == index) {
+                    return;
+                }
+                final int swapped = heap[index];
+                heap[index] = heap[largest];
+                heap[largest] = swapped;
+                index = largest;
+            }
+        }
+
+        private long currentId(int list) {
+            return lists[list].get(positions[list]);
+        }
+    }
+
+    private void insert(int index, long id) {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+        }
+        System.arraycopy(ids, index, ids, index + 1, size - index);
+        ids[index] = id;
+        size++;
+    }
+}
@@ -6,8 +6,7 @@ import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.MappedSuperclass;
-
-import org.apache.commons.lang3.builder.ToStringBuilder;
+import javax.persistence.SequenceGenerator;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
@@ -16,8 +15,15 @@ public abstract class AbstractEntity implements Serializable {
 
 	private static final long serialVersionUID = 1L;
 
+	/**
+	 * Number of ids fetched from the sequence at once, lets Hibernate batch the inserts instead of
+	 * reading back an identity value after every single one.
+	 */
+	public static final int ID_ALLOCATION_SIZE = 50;
+
 	@Id
-	@GeneratedValue(strategy = GenerationType.AUTO)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "entity_id_generator")
+	@SequenceGenerator(name = "entity_id_generator", sequenceName = "entity_id_seq", allocationSize = ID_ALLOCATION_SIZE)
 	private Long id;
 
 	public Long getId() {
@@ -60,8 +66,11 @@ public abstract class AbstractEntity implements Serializable {
 		return hashCode;
 	}
 
+	/**
+	 * Only the class and id, entities are logged on every write and reflection would make that expensive.
+	 */
 	@Override
 	public String toString() {
-		return ToStringBuilder.reflectionToString(this);
+		return getClass().getSimpleName() + "[id=" + getId() + "]";
 	}
 }
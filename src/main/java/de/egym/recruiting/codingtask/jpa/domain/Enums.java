@@ -14,4 +14,14 @@ public final class Enums {
 		SPORTS,
 		OTHER
 	}
+
+	public enum SortOrder {
+		NEWEST_FIRST,
+		OLDEST_FIRST
+	}
+
+	public enum Period {
+		DAY,
+		WEEK
+	}
 }
@@ -1,21 +1,139 @@
 package de.egym.recruiting.codingtask.jpa.domain;
 
-import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
-import java.util.Date;
+import java.time.Instant;
 
 import javax.annotation.RegEx;
+import javax.persistence.Cacheable;
 import javax.persistence.Entity;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
+import javax.persistence.Index;
+import javax.persistence.NamedQueries;
+import javax.persistence.NamedQuery;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
+import javax.persistence.Table;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Pattern;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Exercise.CACHE_REGION)
+// compiled once when the persistence unit starts, a broken query fails the startup.
+// The read-only listings select ExerciseDto projections instead of managed entities
+@NamedQueries({
+		@NamedQuery(name = Exercise.FIND_ALL, query = "SELECT e FROM Exercise e"),
+		@NamedQuery(name = Exercise.FIND_BY_DESCRIPTION,
+				query = Exercise.SELECT_DTO + " WHERE e.descriptionLower = :description"),
+		// the user exercises of every type and day range filter combination,
+		// endTime >= :rangeStart follows from the startTime range and lets the (userId, endTime) index serve the query
+		@NamedQuery(name = Exercise.FIND_BY_USER,
+				query = Exercise.SELECT_DTO + " WHERE e.userId = :userId"),
+		@NamedQuery(name = Exercise.FIND_BY_USER_AND_TYPE,
+				query = Exercise.SELECT_DTO + " WHERE e.userId = :userId AND e.type = :type"),
+		@NamedQuery(name = Exercise.FIND_BY_USER_IN_RANGE,
+				query = Exercise.SELECT_DTO + " WHERE e.userId = :userId"
+						+ " AND e.endTime >= :rangeStart AND e.startTime >= :rangeStart AND e.startTime < :rangeEnd"),
+		@NamedQuery(name = Exercise.FIND_BY_USER_TYPE_IN_RANGE,
+				query = Exercise.SELECT_DTO + " WHERE e.userId = :userId AND e.type = :type"
+						+ " AND e.endTime >= :rangeStart AND e.startTime >= :rangeStart AND e.startTime < :rangeEnd"),
+		@NamedQuery(name = Exercise.FIND_OVERLAPPING,
+				query = "SELECT e FROM Exercise e WHERE e.userId = :userId"
+						+ " AND e.startTime < :tillTime AND e.endTime > :startTime"),
+		@NamedQuery(name = Exercise.FIND_OVERLAPPING_IDS,
+				query = "SELECT e.id FROM Exercise e WHERE e.userId = :userId"
+						+ " AND e.startTime < :tillTime AND e.endTime > :startTime"),
+		@NamedQuery(name = Exercise.FIND_RANKING_EXERCISES,
+				query = Exercise.SELECT_DTO + " WHERE e.userId in :userIds AND e.endTime >= :startTime"
+						+ " AND e.startTime >= :startTime AND e.startTime <= :tillTime ORDER BY e.startTime desc"),
+		@NamedQuery(name = Exercise.FIND_STARTED_FROM,
+				query = Exercise.SELECT_DTO + " WHERE e.startTime >= :startTime"),
+		@NamedQuery(name = Exercise.FIND_INTERVALS_BY_USER,
+				query = "SELECT e.id, e.startTime, e.duration FROM Exercise e WHERE e.userId = :userId"),
+		@NamedQuery(name = Exercise.FIND_INTERVALS,
+				query = "SELECT e.userId, e.id, e.startTime, e.duration FROM Exercise e"),
+		// ordered by id, so that the description index appends to its posting lists
+		@NamedQuery(name = Exercise.FIND_DESCRIPTIONS,
+				query = "SELECT e.id, e.descriptionLower FROM Exercise e ORDER BY e.id"),
+		@NamedQuery(name = Exercise.FIND_BY_IDS,
+				query = Exercise.SELECT_DTO + " WHERE e.id IN :ids ORDER BY e.id DESC"),
+		// the daily stats are rebuilt one user after the other
+		@NamedQuery(name = Exercise.FIND_ALL_BY_USER,
+				query = Exercise.SELECT_DTO + " ORDER BY e.userId")
+})
+@Table(indexes = {
+		// conflict check, ranking and user exercises of a day: userId + endTime range. HSQLDB only uses the first
+		// index matching the userId equality, so queries on a startTime range add the implied endTime lower bound
+		@Index(name = Exercise.INDEX_USER_END, columnList = "userId,endTime"),
+		// user exercises filtered by type and day. The pages of the user exercises are read in the order of
+		// these two indexes, the id makes the order unique
+		@Index(name = Exercise.INDEX_USER_TYPE_START_ID, columnList = "userId,type,startTime,id"),
+		@Index(name = Exercise.INDEX_USER_START_ID, columnList = "userId,startTime,id"),
+		@Index(name = Exercise.INDEX_DESCRIPTION_LOWER, columnList = "descriptionLower")
+})
 public class Exercise extends AbstractEntity {
 
 	private static final long serialVersionUID = 1L;
 
+	/**
+	 * second-level cache region of the entities, bounded in the ehcache.xml
+	 */
+	public static final String CACHE_REGION = "exercise";
+
+	/**
+	 * query cache region of the exercise searches, bounded in the ehcache.xml
+	 */
+	public static final String QUERY_CACHE_REGION = "exercise.query";
+
+	/**
+	 * constructor expression of the read-only queries, the arguments follow the ExerciseDto constructor
+	 */
+	static final String SELECT_DTO = "SELECT NEW de.egym.recruiting.codingtask.dto.ExerciseDto(e.id, e.userId,"
+			+ " e.description, e.type, e.startTime, e.duration, e.distance, e.calories) FROM Exercise e";
+
+	public static final String FIND_ALL = "Exercise.findAll";
+
+	public static final String FIND_BY_DESCRIPTION = "Exercise.findByDescription";
+
+	public static final String FIND_BY_USER = "Exercise.findByUser";
+
+	public static final String FIND_BY_USER_AND_TYPE = "Exercise.findByUserAndType";
+
+	public static final String FIND_BY_USER_IN_RANGE = "Exercise.findByUserInRange";
+
+	public static final String FIND_BY_USER_TYPE_IN_RANGE = "Exercise.findByUserTypeInRange";
+
+	public static final String FIND_OVERLAPPING = "Exercise.findOverlapping";
+
+	public static final String FIND_OVERLAPPING_IDS = "Exercise.findOverlappingIds";
+
+	public static final String FIND_RANKING_EXERCISES = "Exercise.findRankingExercises";
+
+	public static final String FIND_STARTED_FROM = "Exercise.findStartedFrom";
+
+	public static final String FIND_INTERVALS_BY_USER = "Exercise.findIntervalsByUser";
+
+	public static final String FIND_INTERVALS = "Exercise.findIntervals";
+
+	public static final String FIND_DESCRIPTIONS = "Exercise.findDescriptions";
+
+	public static final String FIND_BY_IDS = "Exercise.findByIds";
+
+	public static final String FIND_ALL_BY_USER = "Exercise.findAllByUser";
+
+	public static final String INDEX_USER_END = "idx_exercise_user_end";
+
+	public static final String INDEX_USER_TYPE_START_ID = "idx_exercise_user_type_start_id";
+
+	public static final String INDEX_USER_START_ID = "idx_exercise_user_start_id";
+
+	public static final String INDEX_DESCRIPTION_LOWER = "idx_exercise_description_lower";
+
 	@NotNull
 	private Long userId;
 
@@ -23,16 +141,29 @@ public class Exercise extends AbstractEntity {
 	@Pattern(regexp="[a-zA-Z0-9 ]*", message="Only Alphanumeric and space characters are allowed")
 	private String description;
 
+	/**
+	 * lower-cased description, kept in sync by {@link #updateDerivedFields()} so that the case-insensitive
+	 * description search can use an index
+	 */
+	@JsonIgnore
+	private String descriptionLower;
+
 	@NotNull
 	@Enumerated(EnumType.STRING)
 	private Enums.ExerciseType type;
 
 	/**
-	 * format: yyyy-MM-dd'T'HH:mm:ss
+	 * format: yyyy-MM-dd'T'HH:mm:ss in UTC, see ObjectMapperProvider
 	 */
-	@JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss")
 	@NotNull
-	private Date startTime;
+	private Instant startTime;
+
+	/**
+	 * startTime + duration, kept in sync by {@link #updateDerivedFields()} so that the conflict check
+	 * is a plain range predicate on indexed columns
+	 */
+	@JsonIgnore
+	private Instant endTime;
 
 	/**
 	 * in seconds
@@ -76,11 +207,11 @@ public class Exercise extends AbstractEntity {
 		this.type = type;
 	}
 
-	public Date getStartTime() {
+	public Instant getStartTime() {
 		return startTime;
 	}
 
-	public void setStartTime(Date startTime) {
+	public void setStartTime(Instant startTime) {
 		this.startTime = startTime;
 	}
 
@@ -107,4 +238,17 @@ public class Exercise extends AbstractEntity {
 	public void setDescription(String description) {
 		this.description = description;
 	}
+
+	@Override
+	public String toString() {
+		return "Exercise[id=" + getId() + ", userId=" + userId + ", type=" + type + ", startTime=" + startTime
+				+ ", duration=" + duration + "]";
+	}
+
+	@PrePersist
+	@PreUpdate
+	void updateDerivedFields() {
+		descriptionLower = description == null ? null : description.toLowerCase();
+		endTime = startTime == null || duration == null ? null : startTime.plusSeconds(duration);
+	}
 }
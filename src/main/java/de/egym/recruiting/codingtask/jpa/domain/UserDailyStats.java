@@ -0,0 +1,170 @@
+package de.egym.recruiting.codingtask.jpa.domain;
+
+import java.time.LocalDate;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.NamedQueries;
+import javax.persistence.NamedQuery;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+import javax.validation.constraints.NotNull;
+
+/**
+ * Number of exercises of a user and their summed up duration, distance and calories per day (UTC) and type, so that
+ * the totals read one row per day instead of every exercise. The exercise writes of the ExerciseDao keep the rows up
+ * to date in their transaction; a day and type without exercises has no row.
+ */
+@Entity
+@NamedQueries({
+		@NamedQuery(name = UserDailyStats.FIND_ALL, query = "SELECT s FROM UserDailyStats s"),
+		@NamedQuery(name = UserDailyStats.FIND_BY_USER_IN_RANGE,
+				query = UserDailyStats.SELECT_TOTALS + " WHERE s.userId = :userId AND s.day >= :from AND s.day <= :to"
+						+ " ORDER BY s.day, s.type"),
+		@NamedQuery(name = UserDailyStats.FIND_BY_USER_TYPE_IN_RANGE,
+				query = UserDailyStats.SELECT_TOTALS + " WHERE s.userId = :userId AND s.type = :type"
+						+ " AND s.day >= :from AND s.day <= :to ORDER BY s.day"),
+		@NamedQuery(name = UserDailyStats.FIND_BY_KEY,
+				query = "SELECT s.id, s.exercises FROM UserDailyStats s"
+						+ " WHERE s.userId = :userId AND s.day = :day AND s.type = :type"),
+		// the exercise writes change the sums in place, concurrent writes of the same day and type add up instead
+		// of overwriting each other
+		@NamedQuery(name = UserDailyStats.ADD,
+				query = "UPDATE UserDailyStats s SET s.exercises = s.exercises + :exercises,"
+						+ " s.duration = s.duration + :duration, s.distance = s.distance + :distance,"
+						+ " s.calories = s.calories + :calories WHERE s.id = :id"),
+		@NamedQuery(name = UserDailyStats.DELETE_IF_EMPTY,
+				query = "DELETE FROM UserDailyStats s WHERE s.id = :id AND s.exercises <= 0"),
+		@NamedQuery(name = UserDailyStats.DELETE_ALL, query = "DELETE FROM UserDailyStats s")
+})
+@Table(uniqueConstraints = {
+		// one row per day and type, also serves the totals of a user and a day range
+		@UniqueConstraint(name = UserDailyStats.UNIQUE_USER_DAY_TYPE, columnNames = {"userId", "statsDay", "type"})
+})
+public class UserDailyStats extends AbstractEntity {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * the columns of the totals queries, in the order of {@link #getDay()}, {@link #getType()}, {@link #getExercises()},
+	 * {@link #getDuration()}, {@link #getDistance()} and {@link #getCalories()}
+	 */
+	static final String SELECT_TOTALS = "SELECT s.day, s.type, s.exercises, s.duration, s.distance, s.calories"
+			+ " FROM UserDailyStats s";
+
+	public static final String FIND_ALL = "UserDailyStats.findAll";
+
+	public static final String FIND_BY_USER_IN_RANGE = "UserDailyStats.findByUserInRange";
+
+	public static final String FIND_BY_USER_TYPE_IN_RANGE = "UserDailyStats.findByUserTypeInRange";
+
+	public static final String FIND_BY_KEY = "UserDailyStats.findByKey";
+
+	public static final String ADD = "UserDailyStats.add";
+
+	public static final String DELETE_IF_EMPTY = "UserDailyStats.deleteIfEmpty";
+
+	public static final String DELETE_ALL = "UserDailyStats.deleteAll";
+
+	public static final String UNIQUE_USER_DAY_TYPE = "uk_user_daily_stats_user_day_type";
+
+	@NotNull
+	private Long userId;
+
+	/**
+	 * day of the startTime of the exercises in UTC. DAY is a reserved word of the SQL standard
+	 */
+	@NotNull
+	@Column(name = "statsDay")
+	private LocalDate day;
+
+	@NotNull
+	@Enumerated(EnumType.STRING)
+	private Enums.ExerciseType type;
+
+	@NotNull
+	private Long exercises = 0L;
+
+	/**
+	 * in seconds
+	 */
+	@NotNull
+	private Long duration = 0L;
+
+	/**
+	 * in meters
+	 */
+	@NotNull
+	private Long distance = 0L;
+
+	/**
+	 * in kcal
+	 */
+	@NotNull
+	private Long calories = 0L;
+
+	/**
+	 * Used by JPA only.
+	 */
+	protected UserDailyStats() {
+	}
+
+	public UserDailyStats(Long userId, LocalDate day, Enums.ExerciseType type) {
+		this.userId = userId;
+		this.day = day;
+		this.type = type;
+	}
+
+	/**
+	 * Adds exercises to the sums, negative values remove them.
+	 */
+	public void add(long exercises, long duration, long distance, long calories) {
+		this.exercises += exercises;
+		this.duration += duration;
+		this.distance += distance;
+		this.calories += calories;
+	}
+
+	/**
+	 * @return whether all sums are 0, e.g. after an exercise was added and removed again
+	 */
+	public boolean isZero() {
+		return exercises == 0 && duration == 0 && distance == 0 && calories == 0;
+	}
+
+	public Long getUserId() {
+		return userId;
+	}
+
+	public LocalDate getDay() {
+		return day;
+	}
+
+	public Enums.ExerciseType getType() {
+		return type;
+	}
+
+	public Long getExercises() {
+		return exercises;
+	}
+
+	public Long getDuration() {
+		return duration;
+	}
+
+	public Long getDistance() {
+		return distance;
+	}
+
+	public Long getCalories() {
+		return calories;
+	}
+
+	@Override
+	public String toString() {
+		return "UserDailyStats[id=" + getId() + ", userId=" + userId + ", day=" + day + ", type=" + type
+				+ ", exercises=" + exercises + "]";
+	}
+}
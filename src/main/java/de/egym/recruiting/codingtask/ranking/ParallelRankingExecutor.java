@@ -0,0 +1,307 @@
+package de.egym.recruiting.codingtask.ranking;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.google.inject.name.Named;
+import de.egym.recruiting.codingtask.dto.ExerciseDto;
+import de.egym.recruiting.codingtask.jpa.domain.IdRank;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.ToLongFunction;
+
+/**
+ * Ranks large user sets on a dedicated fork/join pool of {@code ranking.parallel.threads} workers, so that a ranking
+ * neither competes with the common pool used by Jersey and the parallel streams nor waits for it.
+ * <p>
+ * The users are split by a hash of their id into one partition per worker. The users and the exercises, ordered by
+ * startTime descending, are first split into chunks whose users and exercises are sorted into the partitions in
+ * parallel; then every partition runs its own {@link RankingCalculator} over its exercises of all chunks in chunk
+ * order, which keeps them ordered by startTime. A ranking sorts the partitions in parallel and combines them by a
+ * k-way merge, the scores are looked up in the calculator of the partition of a user. User sets smaller than
+ * {@code ranking.parallel.minUsers} and a pool of a single worker calculate on the calling thread, distributing them
+ * would cost more than it saves. The pool is shut down with the application, see {@link #shutdown()}.
+ */
+@Singleton
+public class ParallelRankingExecutor {
+
+    private static final ForkJoinPool.ForkJoinWorkerThreadFactory WORKER_FACTORY = pool -> {
+        final ForkJoinWorkerThread worker = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        worker.setName("ranking-" + worker.getPoolIndex());
+        return worker;
+    };
+
+    /**
+     * Multiplier of the Fibonacci hashing, spreads sequential user ids evenly over the partitions.
+     */
+    private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    private final ForkJoinPool pool;
+
+    private final int minUsers;
+
+    /**
+     * @param threads  - workers of the pool, 0 for one per available processor
+     * @param minUsers - smallest user set ranked in parallel
+     */
+    @Inject
+    ParallelRankingExecutor(@Named("ranking.parallel.threads") final int threads,
+                            @Named("ranking.parallel.minUsers") final int minUsers) {
+        if (threads < 0) {
+            throw new IllegalArgumentException("ranking.parallel.threads should not be negative");
+        }
+        this.pool = new ForkJoinPool(threads == 0 ? Runtime.getRuntime().availableProcessors() : threads,
+                WORKER_FACTORY, null, false);
+        this.minUsers = minUsers;
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * @param userIds   - ids of the users to rank, a user listed several times is ranked once
+     * @param exercises - exercises of the ranking period, ordered by startTime descending
+     * @return id-rank pairs of the users in ranking order
+     */
+    @Nonnull
+    public List<IdRank> rank(@Nonnull List<Long> userIds, @Nonnull List<ExerciseDto> exercises) {
+        final List<Long> distinctUserIds = new ArrayList<>(new LinkedHashSet<>(userIds));
+        final int partitions = partitions(distinctUserIds);
+        if (partitions <= 1) {
+            return new RankingCalculator(distinctUserIds).addAll(exercises).getIdRanks(distinctUserIds);
+        }
+        final List<PartitionTask> partitionTasks = pool.invoke(new CalculationTask(distinctUserIds, exercises,
+                partitions, true));
+        final List<List<IdRank>> rankings = new ArrayList<>(partitions);
+        for (PartitionTask partitionTask : partitionTasks) {
+            rankings.add(partitionTask.idRanks);
+        }
+        return merge(rankings);
+    }
+
+    /**
+     * @param userIds   - ids of the users to score
+     * @param exercises - exercises of the ranking period, ordered by startTime descending
+     * @return score of a user by id, 0 for the users not given
+     */
+    @Nonnull
+    public ToLongFunction<Long> scores(@Nonnull List<Long> userIds, @Nonnull List<ExerciseDto> exercises) {
+        final int partitions = partitions(userIds);
+        if (partitions <= 1) {
+            return new RankingCalculator(userIds).addAll(exercises)::getScore;
+        }
+        final RankingCalculator[] calculators = new RankingCalculator[partitions];
+        for (PartitionTask partitionTask : pool.invoke(new CalculationTask(userIds, exercises, partitions, false))) {
+            calculators[partitionTask.partition] = partitionTask.calculator;
+        }
+        return userId -> calculators[partitionOf(userId, partitions)].getScore(userId);
+    }
+
+    /**
+     * Stops the workers once the running calculations are done, the executor calculates on the calling thread
+     * afterwards.
+     */
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * @return number of partitions to calculate the users in, at most 1 when they are calculated on the calling thread
+     */
+    private int partitions(List<Long> userIds) {
+        if (userIds.size() < minUsers || pool.isShutdown()) {
+            return 1;
+        }
+        return Math.min(pool.getParallelism(), userIds.size());
+    }
+
+    private static int partitionOf(long userId, int partitions) {
+        return (int) (((userId * HASH_MULTIPLIER) >>> 32) % partitions);
+    }
+
+    /**
+     * Merges the rankings of the partitions, each of them in ranking order.
+     */
+    static List<IdRank> merge(List<List<IdRank>> rankings) {
+        int size = 0;
+        final PriorityQueue<Cursor> heads = new PriorityQueue<>(rankings.size());
+        for (List<IdRank> ranking : rankings) {
+            size += ranking.size();
+            if (!ranking.isEmpty()) {
+                heads.add(new Cursor(ranking));
+            }
+        }
+        final List<IdRank> merged = new ArrayList<>(size);
+        while (!heads.isEmpty()) {
+            final Cursor best = heads.poll();
+            merged.add(best.head());
+            if (best.advance()) {
+                heads.add(best);
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Position in the ranking of a partition, ordered by the id-rank pair at the position.
+     */
+    private static final class Cursor implements Comparable<Cursor> {
+
+        private final List<IdRank> ranking;
+
+        private int position;
+
+        private Cursor(List<IdRank> ranking) {
+            this.ranking = ranking;
+        }
+
+        private IdRank head() {
+            return ranking.get(position);
+        }
+
+        private boolean advance() {
+            return ++position < ranking.size();
+        }
+
+        @Override
+        public int compareTo(@Nonnull Cursor other) {
+            return head().compareTo(other.head());
+        }
+    }
+
+    /**
+     * Splits the users and exercises into chunks, then calculates the partitions.
+     */
+    private static final class CalculationTask extends RecursiveTask<List<PartitionTask>> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<Long> userIds;
+
+        private final List<ExerciseDto> exercises;
+
+        private final int partitions;
+
+        private final boolean rank;
+
+        private CalculationTask(List<Long> userIds, List<ExerciseDto> exercises, int partitions, boolean rank) {
+            this.userIds = userIds;
+            this.exercises = exercises;
+            this.partitions = partitions;
+            this.rank = rank;
+        }
+
+        @Override
+        protected List<PartitionTask> compute() {
+            final List<ChunkTask> chunks = new ArrayList<>(partitions);
+            for (int chunk = 0; chunk < partitions; chunk++) {
+                chunks.add(new ChunkTask(slice(userIds, chunk), slice(exercises, chunk), partitions));
+            }
+            ForkJoinTask.invokeAll(chunks);
+
+            final List<PartitionTask> partitionTasks = new ArrayList<>(partitions);
+            for (int partition = 0; partition < partitions; partition++) {
+                partitionTasks.add(new PartitionTask(chunks, partition, rank));
+            }
+            ForkJoinTask.invokeAll(partitionTasks);
+            return partitionTasks;
+        }
+
+        private <T> List<T> slice(List<T> list, int chunk) {
+            return list.subList((int) ((long) list.size() * chunk / partitions),
+                    (int) ((long) list.size() * (chunk + 1) / partitions));
+        }
+    }
+
+    /**
+     * Sorts a contiguous chunk of the users and one of the exercises into their partitions, keeping their order.
+     */
+    private static final class ChunkTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<Long> userIds;
+
+        private final List<ExerciseDto> exercises;
+
+        private final int partitions;
+
+        private List<List<Long>> userIdsByPartition;
+
+        private List<List<ExerciseDto>> exercisesByPartition;
+
+        private ChunkTask(List<Long> userIds, List<ExerciseDto> exercises, int partitions) {
+            this.userIds = userIds;
+            this.exercises = exercises;
+            this.partitions = partitions;
+        }
+
+        @Override
+        protected void compute() {
+            userIdsByPartition = newPartitions(userIds.size());
+            for (Long userId : userIds) {
+                userIdsByPartition.get(partitionOf(userId, partitions)).add(userId);
+            }
+            exercisesByPartition = newPartitions(exercises.size());
+            for (ExerciseDto exercise : exercises) {
+                exercisesByPartition.get(partitionOf(exercise.getUserId(), partitions)).add(exercise);
+            }
+        }
+
+        private <T> List<List<T>> newPartitions(int size) {
+            final List<List<T>> byPartition = new ArrayList<>(partitions);
+            for (int partition = 0; partition < partitions; partition++) {
+                byPartition.add(new ArrayList<>(size / partitions + 1));
+            }
+            return byPartition;
+        }
+    }
+
+    /**
+     * Calculates the users of one partition from their exercises of all chunks, and ranks them if asked to.
+     */
+    private static final class PartitionTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<ChunkTask> chunks;
+
+        private final int partition;
+
+        private final boolean rank;
+
+        private RankingCalculator calculator;
+
+        private List<IdRank> idRanks;
+
+        private PartitionTask(List<ChunkTask> chunks, int partition, boolean rank) {
+            this.chunks = chunks;
+            this.partition = partition;
+            this.rank = rank;
+        }
+
+        @Override
+        protected void compute() {
+            final List<Long> partitionUserIds = new ArrayList<>();
+            for (ChunkTask chunk : chunks) {
+                partitionUserIds.addAll(chunk.userIdsByPartition.get(partition));
+            }
+            calculator = new RankingCalculator(partitionUserIds);
+            for (ChunkTask chunk : chunks) {
+                calculator.addAll(chunk.exercisesByPartition.get(partition));
+            }
+            if (rank) {
+                idRanks = calculator.getIdRanks(partitionUserIds);
+            }
+        }
+    }
+}
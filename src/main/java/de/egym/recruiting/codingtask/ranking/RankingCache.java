@@ -0,0 +1,217 @@
+package de.egym.recruiting.codingtask.ranking;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.google.inject.name.Named;
+import de.egym.recruiting.codingtask.jpa.domain.IdRank;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of complete rankings keyed by the sorted set of the ranked user ids, so that leaderboards
+ * requesting the same users over and over are ranked once.
+ * <p>
+ * Holds the {@code ranking.cache.size} least recently used rankings (0 disables the cache). A ranking expires
+ * {@code ranking.cache.ttlSeconds} after it was computed or earlier, at the {@link Ranking#validUntil} its loader
+ * reports for the moving ranking period. Writes of exercises must call {@link #invalidate(Long)}
+ * with the user of the exercise. Concurrent requests for the same user set wait for a single computation.
+ */
+@Singleton
+public class RankingCache {
+
+    private static final Logger log = LoggerFactory.getLogger(RankingCache.class);
+
+    /**
+     * Ranking of a user set with the moment it changes without an exercise being written.
+     */
+    public static final class Ranking {
+        private final List<IdRank> idRanks;
+        private final long validUntil;
+
+        /**
+         * @param idRanks    - all ranked users, best first
+         * @param validUntil - moment in millis the ranking changes by the moving ranking period,
+         *                   {@link Long#MAX_VALUE} if it is not known to change
+         */
+        public Ranking(@Nonnull List<IdRank> idRanks, long validUntil) {
+            this.idRanks = Collections.unmodifiableList(idRanks);
+            this.validUntil = validUntil;
+        }
+    }
+
+    /**
+     * Sorted user ids with their hash code computed once, a key is hashed into the reverse index of every member.
+     */
+    private static final class Key {
+        private final List<Long> userIds;
+        private final int hash;
+
+        private Key(List<Long> userIds) {
+            this.userIds = Collections.unmodifiableList(userIds);
+            this.hash = userIds.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key && hash == ((Key) other).hash && userIds.equals(((Key) other).userIds);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class Entry {
+        private final CompletableFuture<List<IdRank>> idRanks = new CompletableFuture<>();
+        private volatile long expiresAt = Long.MAX_VALUE;
+
+        private boolean isExpired(long now) {
+            return idRanks.isDone() && now >= expiresAt;
+        }
+    }
+
+    private final int maxEntries;
+
+    private final long ttlMillis;
+
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final Map<Long, Set<Key>> userIdToKeys = new HashMap<>();
+
+    @Inject
+    RankingCache(@Named("ranking.cache.size") final int maxEntries,
+                 @Named("ranking.cache.ttlSeconds") final int ttlSeconds) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = TimeUnit.SECONDS.toMillis(ttlSeconds);
+    }
+
+    public boolean isEnabled() {
+        return maxEntries > 0;
+    }
+
+    /**
+     * @param userIds - ids of the users to rank
+     * @param loader  - ranks the given users, called with the sorted user ids on a cache miss
+     * @return all ranked users, best first
+     */
+    @Nonnull
+    public List<IdRank> get(@Nonnull List<Long> userIds, @Nonnull Function<List<Long>, Ranking> loader) {
+        final Key key = toKey(userIds);
+        if (!isEnabled() || key == null) {
+            return loader.apply(userIds).idRanks;
+        }
+
+        final Entry entry;
+        final boolean computing;
+        synchronized (this) {
+            final Entry cachedEntry = entries.get(key);
+            if (cachedEntry != null && !cachedEntry.isExpired(System.currentTimeMillis())) {
+                entry = cachedEntry;
+                computing = false;
+            } else {
+                entry = new Entry();
+                computing = true;
+                removeEntry(key);
+                addEntry(key, entry);
+            }
+        }
+
+        if (computing) {
+            log.debug("Ranking " + key.userIds.size() + " users for the ranking cache");
+            try {
+                final Ranking ranking = loader.apply(key.userIds);
+                entry.expiresAt = Math.min(ranking.validUntil, System.currentTimeMillis() + ttlMillis);
+                entry.idRanks.complete(ranking.idRanks);
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    if (entries.get(key) == entry) {
+                        removeEntry(key);
+                    }
+                }
+                entry.idRanks.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        try {
+            return entry.idRanks.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Drops the rankings of the user, including the ones being computed; their result is only passed to the
+     * requests already waiting for it.
+     *
+     * @param userId - user whose exercises have been written
+     */
+    public synchronized void invalidate(@Nonnull Long userId) {
+        final Set<Key> keys = userIdToKeys.get(userId);
+        if (keys != null) {
+            new ArrayList<>(keys).forEach(this::removeEntry);
+        }
+    }
+
+    /**
+     * @return number of rankings held, including the ones being computed
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return the sorted user ids, null if the user ids contain duplicates
+     */
+    private static Key toKey(List<Long> userIds) {
+        final List<Long> key = new ArrayList<>(userIds);
+        Collections.sort(key);
+        for (int i = 1; i < key.size(); i++) {
+            if (key.get(i).equals(key.get(i - 1))) {
+                return null;
+            }
+        }
+        return new Key(key);
+    }
+
+    private void addEntry(Key key, Entry entry) {
+        entries.put(key, entry);
+        for (Long userId : key.userIds) {
+            userIdToKeys.computeIfAbsent(userId, id -> new HashSet<>()).add(key);
+        }
+        if (entries.size() > maxEntries) {
+            removeEntry(entries.keySet().iterator().next());
+        }
+    }
+
+    private void removeEntry(Key key) {
+        if (entries.remove(key) == null) {
+            return;
+        }
+        for (Long userId : key.userIds) {
+            final Set<Key> keys = userIdToKeys.get(userId);
+            keys.remove(key);
+            if (keys.isEmpty()) {
+                userIdToKeys.remove(userId);
+            }
+        }
+    }
+}
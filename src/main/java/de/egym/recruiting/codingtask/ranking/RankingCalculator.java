@@ -0,0 +1,86 @@
+package de.egym.recruiting.codingtask.ranking;
+
+import de.egym.recruiting.codingtask.dto.ExerciseDto;
+import de.egym.recruiting.codingtask.jpa.domain.Enums;
+import de.egym.recruiting.codingtask.jpa.domain.IdRank;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Single pass ranking calculation over exercises ordered by startTime descending.
+ * <p>
+ * Every user gets a slot with a counter per exercise type (capped at {@link RankingRules#MAX_EXERCISES_PER_TYPE})
+ * and a score, so each exercise is visited exactly once and no intermediate lists are allocated.
+ * Not thread safe, create one calculator per ranking.
+ */
+public final class RankingCalculator {
+
+    private static final int TYPES = Enums.ExerciseType.values().length;
+
+    private final Map<Long, Integer> userIdToSlot;
+
+    private final byte[] typeCounts;
+
+    private final long[] scores;
+
+    public RankingCalculator(@Nonnull Collection<Long> userIds) {
+        userIdToSlot = new HashMap<>(userIds.size() * 4 / 3 + 1);
+        for (Long userId : userIds) {
+            userIdToSlot.putIfAbsent(userId, userIdToSlot.size());
+        }
+        typeCounts = new byte[userIdToSlot.size() * TYPES];
+        scores = new long[userIdToSlot.size()];
+    }
+
+    /**
+     * Adds the next exercise, must be called newest exercise first. Exercises of unknown users are ignored.
+     */
+    public void add(long userId, @Nonnull Enums.ExerciseType type, int duration, int calories) {
+        final Integer slot = userIdToSlot.get(userId);
+        if (slot == null) {
+            return;
+        }
+        final int counter = slot * TYPES + type.ordinal();
+        final int position = typeCounts[counter];
+        if (position < RankingRules.MAX_EXERCISES_PER_TYPE) {
+            scores[slot] += RankingRules.decayedPoints(RankingRules.basePoints(type, duration, calories), position);
+            typeCounts[counter]++;
+        }
+    }
+
+    /**
+     * Adds all exercises, the list must be ordered by startTime descending.
+     */
+    @Nonnull
+    public RankingCalculator addAll(@Nonnull List<ExerciseDto> exercises) {
+        for (ExerciseDto exercise : exercises) {
+            add(exercise.getUserId(), exercise.getType(), exercise.getDuration(), exercise.getCalories());
+        }
+        return this;
+    }
+
+    public long getScore(@Nonnull Long userId) {
+        final Integer slot = userIdToSlot.get(userId);
+        return slot == null ? 0L : scores[slot];
+    }
+
+    /**
+     * @param userIds - ids of users to rank, usually the ones the calculator was created with
+     * @return id-rank pairs in ranking order
+     */
+    @Nonnull
+    public List<IdRank> getIdRanks(@Nonnull List<Long> userIds) {
+        final List<IdRank> idRanks = new ArrayList<>(userIds.size());
+        for (Long userId : userIds) {
+            idRanks.add(new IdRank(userId, getScore(userId)));
+        }
+        Collections.sort(idRanks);
+        return idRanks;
+    }
+}
@@ -0,0 +1,81 @@
+package de.egym.recruiting.codingtask.ranking;
+
+import de.egym.recruiting.codingtask.jpa.domain.Enums;
+
+import javax.annotation.Nonnull;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point calculation rules of the ranking:
+ * an exercise is worth one point per minute of duration plus the burnt kcal multiplied by the type factor,
+ * only exercises started in the last 4 weeks count and each further exercise of the same type
+ * (newest first) is worth 10% less, so at most 10 exercises per type count.
+ */
+public final class RankingRules {
+
+    public static final int RANKING_WEEKS = 4;
+
+    public static final long RANKING_PERIOD_MILLIS = TimeUnit.DAYS.toMillis(7 * RANKING_WEEKS);
+
+    public static final int DECAY_PERCENT = 10;
+
+    public static final int MAX_EXERCISES_PER_TYPE = 100 / DECAY_PERCENT;
+
+    private static final int SECONDS_IN_MINUTE = 60;
+
+    private static final Map<Enums.ExerciseType, Integer> typeToMultiplicationFactor = initializeTypeToMultiplicationFactor();
+
+    private static Map<Enums.ExerciseType, Integer> initializeTypeToMultiplicationFactor() {
+        Map<Enums.ExerciseType, Integer> map = new EnumMap<>(Enums.ExerciseType.class);
+        map.put(Enums.ExerciseType.RUNNING, 2);
+        map.put(Enums.ExerciseType.CYCLING, 2);
+        map.put(Enums.ExerciseType.SWIMMING, 3);
+        map.put(Enums.ExerciseType.ROWING, 2);
+        map.put(Enums.ExerciseType.WALKING, 1);
+        map.put(Enums.ExerciseType.CIRCUIT_TRAINING, 4);
+        map.put(Enums.ExerciseType.STRENGTH_TRAINING, 3);
+        map.put(Enums.ExerciseType.FITNESS_COURSE, 2);
+        map.put(Enums.ExerciseType.SPORTS, 3);
+        map.put(Enums.ExerciseType.OTHER, 1);
+        return Collections.unmodifiableMap(map);
+    }
+
+    private RankingRules() {
+    }
+
+    public static int multiplicationFactor(@Nonnull Enums.ExerciseType type) {
+        return typeToMultiplicationFactor.get(type);
+    }
+
+    /**
+     * @return points of the exercise before the decay is applied
+     */
+    public static int basePoints(@Nonnull Enums.ExerciseType type, int duration, int calories) {
+        return multiplicationFactor(type) * (duration / SECONDS_IN_MINUTE + calories);
+    }
+
+    /**
+     * @param basePoints - points of the exercise before the decay
+     * @param position   - 0-based position of the exercise among the newest exercises of the same type
+     * @return points the exercise is worth at the given position, 0 if it does not count anymore
+     */
+    public static long decayedPoints(int basePoints, int position) {
+        if (position >= MAX_EXERCISES_PER_TYPE) {
+            return 0;
+        }
+        return (100L - DECAY_PERCENT * position) * basePoints / 100;
+    }
+
+    /**
+     * @param now - moment the ranking is calculated for
+     * @return the earliest startTime of an exercise that still counts for the ranking
+     */
+    @Nonnull
+    public static Instant rankingPeriodStart(@Nonnull Instant now) {
+        return now.minusMillis(RANKING_PERIOD_MILLIS);
+    }
+}
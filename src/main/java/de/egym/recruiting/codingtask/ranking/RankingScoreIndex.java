@@ -0,0 +1,244 @@
+package de.egym.recruiting.codingtask.ranking;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import de.egym.recruiting.codingtask.dto.ExerciseDto;
+import de.egym.recruiting.codingtask.jpa.domain.Enums;
+import de.egym.recruiting.codingtask.jpa.domain.Exercise;
+import org.hibernate.CacheMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Materialized ranking scores per user and exercise type.
+ * <p>
+ * Keeps the exercises of the current ranking period (and the future ones) per user and type ordered by startTime,
+ * so that a ranking request only reads the precomputed user scores instead of reloading the exercises.
+ * The index is loaded from the database at startup and afterwards must be kept up to date by calling
+ * {@link #put(Exercise)} and {@link #remove(Long)} for every committed exercise write, in the order the writes of
+ * a user committed. Exercises written around the index, e.g. by a bulk load through the ExerciseDao, are only
+ * added by {@link #reload()}.
+ * A user score is recomputed lazily after a write or once one of its exercises enters or leaves the ranking period.
+ */
+@Singleton
+public class RankingScoreIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(RankingScoreIndex.class);
+
+    private static final int LOAD_FETCH_SIZE = 1000;
+
+    private final Map<Long, UserScore> userScores = new ConcurrentHashMap<>();
+
+    private final Map<Long, Long> exerciseIdToUserId = new ConcurrentHashMap<>();
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Inject
+    RankingScoreIndex(final EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+        load();
+    }
+
+    /**
+     * Replaces the index with the committed exercises of the current ranking period. The writes committing meanwhile
+     * wait for it and are applied afterwards.
+     */
+    public synchronized void reload() {
+        userScores.clear();
+        exerciseIdToUserId.clear();
+        load();
+    }
+
+    /**
+     * Adds the created or replaces the updated exercise.
+     *
+     * @param exercise - persisted exercise
+     */
+    public synchronized void put(@Nonnull Exercise exercise) {
+        removeEntry(exercise.getId());
+        addEntry(exercise.getId(), exercise.getUserId(), exercise.getType(), exercise.getStartTime(),
+                exercise.getDuration(), exercise.getCalories(), System.currentTimeMillis());
+    }
+
+    /**
+     * Removes the deleted exercise, does nothing if the exercise is not part of the index.
+     *
+     * @param exerciseId - id of the deleted exercise
+     */
+    public synchronized void remove(@Nonnull Long exerciseId) {
+        removeEntry(exerciseId);
+    }
+
+    /**
+     * @param userId - id of the user
+     * @param now    - moment the ranking is calculated for, in millis
+     * @return ranking score of the user, 0 if the user has no exercises in the ranking period
+     */
+    public long getScore(@Nonnull Long userId, long now) {
+        final UserScore userScore = userScores.get(userId);
+        return userScore == null ? 0L : userScore.getScore(now);
+    }
+
+    /**
+     * @param userId - id of the user
+     * @param now    - moment the ranking is calculated for, in millis
+     * @return moment in millis the score of the user changes without an exercise being written, because an exercise
+     * enters or leaves the ranking period; {@link Long#MAX_VALUE} if it does not
+     */
+    public long getValidUntil(@Nonnull Long userId, long now) {
+        final UserScore userScore = userScores.get(userId);
+        return userScore == null ? Long.MAX_VALUE : userScore.getValidUntil(now);
+    }
+
+    /**
+     * Reads the exercises of the current ranking period as projections, they do not enter the persistence context.
+     */
+    private void load() {
+        // a separate entity manager, the one of the unit of work would stay open on the starting thread
+        final EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            load(entityManager);
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private void load(EntityManager entityManager) {
+        final long now = System.currentTimeMillis();
+        final ScrollableResults rows = entityManager
+                .createNamedQuery(Exercise.FIND_STARTED_FROM)
+                .setParameter("startTime", RankingRules.rankingPeriodStart(Instant.ofEpochMilli(now)))
+                .unwrap(org.hibernate.Query.class)
+                .setCacheMode(CacheMode.IGNORE)
+                .setFetchSize(LOAD_FETCH_SIZE)
+                .scroll(ScrollMode.FORWARD_ONLY);
+        int count = 0;
+        try {
+            while (rows.next()) {
+                final ExerciseDto exercise = (ExerciseDto) rows.get(0);
+                addEntry(exercise.getId(), exercise.getUserId(), exercise.getType(), exercise.getStartTime(),
+                        exercise.getDuration(), exercise.getCalories(), now);
+                count++;
+            }
+        } finally {
+            rows.close();
+        }
+        log.debug("Loaded {} exercises into the ranking score index", count);
+    }
+
+    private void addEntry(Long id, Long userId, Enums.ExerciseType type, Instant startTime, int duration,
+                          int calories, long now) {
+        if (startTime.toEpochMilli() < now - RankingRules.RANKING_PERIOD_MILLIS) {
+            // the exercise will never count again
+            return;
+        }
+        final Entry entry = new Entry(id, startTime.toEpochMilli(), RankingRules.basePoints(type, duration, calories));
+        userScores.computeIfAbsent(userId, key -> new UserScore()).add(type, entry);
+        exerciseIdToUserId.put(id, userId);
+    }
+
+    private void removeEntry(Long exerciseId) {
+        final Long userId = exerciseIdToUserId.remove(exerciseId);
+        if (userId != null) {
+            final UserScore userScore = userScores.get(userId);
+            if (userScore != null) {
+                userScore.remove(exerciseId);
+            }
+        }
+    }
+
+    private static final class Entry {
+        private static final Comparator<Entry> NEWEST_FIRST = Comparator.comparingLong((Entry entry) -> entry.startTime)
+                .thenComparingLong(entry -> entry.id).reversed();
+
+        private final long id;
+        private final long startTime;
+        private final int basePoints;
+
+        private Entry(long id, long startTime, int basePoints) {
+            this.id = id;
+            this.startTime = startTime;
+            this.basePoints = basePoints;
+        }
+    }
+
+    /**
+     * Exercises of one user per type ordered newest first and the score computed from them,
+     * valid until the next exercise enters or leaves the ranking period.
+     */
+    private final class UserScore {
+        private final Map<Enums.ExerciseType, TreeSet<Entry>> entriesByType = new EnumMap<>(Enums.ExerciseType.class);
+        private final Map<Long, Enums.ExerciseType> idToType = new HashMap<>();
+        private long score;
+        private long validUntil = Long.MIN_VALUE;
+
+        synchronized void add(Enums.ExerciseType type, Entry entry) {
+            entriesByType.computeIfAbsent(type, key -> new TreeSet<>(Entry.NEWEST_FIRST)).add(entry);
+            idToType.put(entry.id, type);
+            validUntil = Long.MIN_VALUE;
+        }
+
+        synchronized void remove(Long exerciseId) {
+            final Enums.ExerciseType type = idToType.remove(exerciseId);
+            if (type != null) {
+                entriesByType.get(type).removeIf(entry -> entry.id == exerciseId);
+                validUntil = Long.MIN_VALUE;
+            }
+        }
+
+        synchronized long getScore(long now) {
+            if (now >= validUntil) {
+                recompute(now);
+            }
+            return score;
+        }
+
+        synchronized long getValidUntil(long now) {
+            if (now >= validUntil) {
+                recompute(now);
+            }
+            return validUntil;
+        }
+
+        private void recompute(long now) {
+            final long periodStart = now - RankingRules.RANKING_PERIOD_MILLIS;
+            long newScore = 0;
+            long newValidUntil = Long.MAX_VALUE;
+            for (TreeSet<Entry> entries : entriesByType.values()) {
+                while (!entries.isEmpty() && entries.last().startTime < periodStart) {
+                    final Entry expired = entries.pollLast();
+                    idToType.remove(expired.id);
+                    exerciseIdToUserId.remove(expired.id);
+                }
+                int position = 0;
+                for (Entry entry : entries) {
+                    if (entry.startTime > now) {
+                        // future exercise, starts counting once it has started
+                        newValidUntil = Math.min(newValidUntil, entry.startTime);
+                        continue;
+                    }
+                    newScore += RankingRules.decayedPoints(entry.basePoints, position);
+                    newValidUntil = Math.min(newValidUntil, entry.startTime + RankingRules.RANKING_PERIOD_MILLIS + 1);
+                    if (++position == RankingRules.MAX_EXERCISES_PER_TYPE) {
+                        break;
+                    }
+                }
+            }
+            score = newScore;
+            validUntil = newValidUntil;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package de.egym.recruiting.codingtask.ranking;
+
+/**
+ * The ways the ranking scores can be obtained, selected by the {@code ranking.strategy} property.
+ */
+public enum RankingStrategy {
+
+    /**
+     * Scores materialized on every exercise write, see {@link RankingScoreIndex}.
+     */
+    PRECOMPUTED,
+
+    /**
+     * Scores calculated in Java from the exercises of the ranking period, see {@link RankingCalculator}. Large user
+     * sets are calculated on the {@link ParallelRankingExecutor}.
+     */
+    CALCULATED,
+
+    /**
+     * Scores aggregated by the database, see {@link de.egym.recruiting.codingtask.jpa.dao.ExerciseDao#getRankingScores}.
+     */
+    SQL
+}
@@ -0,0 +1,60 @@
+package de.egym.recruiting.codingtask.ranking;
+
+import de.egym.recruiting.codingtask.jpa.domain.IdRank;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Keeps only the best {@code capacity} id-rank pairs added to it.
+ * <p>
+ * Backed by a heap with the worst kept pair on top, so adding N pairs takes O(N log K) time and O(K) memory
+ * instead of ordering all of them.
+ */
+public final class TopRanks {
+
+    private final int capacity;
+
+    private final PriorityQueue<IdRank> worstFirst;
+
+    /**
+     * @param capacity - number of best pairs to keep, {@link Integer#MAX_VALUE} keeps all of them
+     */
+    public TopRanks(int capacity) {
+        this.capacity = capacity;
+        this.worstFirst = new PriorityQueue<>(Math.max(1, Math.min(capacity, 1024)), Collections.reverseOrder());
+    }
+
+    /**
+     * @param offset - number of best pairs to skip
+     * @param limit  - maximal number of pairs to return after the skipped ones, null for all of them
+     * @return top ranks able to serve the requested page
+     */
+    @Nonnull
+    public static TopRanks forPage(int offset, Integer limit) {
+        return new TopRanks(limit == null ? Integer.MAX_VALUE : (int) Math.min(Integer.MAX_VALUE, (long) offset + limit));
+    }
+
+    public void add(@Nonnull IdRank idRank) {
+        if (worstFirst.size() < capacity) {
+            worstFirst.add(idRank);
+        } else if (capacity > 0 && idRank.compareTo(worstFirst.peek()) < 0) {
+            worstFirst.poll();
+            worstFirst.add(idRank);
+        }
+    }
+
+    /**
+     * @param offset - number of best pairs to skip
+     * @return the kept pairs after the skipped ones in ranking order, best first
+     */
+    @Nonnull
+    public List<IdRank> toList(int offset) {
+        final List<IdRank> idRanks = new ArrayList<>(worstFirst);
+        Collections.sort(idRanks);
+        return offset >= idRanks.size() ? Collections.emptyList() : idRanks.subList(offset, idRanks.size());
+    }
+}
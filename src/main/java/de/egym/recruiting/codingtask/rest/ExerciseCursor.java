@@ -0,0 +1,48 @@
+package de.egym.recruiting.codingtask.rest;
+
+import de.egym.recruiting.codingtask.dto.ExerciseDto;
+
+import javax.annotation.Nonnull;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position after an exercise in a page of the user exercises: its (startTime, id), passed to the clients as
+ * opaque URL-safe string, so that the encoding can change without breaking them.
+ */
+final class ExerciseCursor {
+
+    private static final String SEPARATOR = "_";
+
+    final Instant startTime;
+
+    final long id;
+
+    private ExerciseCursor(Instant startTime, long id) {
+        this.startTime = startTime;
+        this.id = id;
+    }
+
+    @Nonnull
+    static String encode(@Nonnull ExerciseDto exercise) {
+        final String position = exercise.getStartTime() + SEPARATOR + exercise.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the cursor is not one created by {@link #encode}
+     */
+    @Nonnull
+    static ExerciseCursor decode(@Nonnull String cursor) {
+        try {
+            final String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            final int separator = position.indexOf(SEPARATOR);
+            return new ExerciseCursor(Instant.parse(position.substring(0, separator)),
+                    Long.parseLong(position.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("after should be the nextCursor of the previous page");
+        }
+    }
+}
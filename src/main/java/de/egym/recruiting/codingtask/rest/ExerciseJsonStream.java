@@ -0,0 +1,68 @@
+package de.egym.recruiting.codingtask.rest;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import de.egym.recruiting.codingtask.dto.ExerciseDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.ws.rs.core.StreamingOutput;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * Writes exercises as a compact JSON array while the DAO scrolls over them, so that neither the result list
+ * nor the serialized body is held in memory. The first exercise is flushed right away and every
+ * {@value #FLUSH_INTERVAL} exercises afterwards.
+ */
+final class ExerciseJsonStream implements StreamingOutput {
+
+    private static final Logger log = LoggerFactory.getLogger(ExerciseJsonStream.class);
+
+    private static final int FLUSH_INTERVAL = 100;
+
+    private static final ObjectWriter exerciseWriter = ObjectMapperProvider.writerFor(ExerciseDto.class)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+    private final ToIntFunction<Consumer<ExerciseDto>> scroll;
+
+    /**
+     * @param scroll - passes the exercises to the given consumer and returns their number, e.g. a DAO scroll method
+     */
+    ExerciseJsonStream(final ToIntFunction<Consumer<ExerciseDto>> scroll) {
+        this.scroll = scroll;
+    }
+
+    @Override
+    public void write(final OutputStream output) throws IOException {
+        final JsonGenerator generator = ObjectMapperProvider.objectMapper().getFactory().createGenerator(output)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.writeStartArray();
+        try {
+            final int count = scroll.applyAsInt(new Consumer<ExerciseDto>() {
+                private int written;
+
+                @Override
+                public void accept(final ExerciseDto exercise) {
+                    try {
+                        exerciseWriter.writeValue(generator, exercise);
+                        if (written++ % FLUSH_INTERVAL == 0) {
+                            generator.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            });
+            log.debug("Streamed " + count + " exercises");
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        generator.writeEndArray();
+        generator.close();
+    }
+}
@@ -1,5 +1,10 @@
 package de.egym.recruiting.codingtask.rest;
 
+import de.egym.recruiting.codingtask.dto.BatchItemResultDto;
+import de.egym.recruiting.codingtask.dto.ExerciseDto;
+import de.egym.recruiting.codingtask.dto.ExercisePageDto;
+import de.egym.recruiting.codingtask.dto.ExerciseTotalsDto;
+import de.egym.recruiting.codingtask.dto.RankingScoreDto;
 import de.egym.recruiting.codingtask.jpa.domain.Enums;
 import de.egym.recruiting.codingtask.jpa.domain.Exercise;
 import de.egym.recruiting.codingtask.rest.validation.HasNoId;
@@ -11,6 +16,7 @@ import javax.validation.Valid;
 import javax.ws.rs.*;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 import java.util.List;
 
 @Path("/api/v1/exercise")
@@ -27,7 +33,7 @@ public interface ExerciseService {
 	@GET
 	@Path("/{exerciseId}")
 	@Nonnull
-	@Produces(MediaType.APPLICATION_JSON)
+	@Produces({MediaType.APPLICATION_JSON, SmileProvider.APPLICATION_SMILE})
 	Exercise getExerciseById(@Nonnull @PathParam("exerciseId") Long exerciseId);
 
 	/**
@@ -39,8 +45,42 @@ public interface ExerciseService {
 	 */
 	@GET
 	@Nonnull
+	@Produces({MediaType.APPLICATION_JSON, SmileProvider.APPLICATION_SMILE})
+	List<ExerciseDto> getExerciseByDescription(@Nonnull @QueryParam("description") String description);
+
+	/**
+	 * Streams the exercises with the given description as compact JSON array while they are fetched,
+	 * the memory use does not depend on the number of exercises.
+	 *
+	 * @param description
+	 *            description to search
+	 * @return the exercises for the given description
+	 */
+	@GET
+	@Path("/stream")
+	@Nonnull
 	@Produces(MediaType.APPLICATION_JSON)
-	List<Exercise> getExerciseByDescription(@Nonnull @QueryParam("description") String description);
+	StreamingOutput streamExerciseByDescription(@Nonnull @QueryParam("description") String description);
+
+	/**
+	 * Searches the exercises whose description contains a word starting with every word of the query, e.g.
+	 * "morning ru" finds "Morning run" and "run in the morning", newest first.
+	 *
+	 * @param query
+	 *            words to search, only alphanumeric and space characters
+	 * @param pageSize
+	 *            optional maximal number of exercises of the page, 20 by default and at most 100
+	 * @param after
+	 *            optional nextCursor of the previous page
+	 * @return the page of matching exercises and the cursor of the next page
+	 */
+	@GET
+	@Path("/search")
+	@Nonnull
+	@Produces({MediaType.APPLICATION_JSON, SmileProvider.APPLICATION_SMILE})
+	ExercisePageDto searchExercises(@Nonnull @QueryParam("query") String query,
+									@QueryParam("pageSize") @Nullable Integer pageSize,
+									@QueryParam("after") @Nullable String after);
 
 	/**
 	 * Create the exercise
@@ -51,10 +91,26 @@ public interface ExerciseService {
 	 */
 	@POST
 	@Nonnull
-	@Produces(MediaType.APPLICATION_JSON)
-	@Consumes(MediaType.APPLICATION_JSON)
+	@Produces({MediaType.APPLICATION_JSON, SmileProvider.APPLICATION_SMILE})
+	@Consumes({MediaType.APPLICATION_JSON, SmileProvider.APPLICATION_SMILE})
 	Exercise create(@Nonnull @Valid @HasNoId Exercise exercise);
 
+	/**
+	 * Create all exercises of a batch. Invalid exercises and exercises in time conflict with stored exercises
+	 * or other exercises of the batch are skipped, of two conflicting exercises of the batch the earlier starting one
+	 * is created.
+	 *
+	 * @param exercises
+	 *            exercises to create, as JSON array or as newline delimited JSON objects (application/x-ndjson)
+	 * @return the outcome of every exercise in the order of the batch
+	 */
+	@POST
+	@Path("/batch")
+	@Nonnull
+	@Produces({MediaType.APPLICATION_JSON, SmileProvider.APPLICATION_SMILE})
+	@Consumes({MediaType.APPLICATION_JSON, SmileProvider.APPLICATION_SMILE, NdjsonReader.APPLICATION_NDJSON})
+	List<BatchItemResultDto> createAll(@Nonnull List<Exercise> exercises);
+
 	/**
 	 * Update the exercise
 	 * @param exerciseId - id of the exercise
@@ -63,8 +119,8 @@ public interface ExerciseService {
 	 */
 	@PUT
 	@Path("/{exerciseId}")
-	@Produces(MediaType.APPLICATION_JSON)
-	@Consumes(MediaType.APPLICATION_JSON)
+	@Produces({MediaType.APPLICATION_JSON, SmileProvider.APPLICATION_SMILE})
+	@Consumes({MediaType.APPLICATION_JSON, SmileProvider.APPLICATION_SMILE})
     @Nonnull
     Exercise update(@Nonnull @PathParam("exerciseId") Long exerciseId, @Nonnull @Valid @HasNoId Exercise exercise);
 
@@ -83,23 +139,111 @@ public interface ExerciseService {
 	 * @param userId - id of the user
 	 * @param type optional type of the exercise
 	 * @param date - optional date in 'yyyy-MM-dd' format of the exercise, when it has startTime
+	 * @param from - optional first date in 'yyyy-MM-dd' format of the exercises, not combined with date
+	 * @param to - optional last date in 'yyyy-MM-dd' format of the exercises, not combined with date
 	 * @return filtered list of user exercises
 	 */
 	@GET
 	@Path("/exercises/{userId}")
-	@Produces(MediaType.APPLICATION_JSON)
+	@Produces({MediaType.APPLICATION_JSON, SmileProvider.APPLICATION_SMILE})
 	@Nonnull
-	List<Exercise> getExercises(@Nonnull @PathParam("userId") Long userId,
+	List<ExerciseDto> getExercises(@Nonnull @PathParam("userId") Long userId,
 								@QueryParam("type") @Nullable Enums.ExerciseType type,
-								@QueryParam("date") @Nullable String date);
+								@QueryParam("date") @Nullable String date,
+								@QueryParam("from") @Nullable String from,
+								@QueryParam("to") @Nullable String to);
+
+	/**
+	 * Returns one page of the exercises of {@link #getExercises}, the next page starts after the last exercise of
+	 * this one, so the exercises created or deleted in between do not shift the pages
+	 * @param userId - id of the user
+	 * @param type optional type of the exercise
+	 * @param date - optional date in 'yyyy-MM-dd' format of the exercise, when it has startTime
+	 * @param from - optional first date in 'yyyy-MM-dd' format of the exercises, not combined with date
+	 * @param to - optional last date in 'yyyy-MM-dd' format of the exercises, not combined with date
+	 * @param pageSize - optional maximal number of exercises of the page, 20 by default and at most 100
+	 * @param after - optional nextCursor of the previous page
+	 * @param order - optional order by startTime, NEWEST_FIRST by default
+	 * @return the page of user exercises and the cursor of the next page
+	 */
+	@GET
+	@Path("/exercises/{userId}/page")
+	@Produces({MediaType.APPLICATION_JSON, SmileProvider.APPLICATION_SMILE})
+	@Nonnull
+	ExercisePageDto getExercisePage(@Nonnull @PathParam("userId") Long userId,
+									@QueryParam("type") @Nullable Enums.ExerciseType type,
+									@QueryParam("date") @Nullable String date,
+									@QueryParam("from") @Nullable String from,
+									@QueryParam("to") @Nullable String to,
+									@QueryParam("pageSize") @Nullable Integer pageSize,
+									@QueryParam("after") @Nullable String after,
+									@QueryParam("order") @Nullable Enums.SortOrder order);
+
+	/**
+	 * Streams the exercises of {@link #getExercises} as compact JSON array while they are fetched,
+	 * the memory use does not depend on the number of exercises.
+	 * @param userId - id of the user
+	 * @param type optional type of the exercise
+	 * @param date - optional date in 'yyyy-MM-dd' format of the exercise, when it has startTime
+	 * @param from - optional first date in 'yyyy-MM-dd' format of the exercises, not combined with date
+	 * @param to - optional last date in 'yyyy-MM-dd' format of the exercises, not combined with date
+	 * @return filtered list of user exercises
+	 */
+	@GET
+	@Path("/exercises/{userId}/stream")
+	@Produces(MediaType.APPLICATION_JSON)
+	@Nonnull
+	StreamingOutput streamExercises(@Nonnull @PathParam("userId") Long userId,
+									@QueryParam("type") @Nullable Enums.ExerciseType type,
+									@QueryParam("date") @Nullable String date,
+									@QueryParam("from") @Nullable String from,
+									@QueryParam("to") @Nullable String to);
+
+	/**
+	 * Returns the number of exercises of the user and their summed up duration, distance and calories per day or
+	 * week and exercise type, e.g. for the charts of a dashboard
+	 * @param userId - id of the user
+	 * @param from - first date in 'yyyy-MM-dd' format of the exercises
+	 * @param to - last date in 'yyyy-MM-dd' format of the exercises
+	 * @param period - optional DAY or WEEK (starting on Monday), DAY by default
+	 * @param type optional type of the exercises
+	 * @return totals of the periods and types having exercises, ordered by period and type name
+	 */
+	@GET
+	@Path("/exercises/{userId}/totals")
+	@Produces({MediaType.APPLICATION_JSON, SmileProvider.APPLICATION_SMILE})
+	@Nonnull
+	List<ExerciseTotalsDto> getExerciseTotals(@Nonnull @PathParam("userId") Long userId,
+											  @Nonnull @QueryParam("from") String from,
+											  @Nonnull @QueryParam("to") String to,
+											  @QueryParam("period") @Nullable Enums.Period period,
+											  @QueryParam("type") @Nullable Enums.ExerciseType type);
 
 	/**
 	 * Returns list of user ids sorted in descending order of their rankings
 	 * @param userIds - ids of users to calculate ranks for
+	 * @param limit - optional maximal number of user ids to return, all by default
+	 * @param offset - optional number of best ranked user ids to skip, 0 by default
 	 * @return list of user ids sorted in descending order of their rankings
 	 */
 	@GET
 	@Path("/getRankingExercises")
-	@Produces(MediaType.APPLICATION_JSON)
-	List<Long> getRanking(@Nonnull @QueryParam("id") List<Long> userIds);
+	@Produces({MediaType.APPLICATION_JSON, SmileProvider.APPLICATION_SMILE})
+	List<Long> getRanking(@Nonnull @QueryParam("id") List<Long> userIds,
+						  @QueryParam("limit") @Nullable Integer limit,
+						  @QueryParam("offset") @Nullable Integer offset);
+
+	/**
+	 * Returns users with their ranking points sorted in descending order of their rankings
+	 * @param userIds - ids of users to calculate ranks for
+	 * @param limit - optional maximal number of users to return, all by default
+	 * @param offset - optional number of best ranked users to skip, 0 by default
+	 * @return list of user ids with their points sorted in descending order of their rankings
+	 */
+	@GET
+	@Path("/getRankingScores")
+	@Produces({MediaType.APPLICATION_JSON, SmileProvider.APPLICATION_SMILE})
+	List<RankingScoreDto> getRankingScores(@Nonnull @QueryParam("id") List<Long> userIds,
+										   @QueryParam("limit") @Nullable Integer limit,
+										   @QueryParam("offset") @Nullable Integer offset);
 }
@@ -2,10 +2,24 @@ package de.egym.recruiting.codingtask.rest;
 
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
+import com.google.inject.name.Named;
+import de.egym.recruiting.codingtask.dto.BatchItemResultDto;
+import de.egym.recruiting.codingtask.dto.ExerciseDto;
+import de.egym.recruiting.codingtask.dto.ExercisePageDto;
+import de.egym.recruiting.codingtask.dto.ExerciseTotalsDto;
+import de.egym.recruiting.codingtask.dto.RankingScoreDto;
+import de.egym.recruiting.codingtask.jpa.dao.DayRange;
 import de.egym.recruiting.codingtask.jpa.dao.ExerciseDao;
+import de.egym.recruiting.codingtask.jpa.dao.ExerciseIntervals;
 import de.egym.recruiting.codingtask.jpa.domain.Enums;
 import de.egym.recruiting.codingtask.jpa.domain.Exercise;
 import de.egym.recruiting.codingtask.jpa.domain.IdRank;
+import de.egym.recruiting.codingtask.ranking.ParallelRankingExecutor;
+import de.egym.recruiting.codingtask.ranking.RankingCache;
+import de.egym.recruiting.codingtask.ranking.RankingCalculator;
+import de.egym.recruiting.codingtask.ranking.RankingScoreIndex;
+import de.egym.recruiting.codingtask.ranking.RankingStrategy;
+import de.egym.recruiting.codingtask.ranking.TopRanks;
 import de.egym.recruiting.codingtask.rest.exception.ConflictException;
 import de.egym.recruiting.codingtask.rest.validation.HasNoId;
 import org.slf4j.Logger;
@@ -13,41 +27,70 @@ import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import javax.validation.ConstraintViolation;
 import javax.validation.Valid;
+import javax.validation.Validation;
+import javax.validation.Validator;
 import javax.ws.rs.NotFoundException;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 @Singleton
 public class ExerciseServiceImpl implements ExerciseService {
 
     private static final Logger log = LoggerFactory.getLogger(ExerciseServiceImpl.class);
 
-    private static final Map<Enums.ExerciseType, Integer> typeToMultiplicationFactor = initializeTypeToMultiplicationFactor();
+    private static final long MILLIS_IN_SECOND = 1000L;
 
-    private static Map<Enums.ExerciseType, Integer> initializeTypeToMultiplicationFactor() {
-        ;
-        Map<Enums.ExerciseType, Integer> map = new EnumMap<>(Enums.ExerciseType.class);
-        map.put(Enums.ExerciseType.RUNNING, 2);
-        map.put(Enums.ExerciseType.CYCLING, 2);
-        map.put(Enums.ExerciseType.SWIMMING, 3);
-        map.put(Enums.ExerciseType.ROWING, 2);
-        map.put(Enums.ExerciseType.WALKING, 1);
-        map.put(Enums.ExerciseType.CIRCUIT_TRAINING, 4);
-        map.put(Enums.ExerciseType.STRENGTH_TRAINING, 3);
-        map.put(Enums.ExerciseType.FITNESS_COURSE, 2);
-        map.put(Enums.ExerciseType.SPORTS, 3);
-        map.put(Enums.ExerciseType.OTHER, 1);
-        return Collections.unmodifiableMap(map);
-    }
+    /**
+     * Same characters as allowed in the description of an exercise, with at least one word.
+     */
+    private static final Pattern SEARCH_QUERY_PATTERN = Pattern.compile("[a-zA-Z0-9 ]*[a-zA-Z0-9][a-zA-Z0-9 ]*");
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    /**
+     * Number of locks the users are spread over, see {@link #writeLocked}.
+     */
+    private static final int USER_LOCK_STRIPES = 64;
+
+    private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
 
     private final ExerciseDao exerciseDao;
 
+    private final RankingScoreIndex rankingScoreIndex;
+
+    private final RankingCache rankingCache;
+
+    private final RankingStrategy rankingStrategy;
+
+    private final ParallelRankingExecutor parallelRankingExecutor;
+
+    private final Lock[] userLocks = new Lock[USER_LOCK_STRIPES];
+
     @Inject
-    ExerciseServiceImpl(final ExerciseDao exerciseDao) {
+    ExerciseServiceImpl(final ExerciseDao exerciseDao, final RankingScoreIndex rankingScoreIndex,
+                        final RankingCache rankingCache,
+                        @Named("ranking.strategy") final RankingStrategy rankingStrategy,
+                        final ParallelRankingExecutor parallelRankingExecutor) {
         this.exerciseDao = exerciseDao;
+        this.rankingScoreIndex = rankingScoreIndex;
+        this.rankingCache = rankingCache;
+        this.rankingStrategy = rankingStrategy;
+        this.parallelRankingExecutor = parallelRankingExecutor;
+        for (int stripe = 0; stripe < USER_LOCK_STRIPES; stripe++) {
+            userLocks[stripe] = new ReentrantLock();
+        }
     }
 
     @Nonnull
@@ -55,41 +98,193 @@ public class ExerciseServiceImpl implements ExerciseService {
     public Exercise getExerciseById(@Nonnull final Long exerciseId) {
         log.debug("Get exercise by id.");
 
-        final Exercise exercise = exerciseDao.findById(exerciseId);
+        return found(exerciseId, exerciseDao.findDetachedById(exerciseId));
+    }
+
+    /**
+     * Looks the exercise up in the read-write transaction of a write, which merges into it
+     */
+    private Exercise findForWrite(Long exerciseId) {
+        return found(exerciseId, exerciseDao.findById(exerciseId));
+    }
+
+    private static Exercise found(Long exerciseId, Exercise exercise) {
         if (exercise == null) {
             throw new NotFoundException("Exercise with id = " + exerciseId + " could not be found.");
         }
-
         return exercise;
     }
 
     @Nonnull
     @Override
-    public List<Exercise> getExerciseByDescription(@Nonnull final String description) {
+    public List<ExerciseDto> getExerciseByDescription(@Nonnull final String description) {
         log.debug("Get exercise by description.");
 
         return exerciseDao.findByDescription(description);
     }
 
+    @Nonnull
+    @Override
+    public StreamingOutput streamExerciseByDescription(@Nonnull final String description) {
+        log.debug("Stream exercises by description.");
+
+        return new ExerciseJsonStream(consumer -> exerciseDao.scrollByDescription(description, consumer));
+    }
+
+    @Nonnull
+    @Override
+    public ExercisePageDto searchExercises(@Nonnull String query, @Nullable Integer pageSize, @Nullable String after) {
+        log.debug("Search exercises by description words.");
+        if (query == null || !SEARCH_QUERY_PATTERN.matcher(query).matches()) {
+            throw new IllegalArgumentException("query should consist of alphanumeric and space characters");
+        }
+        int size = pageSize(pageSize);
+        long beforeId = Long.MAX_VALUE;
+        if (after != null) {
+            try {
+                beforeId = Long.parseLong(after);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("after should be the nextCursor of the previous page");
+            }
+        }
+        return exerciseDao.searchByDescription(query, beforeId, size);
+    }
+
     @Nonnull
     @Override
     public Exercise create(@Nonnull @Valid @HasNoId Exercise exercise) {
         log.debug("Creating new exercise");
         List<Long> conflictExerciseIds = exerciseDao.findConflictExerciseIds(exercise);
         if (conflictExerciseIds.isEmpty()) {
-            return exerciseDao.create(exercise);
+            Exercise createdExercise = writeLocked(Collections.singleton(exercise.getUserId()), () -> {
+                Exercise created = exerciseDao.create(exercise);
+                rankingScoreIndex.put(created);
+                return created;
+            });
+            rankingCache.invalidate(createdExercise.getUserId());
+            return createdExercise;
         } else {
             throw new ConflictException("Time conflict with other user exercises with ids " + conflictExerciseIds);
         }
 
     }
 
+    @Nonnull
+    @Override
+    public List<BatchItemResultDto> createAll(@Nonnull List<Exercise> exercises) {
+        log.debug("Creating a batch of " + exercises.size() + " exercises");
+        BatchItemResultDto[] results = new BatchItemResultDto[exercises.size()];
+        Map<Long, List<Integer>> userIdToIndexes = new HashMap<>();
+        for (int index = 0; index < exercises.size(); index++) {
+            String error = validate(exercises.get(index));
+            if (error == null) {
+                userIdToIndexes.computeIfAbsent(exercises.get(index).getUserId(), userId -> new ArrayList<>()).add(index);
+            } else {
+                results[index] = BatchItemResultDto.invalid(index, error);
+            }
+        }
+
+        // exercises of the batch take part in the conflict check with the id -(index + 1) until they are created
+        Map<Integer, List<Long>> indexToConflictIds = new HashMap<>();
+        List<Integer> indexesToCreate = new ArrayList<>();
+        for (Map.Entry<Long, List<Integer>> userIndexes : userIdToIndexes.entrySet()) {
+            List<Integer> indexes = userIndexes.getValue();
+            indexes.sort(Comparator.comparing(index -> exercises.get(index).getStartTime()));
+            ExerciseIntervals intervals = loadIntervals(userIndexes.getKey(), indexes.stream().map(exercises::get)
+                    .collect(Collectors.toList()));
+            for (Integer index : indexes) {
+                Exercise exercise = exercises.get(index);
+                long startTime = exercise.getStartTime().toEpochMilli();
+                long tillTime = endTime(exercise);
+                List<Long> conflictIds = intervals.findOverlapping(startTime, tillTime);
+                if (conflictIds.isEmpty()) {
+                    intervals.put(-(index + 1), startTime, tillTime);
+                    indexesToCreate.add(index);
+                } else {
+                    indexToConflictIds.put(index, conflictIds);
+                }
+            }
+        }
+
+        Collections.sort(indexesToCreate);
+        List<Exercise> createdExercises = writeLocked(userIdToIndexes.keySet(), () -> {
+            List<Exercise> created = exerciseDao.createAll(indexesToCreate.stream().map(exercises::get)
+                    .collect(Collectors.toList()));
+            created.forEach(rankingScoreIndex::put);
+            return created;
+        });
+        for (int i = 0; i < createdExercises.size(); i++) {
+            Exercise createdExercise = createdExercises.get(i);
+            rankingCache.invalidate(createdExercise.getUserId());
+            results[indexesToCreate.get(i)] = BatchItemResultDto.created(indexesToCreate.get(i), createdExercise.getId());
+        }
+        indexToConflictIds.forEach((index, conflictIds) -> results[index] = BatchItemResultDto.conflict(index,
+                conflictIds.stream().map(id -> id < 0 ? results[(int) -id - 1].getId() : id).collect(Collectors.toList())));
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Runs an exercise write of the users together with the update of the {@link RankingScoreIndex}, holding the
+     * locks of the users. The DAO commits before the index is updated, without the locks two writes of the same
+     * exercise could reach the index in the opposite order of their commits. The locks are taken in stripe order,
+     * so batches of overlapping users do not deadlock.
+     */
+    private <T> T writeLocked(Collection<Long> userIds, Supplier<T> write) {
+        int[] stripes = userIds.stream().mapToInt(userId -> (userId.hashCode() & Integer.MAX_VALUE) % USER_LOCK_STRIPES)
+                .distinct().sorted().toArray();
+        for (int stripe : stripes) {
+            userLocks[stripe].lock();
+        }
+        try {
+            return write.get();
+        } finally {
+            for (int i = stripes.length - 1; i >= 0; i--) {
+                userLocks[stripes[i]].unlock();
+            }
+        }
+    }
+
+    /**
+     * @return the stored exercises of the user overlapping the time range of the given exercises
+     */
+    private ExerciseIntervals loadIntervals(Long userId, List<Exercise> exercises) {
+        Instant startTime = exercises.get(0).getStartTime();
+        long tillTime = exercises.stream().mapToLong(ExerciseServiceImpl::endTime).max().getAsLong();
+        ExerciseIntervals intervals = new ExerciseIntervals();
+        for (Exercise exercise : exerciseDao.findExercisesOverlapping(userId, startTime, Instant.ofEpochMilli(tillTime))) {
+            intervals.put(exercise.getId(), exercise.getStartTime().toEpochMilli(), endTime(exercise));
+        }
+        return intervals;
+    }
+
+    private static long endTime(Exercise exercise) {
+        return exercise.getStartTime().toEpochMilli() + exercise.getDuration() * MILLIS_IN_SECOND;
+    }
+
+    /**
+     * @return the constraint violations of the exercise to create, null if it is valid
+     */
+    private String validate(Exercise exercise) {
+        if (exercise == null) {
+            return "exercise is missing";
+        }
+        if (exercise.getId() != null) {
+            return "id should not be set";
+        }
+        Set<ConstraintViolation<Exercise>> violations = validator.validate(exercise);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream().map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .sorted().collect(Collectors.joining(", "));
+    }
+
     @Nonnull
     @Override
     public Exercise update(@Nonnull Long exerciseId, @Nonnull @Valid @HasNoId Exercise exercise) {
         log.debug("Updating exercise by id.");
         exercise.setId(exerciseId);
-        Exercise exerciseById = getExerciseById(exerciseId);
+        Exercise exerciseById = findForWrite(exerciseId);
         if (!exercise.getUserId().equals(exerciseById.getUserId())) {
             throw new IllegalStateException("Exercise userId can not be changed from "
                     + exerciseById.getUserId() + " to " + exercise.getUserId());
@@ -102,7 +297,13 @@ public class ExerciseServiceImpl implements ExerciseService {
         if (conflictExerciseIds.size() > 1 || conflictExerciseIds.size() == 1 && !conflictExerciseIds.contains(exerciseId)) {
             throw new ConflictException("Time conflict with other user exercises with ids " + conflictExerciseIds);
         }
-        return exerciseDao.update(exercise);
+        Exercise updatedExercise = writeLocked(Collections.singleton(exercise.getUserId()), () -> {
+            Exercise updated = exerciseDao.update(exercise);
+            rankingScoreIndex.put(updated);
+            return updated;
+        });
+        rankingCache.invalidate(updatedExercise.getUserId());
+        return updatedExercise;
     }
 
     @Nonnull
@@ -110,7 +311,13 @@ public class ExerciseServiceImpl implements ExerciseService {
     public Response deleteExerciseById(@Nonnull final Long exerciseId) {
         log.debug("Deleting exercise by id.");
         try {
-            exerciseDao.deleteById(exerciseId);
+            Long userId = findForWrite(exerciseId).getUserId();
+            writeLocked(Collections.singleton(userId), () -> {
+                exerciseDao.deleteById(exerciseId);
+                rankingScoreIndex.remove(exerciseId);
+                return null;
+            });
+            rankingCache.invalidate(userId);
             return Response.ok().build();
         } catch (IllegalArgumentException e) {
             throw new NotFoundException("Exercise with id = " + exerciseId + " could not be found.");
@@ -119,59 +326,153 @@ public class ExerciseServiceImpl implements ExerciseService {
 
     @Nonnull
     @Override
-    public List<Exercise> getExercises(@Nonnull Long userId, @Nullable Enums.ExerciseType type, @Nullable String date) {
-        log.debug("Getting exercises by userId and optional type and date");
-        return exerciseDao.findExercises(userId, type, date);
+    public List<ExerciseDto> getExercises(@Nonnull Long userId, @Nullable Enums.ExerciseType type, @Nullable String date,
+                                          @Nullable String from, @Nullable String to) {
+        log.debug("Getting exercises by userId and optional type and days");
+        return exerciseDao.findExercises(userId, type, DayRange.of(date, from, to));
     }
 
     @Nonnull
     @Override
-    public List<Long> getRanking(@Nonnull List<Long> userIds) {
-        log.debug("Calculating ranking for the userIds");
-        List<Exercise> exercisesToRank = exerciseDao.getRankingExercises(userIds);
+    public ExercisePageDto getExercisePage(@Nonnull Long userId, @Nullable Enums.ExerciseType type, @Nullable String date,
+                                           @Nullable String from, @Nullable String to, @Nullable Integer pageSize,
+                                           @Nullable String after, @Nullable Enums.SortOrder order) {
+        log.debug("Getting a page of exercises by userId and optional type and days");
+        int size = pageSize(pageSize);
+        ExerciseCursor cursor = after == null ? null : ExerciseCursor.decode(after);
+        // one more than requested tells whether there is a next page
+        List<ExerciseDto> exercises = exerciseDao.findExercisePage(userId, type, DayRange.of(date, from, to),
+                order == null ? Enums.SortOrder.NEWEST_FIRST : order,
+                cursor == null ? null : cursor.startTime, cursor == null ? null : cursor.id, size + 1);
+        if (exercises.size() <= size) {
+            return new ExercisePageDto(exercises, null);
+        }
+        List<ExerciseDto> page = exercises.subList(0, size);
+        return new ExercisePageDto(new ArrayList<>(page), ExerciseCursor.encode(page.get(size - 1)));
+    }
 
-        Map<Long, List<Exercise>> userIdExercises = exercisesToRank.stream().collect(Collectors.groupingBy(Exercise::getUserId));
-        PriorityQueue<IdRank> idRanks = new PriorityQueue<>();
+    private static int pageSize(Integer pageSize) {
+        int size = pageSize == null ? DEFAULT_PAGE_SIZE : pageSize;
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("pageSize should be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return size;
+    }
 
+    @Nonnull
+    @Override
+    public StreamingOutput streamExercises(@Nonnull Long userId, @Nullable Enums.ExerciseType type, @Nullable String date,
+                                           @Nullable String from, @Nullable String to) {
+        log.debug("Streaming exercises by userId and optional type and days");
+        DayRange days = DayRange.of(date, from, to);
+        return new ExerciseJsonStream(consumer -> exerciseDao.scrollExercises(userId, type, days, consumer));
+    }
+
+    @Nonnull
+    @Override
+    public List<ExerciseTotalsDto> getExerciseTotals(@Nonnull Long userId, @Nonnull String from, @Nonnull String to,
+                                                     @Nullable Enums.Period period, @Nullable Enums.ExerciseType type) {
+        log.debug("Summing up exercises by userId, days and optional type");
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("from and to are required");
+        }
+        return exerciseDao.getExerciseTotals(userId, type, DayRange.of(null, from, to),
+                period == null ? Enums.Period.DAY : period);
+    }
+
+    @Nonnull
+    @Override
+    public List<Long> getRanking(@Nonnull List<Long> userIds, @Nullable Integer limit, @Nullable Integer offset) {
+        return getTopRanks(userIds, limit, offset).stream().map(idRank -> idRank.id).collect(Collectors.toList());
+    }
+
+    @Nonnull
+    @Override
+    public List<RankingScoreDto> getRankingScores(@Nonnull List<Long> userIds, @Nullable Integer limit, @Nullable Integer offset) {
+        return getTopRanks(userIds, limit, offset).stream()
+                .map(idRank -> new RankingScoreDto(idRank.id, idRank.rank)).collect(Collectors.toList());
+    }
+
+    private List<IdRank> getTopRanks(List<Long> userIds, Integer limit, Integer offset) {
+        log.debug("Ranking the userIds by " + rankingStrategy + " scores");
+        if (limit != null && limit < 0) {
+            throw new IllegalArgumentException("limit should not be negative");
+        }
+        if (offset != null && offset < 0) {
+            throw new IllegalArgumentException("offset should not be negative");
+        }
+        int skipped = offset == null ? 0 : offset;
+        if (rankingCache.isEnabled()) {
+            List<IdRank> idRanks = rankingCache.get(userIds, this::rank);
+            int from = Math.min(skipped, idRanks.size());
+            int to = limit == null ? idRanks.size() : (int) Math.min(idRanks.size(), (long) from + limit);
+            return idRanks.subList(from, to);
+        }
+        ToLongFunction<Long> scores = getScores(userIds, System.currentTimeMillis());
+        TopRanks topRanks = TopRanks.forPage(skipped, limit);
         for (Long userId : userIds) {
-            long sum = 0;
-            for (Enums.ExerciseType type : Enums.ExerciseType.values()) {
-                List<Exercise> exerciseByUserSpecificType = userIdExercises.get(userId).stream()
-                        .filter(exercise -> type.equals(exercise.getType())).limit(10).collect(Collectors.toList());
-                int percent = 100;
-                for (Exercise exercise : exerciseByUserSpecificType) {
-                    sum += percent * typeToMultiplicationFactor.get(type) * (exercise.getDuration() / 60
-                            + exercise.getCalories()) / 100;
-                    percent -= 10;
-                }
+            topRanks.add(new IdRank(userId, scores.applyAsLong(userId)));
+        }
+        return topRanks.toList(skipped);
+    }
+
+    /**
+     * Ranks all given users for the {@link RankingCache}. Only the precomputed scores know when they change by
+     * the moving ranking period, the other strategies rely on the time to live of the cache.
+     */
+    private RankingCache.Ranking rank(List<Long> userIds) {
+        long now = System.currentTimeMillis();
+        ToLongFunction<Long> scores = getScores(userIds, now);
+        TopRanks topRanks = new TopRanks(Integer.MAX_VALUE);
+        long validUntil = Long.MAX_VALUE;
+        for (Long userId : userIds) {
+            topRanks.add(new IdRank(userId, scores.applyAsLong(userId)));
+            if (rankingStrategy == RankingStrategy.PRECOMPUTED) {
+                validUntil = Math.min(validUntil, rankingScoreIndex.getValidUntil(userId, now));
             }
-            idRanks.add(new IdRank(userId, sum));
         }
-        return Stream.generate(idRanks::poll).limit(idRanks.size()).map(idRank -> idRank.id).collect(Collectors.toList());
+        return new RankingCache.Ranking(topRanks.toList(0), validUntil);
+    }
+
+    private ToLongFunction<Long> getScores(List<Long> userIds, long now) {
+        switch (rankingStrategy) {
+            case CALCULATED:
+                return parallelRankingExecutor.scores(userIds, exerciseDao.getRankingExercises(userIds));
+            case SQL:
+                Map<Long, Long> userIdToScore = new HashMap<>();
+                exerciseDao.getRankingScores(userIds).forEach(idRank -> userIdToScore.put(idRank.id, idRank.rank));
+                return userId -> userIdToScore.getOrDefault(userId, 0L);
+            default:
+                return userId -> rankingScoreIndex.getScore(userId, now);
+        }
     }
 
+    /**
+     * Calculates the ranking from the stored exercises, bypassing the precomputed scores
+     * @param userIds - ids of users to calculate ranks for
+     * @return list of user ids sorted in descending order of their rankings
+     */
     @Nonnull
-    public List<Long> getRankingWithStreamingApi(@Nonnull List<Long> userIds) {
+    public List<Long> calculateRanking(@Nonnull List<Long> userIds) {
         log.debug("Calculating ranking for the userIds");
-        List<Exercise> exercisesToRank = exerciseDao.getRankingExercises(userIds);
-
-        return userIds.stream().parallel().map(userId -> {
-                    long sumByUserId = Arrays.stream(Enums.ExerciseType.values()).parallel()
-                            .mapToLong(type -> {
-                                 List<Exercise> exerciseByUserAndSpecificType = exercisesToRank.stream()
-                                    .filter(exercise -> exercise.getUserId().equals(userId))
-                                    .filter(exercise -> exercise.getType().equals(type)).limit(10).collect(Collectors.toList());
-                                 int percent = 100;
-                                 long sumPerUserAndType = 0L;
-                                 for (Exercise exercise : exerciseByUserAndSpecificType) {
-                                     sumPerUserAndType += percent * typeToMultiplicationFactor.get(type)
-                                             * (exercise.getDuration() / 60 + exercise.getCalories()) / 100;
-                                     percent -= 10;
-                                 }
-                        return sumPerUserAndType;
-                    }).sum();
-                    return new IdRank(userId, sumByUserId);
-                }
-            ).sorted().map(idRank -> idRank.id).collect(Collectors.toList());
+        List<ExerciseDto> exercisesToRank = exerciseDao.getRankingExercises(userIds);
+
+        return new RankingCalculator(userIds).addAll(exercisesToRank).getIdRanks(userIds).stream()
+                .map(idRank -> idRank.id).collect(Collectors.toList());
+    }
+
+    /**
+     * Calculates the ranking from the stored exercises like {@link #calculateRanking}, on the workers of the
+     * {@link ParallelRankingExecutor} for large user sets
+     * @param userIds - ids of users to calculate ranks for
+     * @return list of user ids sorted in descending order of their rankings
+     */
+    @Nonnull
+    public List<Long> getRankingWithStreamingApi(@Nonnull List<Long> userIds) {
+        log.debug("Calculating ranking for the userIds in parallel");
+        List<ExerciseDto> exercisesToRank = exerciseDao.getRankingExercises(userIds);
+
+        return parallelRankingExecutor.rank(userIds, exercisesToRank).stream()
+                .map(idRank -> idRank.id).collect(Collectors.toList());
     }
 }
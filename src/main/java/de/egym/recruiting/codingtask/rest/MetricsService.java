@@ -0,0 +1,49 @@
+package de.egym.recruiting.codingtask.rest;
+
+import de.egym.recruiting.codingtask.dto.CacheStatisticsDto;
+import de.egym.recruiting.codingtask.dto.PersistenceStatisticsDto;
+import de.egym.recruiting.codingtask.dto.PoolStatisticsDto;
+import io.swagger.annotations.Api;
+
+import javax.annotation.Nonnull;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import java.util.List;
+
+@Path("/api/v1/metrics")
+@Api(value = "Metrics Service")
+public interface MetricsService {
+
+	/**
+	 * Returns the statistics of the Hibernate second-level and query cache regions, a query cache region is listed
+	 * once its first query ran.
+	 * @return hit, miss, put, eviction and expiry counts and the current size of every region, sorted by region name
+	 */
+	@GET
+	@Path("/cache")
+	@Nonnull
+	@Produces(MediaType.APPLICATION_JSON)
+	List<CacheStatisticsDto> getCacheStatistics();
+
+	/**
+	 * Returns how many requests needed an entity manager and how many transactions ran read-only.
+	 * @return request and transaction counts
+	 */
+	@GET
+	@Path("/persistence")
+	@Nonnull
+	@Produces(MediaType.APPLICATION_JSON)
+	PersistenceStatisticsDto getPersistenceStatistics();
+
+	/**
+	 * Returns the usage of the JDBC connection pool.
+	 * @return active and idle connections, waiting threads, acquisition wait times and timeouts
+	 */
+	@GET
+	@Path("/pool")
+	@Nonnull
+	@Produces(MediaType.APPLICATION_JSON)
+	PoolStatisticsDto getPoolStatistics();
+}
@@ -0,0 +1,83 @@
+package de.egym.recruiting.codingtask.rest;
+
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import com.google.inject.Singleton;
+import de.egym.recruiting.codingtask.dto.CacheStatisticsDto;
+import de.egym.recruiting.codingtask.dto.PersistenceStatisticsDto;
+import de.egym.recruiting.codingtask.dto.PoolStatisticsDto;
+import de.egym.recruiting.codingtask.jpa.PooledConnectionProvider;
+import de.egym.recruiting.codingtask.jpa.UnitOfWorkScope;
+import net.sf.ehcache.statistics.StatisticsGateway;
+import org.hibernate.cache.ehcache.internal.regions.EhcacheDataRegion;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+@Singleton
+public class MetricsServiceImpl implements MetricsService {
+
+    private static final Logger log = LoggerFactory.getLogger(MetricsServiceImpl.class);
+
+    private final Provider<EntityManagerFactory> entityManagerFactoryProvider;
+
+    private final UnitOfWorkScope unitOfWorkScope;
+
+    @Inject
+    MetricsServiceImpl(final Provider<EntityManagerFactory> entityManagerFactoryProvider,
+                       final UnitOfWorkScope unitOfWorkScope) {
+        this.entityManagerFactoryProvider = entityManagerFactoryProvider;
+        this.unitOfWorkScope = unitOfWorkScope;
+    }
+
+    @Nonnull
+    @Override
+    public List<CacheStatisticsDto> getCacheStatistics() {
+        log.debug("Get cache statistics.");
+
+        final SessionFactoryImplementor sessionFactory = entityManagerFactoryProvider.get()
+                .unwrap(SessionFactoryImplementor.class);
+        final List<CacheStatisticsDto> statistics = new ArrayList<>();
+        // raw map of the region names to the regions
+        for (Object value : sessionFactory.getAllSecondLevelCacheRegions().values()) {
+            if (value instanceof EhcacheDataRegion) {
+                final EhcacheDataRegion region = (EhcacheDataRegion) value;
+                final StatisticsGateway regionStatistics = region.getEhcache().getStatistics();
+                statistics.add(new CacheStatisticsDto(region.getName(), region.getElementCountInMemory(),
+                        regionStatistics.cacheHitCount(), regionStatistics.cacheMissCount(),
+                        regionStatistics.cachePutCount(), regionStatistics.cacheEvictedCount(),
+                        regionStatistics.cacheExpiredCount()));
+            }
+        }
+        statistics.sort(Comparator.comparing(CacheStatisticsDto::getRegion));
+        return statistics;
+    }
+
+    @Nonnull
+    @Override
+    public PersistenceStatisticsDto getPersistenceStatistics() {
+        log.debug("Get persistence statistics.");
+
+        return unitOfWorkScope.getStatistics();
+    }
+
+    @Nonnull
+    @Override
+    public PoolStatisticsDto getPoolStatistics() {
+        log.debug("Get connection pool statistics.");
+
+        final ConnectionProvider connectionProvider = entityManagerFactoryProvider.get()
+                .unwrap(SessionFactoryImplementor.class).getServiceRegistry().getService(ConnectionProvider.class);
+        if (!connectionProvider.isUnwrappableAs(PooledConnectionProvider.class)) {
+            throw new IllegalStateException("The persistence unit does not use the connection pool");
+        }
+        return connectionProvider.unwrap(PooledConnectionProvider.class).getStatistics();
+    }
+}
@@ -0,0 +1,47 @@
+package de.egym.recruiting.codingtask.rest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.List;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyReader;
+import javax.ws.rs.ext.Provider;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.google.inject.Singleton;
+
+/**
+ * Reads newline delimited JSON (one object per line) into a list, so that bulk clients can stream their rows
+ * without wrapping them into a JSON array.
+ */
+@Provider
+@Singleton
+@Consumes(NdjsonReader.APPLICATION_NDJSON)
+public class NdjsonReader implements MessageBodyReader<List<?>> {
+
+	public static final String APPLICATION_NDJSON = "application/x-ndjson";
+
+	@Override
+	public boolean isReadable(final Class<?> type, final Type genericType, final Annotation[] annotations, final MediaType mediaType) {
+		return List.class.isAssignableFrom(type) && genericType instanceof ParameterizedType;
+	}
+
+	@Override
+	public List<?> readFrom(final Class<List<?>> type, final Type genericType, final Annotation[] annotations, final MediaType mediaType,
+			final MultivaluedMap<String, String> httpHeaders, final InputStream entityStream) throws IOException {
+		final Type elementType = ((ParameterizedType) genericType).getActualTypeArguments()[0];
+		final ObjectReader reader = ObjectMapperProvider.readerFor(ObjectMapperProvider.objectMapper().constructType(elementType));
+		try {
+			return reader.readValues(entityStream).readAll();
+		} catch (JsonProcessingException e) {
+			throw new IllegalArgumentException("Every line should be a JSON object. " + e.getOriginalMessage());
+		}
+	}
+}
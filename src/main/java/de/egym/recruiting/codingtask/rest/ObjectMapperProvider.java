@@ -1,34 +1,143 @@
 package de.egym.recruiting.codingtask.rest;
 
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import javax.ws.rs.ext.ContextResolver;
 import javax.ws.rs.ext.Provider;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.google.inject.Singleton;
 
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
-
-
+/**
+ * Provides the one ObjectMapper of the application, so that Jackson builds its serializers once per type,
+ * and its binary Smile counterpart used by {@link SmileProvider}.
+ * Instants are written and read as {@value #DATE_TIME_PATTERN} in UTC through a thread safe java.time formatter.
+ * The output is compact, {@link PrettyPrintFilter} indents it on request.
+ */
 @Provider
 @Singleton
 public class ObjectMapperProvider implements ContextResolver<ObjectMapper> {
 
+	public static final String DATE_TIME_PATTERN = "yyyy-MM-dd'T'HH:mm:ss";
+
+	private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern(DATE_TIME_PATTERN)
+			.withZone(ZoneOffset.UTC);
+
+	private static final ObjectMapper OBJECT_MAPPER = newObjectMapper();
+
+	private static final ObjectMapper SMILE_MAPPER = newObjectMapper(new SmileFactory());
+
+	private static final Map<JavaType, ObjectReader> READERS = new ConcurrentHashMap<>();
+
+	private static final Map<JavaType, ObjectWriter> WRITERS = new ConcurrentHashMap<>();
+
+	/**
+	 * @return a new mapper with the application configuration, use {@link #objectMapper()} unless the configuration
+	 *         has to be changed
+	 */
 	static ObjectMapper newObjectMapper() {
-		final ObjectMapper result = new ObjectMapper();
+		return newObjectMapper(new JsonFactory());
+	}
+
+	private static ObjectMapper newObjectMapper(final JsonFactory factory) {
+		final ObjectMapper result = new ObjectMapper(factory);
 		result.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-		result.configure(SerializationFeature.INDENT_OUTPUT, true);
 		result.setSerializationInclusion(JsonInclude.Include.NON_NULL);
-		DateFormat df = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss");
-		result.setDateFormat(df);
+		final SimpleModule dateModule = new SimpleModule("DateTimeModule");
+		dateModule.addSerializer(Instant.class, new InstantSerializer());
+		dateModule.addDeserializer(Instant.class, new InstantDeserializer());
+		result.registerModule(dateModule);
 		return result;
 	}
 
+	/**
+	 * @return the shared mapper, must not be reconfigured
+	 */
+	public static ObjectMapper objectMapper() {
+		return OBJECT_MAPPER;
+	}
+
+	/**
+	 * @return the shared mapper for the binary Smile format, configured like {@link #objectMapper()}
+	 */
+	public static ObjectMapper smileMapper() {
+		return SMILE_MAPPER;
+	}
+
+	/**
+	 * @return the cached reader of the type
+	 */
+	public static ObjectReader readerFor(final JavaType type) {
+		return READERS.computeIfAbsent(type, OBJECT_MAPPER::reader);
+	}
+
+	/**
+	 * @return the cached writer of the type
+	 */
+	public static ObjectWriter writerFor(final JavaType type) {
+		return WRITERS.computeIfAbsent(type, OBJECT_MAPPER::writerFor);
+	}
+
+	/**
+	 * @return the cached writer of the class
+	 */
+	public static ObjectWriter writerFor(final Class<?> clazz) {
+		return writerFor(OBJECT_MAPPER.constructType(clazz));
+	}
+
 	@Override
 	public ObjectMapper getContext(Class<?> type) {
-		return newObjectMapper();
+		return OBJECT_MAPPER;
+	}
+
+	private static final class InstantSerializer extends JsonSerializer<Instant> {
+
+		@Override
+		public void serialize(final Instant value, final JsonGenerator generator, final SerializerProvider provider) throws IOException {
+			generator.writeString(DATE_TIME_FORMATTER.format(value));
+		}
+	}
+
+	private static final class InstantDeserializer extends JsonDeserializer<Instant> {
+
+		@Override
+		public Instant deserialize(final JsonParser parser, final DeserializationContext context) throws IOException {
+			if (parser.getCurrentToken() == JsonToken.VALUE_NUMBER_INT) {
+				// epoch millis, as java.util.Date was read by default
+				return Instant.ofEpochMilli(parser.getLongValue());
+			}
+			final String text = parser.getText().trim();
+			if (text.isEmpty()) {
+				return null;
+			}
+			try {
+				return LocalDateTime.parse(text, DATE_TIME_FORMATTER).toInstant(ZoneOffset.UTC);
+			} catch (DateTimeParseException e) {
+				throw context.weirdStringException(text, Instant.class, "expected format " + DATE_TIME_PATTERN);
+			}
+		}
 	}
 }
@@ -0,0 +1,62 @@
+package de.egym.recruiting.codingtask.rest;
+
+import java.io.IOException;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.Provider;
+import javax.ws.rs.ext.WriterInterceptor;
+import javax.ws.rs.ext.WriterInterceptorContext;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.jaxrs.cfg.EndpointConfigBase;
+import com.fasterxml.jackson.jaxrs.cfg.ObjectWriterInjector;
+import com.fasterxml.jackson.jaxrs.cfg.ObjectWriterModifier;
+import com.google.inject.Singleton;
+
+/**
+ * Indents the JSON response when the request has the query parameter {@code pretty=true},
+ * responses are compact otherwise.
+ */
+@Provider
+@Singleton
+public class PrettyPrintFilter implements ContainerRequestFilter, WriterInterceptor {
+
+	static final String PRETTY_PARAMETER = "pretty";
+
+	private static final String PRETTY_PROPERTY = PrettyPrintFilter.class.getName() + ".pretty";
+
+	private static final ObjectWriterModifier INDENT = new ObjectWriterModifier() {
+		@Override
+		public ObjectWriter modify(final EndpointConfigBase<?> endpoint, final MultivaluedMap<String, Object> responseHeaders,
+				final Object valueToWrite, final ObjectWriter writer, final JsonGenerator generator) {
+			return writer.with(SerializationFeature.INDENT_OUTPUT);
+		}
+	};
+
+	@Override
+	public void filter(final ContainerRequestContext requestContext) throws IOException {
+		if (Boolean.parseBoolean(requestContext.getUriInfo().getQueryParameters().getFirst(PRETTY_PARAMETER))) {
+			requestContext.setProperty(PRETTY_PROPERTY, Boolean.TRUE);
+		}
+	}
+
+	@Override
+	public void aroundWriteTo(final WriterInterceptorContext context) throws IOException, WebApplicationException {
+		if (context.getProperty(PRETTY_PROPERTY) == null) {
+			context.proceed();
+			return;
+		}
+		// the injector is thread local, clear it in case the entity is not written by Jackson
+		ObjectWriterInjector.set(INDENT);
+		try {
+			context.proceed();
+		} finally {
+			ObjectWriterInjector.getAndClear();
+		}
+	}
+}
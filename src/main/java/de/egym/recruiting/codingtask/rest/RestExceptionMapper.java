@@ -13,7 +13,7 @@ import de.egym.recruiting.codingtask.rest.exception.ConflictException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import de.egym.recruiting.codingtask.dto.ErrorDto;
 
 /**
@@ -26,11 +26,7 @@ public class RestExceptionMapper implements ExceptionMapper<Exception> {
 
 	private static final Logger log = LoggerFactory.getLogger(RestExceptionMapper.class);
 
-	private final ObjectMapper objectMapper;
-
-	public RestExceptionMapper() {
-		objectMapper = ObjectMapperProvider.newObjectMapper();
-	}
+	private final ObjectWriter errorWriter = ObjectMapperProvider.writerFor(ErrorDto.class);
 
 	@Override
 	public Response toResponse(final Exception ex) {
@@ -75,7 +71,7 @@ public class RestExceptionMapper implements ExceptionMapper<Exception> {
 	private String toJson(final ErrorDto errorDto) {
 		String errorJson = null;
 		try {
-			errorJson = objectMapper.writeValueAsString(errorDto);
+			errorJson = errorWriter.writeValueAsString(errorDto);
 		} catch (final Exception e) {
 			log.error("Could not create error JSON.", e);
 		}
@@ -2,12 +2,20 @@ package de.egym.recruiting.codingtask.rest;
 
 import com.google.inject.AbstractModule;
 
+import de.egym.recruiting.codingtask.ranking.RankingScoreIndex;
+
 public class RestServiceModule extends AbstractModule {
 
 	@Override
 	protected void configure() {
 		bind(ExerciseService.class).to(ExerciseServiceImpl.class);
+		// loaded at startup like the indexes of the JpaModule, installed before this module
+		bind(RankingScoreIndex.class).asEagerSingleton();
+		bind(MetricsService.class).to(MetricsServiceImpl.class);
 		bind(ObjectMapperProvider.class);
+		bind(NdjsonReader.class);
+		bind(SmileProvider.class);
+		bind(PrettyPrintFilter.class);
 		bind(ValidationExceptionMapper.class);
 		bind(RestExceptionMapper.class);
 	}
@@ -0,0 +1,26 @@
+package de.egym.recruiting.codingtask.rest;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.Produces;
+import javax.ws.rs.ext.Provider;
+
+import com.fasterxml.jackson.jaxrs.smile.JacksonSmileProvider;
+import com.google.inject.Singleton;
+
+/**
+ * Reads and writes the entities in the binary Smile format when the client asks for it through the Accept or
+ * Content-Type header. Uses the same mapping and date format as JSON, only the encoding differs;
+ * Smile bodies are smaller and cheaper to parse for clients pulling large exercise histories and rankings.
+ */
+@Provider
+@Singleton
+@Consumes(SmileProvider.APPLICATION_SMILE)
+@Produces(SmileProvider.APPLICATION_SMILE)
+public class SmileProvider extends JacksonSmileProvider {
+
+	public static final String APPLICATION_SMILE = "application/x-jackson-smile";
+
+	public SmileProvider() {
+		super(ObjectMapperProvider.smileMapper());
+	}
+}
@@ -4,7 +4,8 @@ import static org.hamcrest.Matchers.*;
 import static org.junit.Assert.*;
 
 import java.text.ParseException;
-import java.util.Date;
+import java.time.Instant;
+import java.util.Properties;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -17,11 +18,22 @@ import org.slf4j.LoggerFactory;
 import com.google.inject.Guice;
 import com.google.inject.Injector;
 
+import de.egym.recruiting.codingtask.jpa.domain.Enums;
+import de.egym.recruiting.codingtask.jpa.domain.Exercise;
+
 public abstract class AbstractIntegrationTest {
 
 	private static final Logger log = LoggerFactory.getLogger(AbstractIntegrationTest.class);
 
-	protected Injector injector = Guice.createInjector(new RootModule());
+	protected Injector injector = Guice.createInjector(new RootModule(propertyOverrides()));
+
+	/**
+	 * @return configuration entries the test runs with instead of the application.properties ones
+	 */
+	@Nonnull
+	protected Properties propertyOverrides() {
+		return new Properties();
+	}
 
 	@Before
 	public void setupInjector() {
@@ -37,15 +49,49 @@ public abstract class AbstractIntegrationTest {
 	 * @return converted date string
 	 */
 	@Nullable
-	protected Date convertDate(@Nonnull final String dateString) {
+	protected Instant convertDate(@Nonnull final String dateString) {
 		try {
-			return DateUtils.parseDate(dateString, "yyyy-MM-dd'T'HH:mm:ss");
+			return DateUtils.parseDate(dateString, "yyyy-MM-dd'T'HH:mm:ss").toInstant();
 		} catch (ParseException e) {
 			fail("Wrong format." + e.getMessage());
 		}
 		return null;
 	}
 
+	/**
+	 * Creates an exercise to store, described as "Coding Task".
+	 *
+	 * @see #newExercise(long, String, Enums.ExerciseType, int, String)
+	 */
+	@Nonnull
+	protected Exercise newExercise(final long userId, @Nonnull final String startTime, @Nonnull final Enums.ExerciseType type,
+			final int duration) {
+		return newExercise(userId, startTime, type, duration, "Coding Task");
+	}
+
+	/**
+	 * Creates an exercise to store, covering 1000 meters and burning 100 kcal.
+	 *
+	 * @param startTime
+	 *            in the format of {@link #convertDate(String)}
+	 * @param duration
+	 *            in seconds
+	 * @return exercise without id
+	 */
+	@Nonnull
+	protected Exercise newExercise(final long userId, @Nonnull final String startTime, @Nonnull final Enums.ExerciseType type,
+			final int duration, @Nonnull final String description) {
+		final Exercise exercise = new Exercise();
+		exercise.setDescription(description);
+		exercise.setDuration(duration);
+		exercise.setDistance(1000);
+		exercise.setCalories(100);
+		exercise.setStartTime(convertDate(startTime));
+		exercise.setType(type);
+		exercise.setUserId(userId);
+		return exercise;
+	}
+
 	/**
 	 * Asserts to dates.
 	 *
@@ -54,9 +100,9 @@ public abstract class AbstractIntegrationTest {
 	 * @param expected
 	 *            date
 	 */
-	protected void assertDate(@Nullable final Date actual, @Nullable final Date expected) {
-		final Long actualTimestamp = actual != null ? actual.getTime() : null;
-		final Long expectedTimestamp = expected != null ? expected.getTime() : null;
+	protected void assertDate(@Nullable final Instant actual, @Nullable final Instant expected) {
+		final Long actualTimestamp = actual != null ? actual.toEpochMilli() : null;
+		final Long expectedTimestamp = expected != null ? expected.toEpochMilli() : null;
 
 		assertThat("Wrong date.", actualTimestamp, is(expectedTimestamp));
 	}
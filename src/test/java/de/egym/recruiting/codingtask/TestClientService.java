@@ -7,6 +7,7 @@ import javax.annotation.Nullable;
 
 import com.google.inject.Inject;
 
+import de.egym.recruiting.codingtask.dto.ExerciseDto;
 import de.egym.recruiting.codingtask.jpa.domain.Enums;
 import de.egym.recruiting.codingtask.jpa.domain.Exercise;
 import de.egym.recruiting.codingtask.rest.ExerciseService;
@@ -44,7 +45,7 @@ public class TestClientService {
 	 *             if there is an error please throw an appropriate exception here
 	 */
 	@Nonnull
-	public List<Exercise> getExerciseByDescription(@Nullable final String description) {
+	public List<ExerciseDto> getExerciseByDescription(@Nullable final String description) {
 		return exerciseService.getExerciseByDescription(description);
 	}
 
@@ -102,9 +103,9 @@ public class TestClientService {
 	 *             if there is an error please throw an appropriate exception here
 	 */
 	@Nonnull
-	public List<Exercise> getExercises(@Nullable final Long userId, @Nullable final Enums.ExerciseType exerciseType,
+	public List<ExerciseDto> getExercises(@Nullable final Long userId, @Nullable final Enums.ExerciseType exerciseType,
 			@Nullable final String date) {
-		return exerciseService.getExercises(userId, exerciseType, date);
+		return exerciseService.getExercises(userId, exerciseType, date, null, null);
 	}
 
 	/**
@@ -119,6 +120,6 @@ public class TestClientService {
 	 */
 	@Nonnull
 	public List<Long> getRanking(@Nullable final List<Long> userIds) {
-		return exerciseService.getRanking(userIds);
+		return exerciseService.getRanking(userIds, null, null);
 	}
 }
@@ -0,0 +1,90 @@
+package de.egym.recruiting.codingtask.jpa;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.sql.Connection;
+import java.util.Properties;
+
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceException;
+
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.Test;
+
+import com.google.inject.Inject;
+
+import de.egym.recruiting.codingtask.AbstractIntegrationTest;
+import de.egym.recruiting.codingtask.dto.PoolStatisticsDto;
+import de.egym.recruiting.codingtask.rest.ExerciseService;
+import de.egym.recruiting.codingtask.rest.MetricsService;
+
+public class ConnectionPoolTest extends AbstractIntegrationTest {
+
+	@Inject
+	private MetricsService metricsService;
+
+	@Inject
+	private ExerciseService exerciseService;
+
+	@Inject
+	private EntityManagerFactory entityManagerFactory;
+
+	@Override
+	protected Properties propertyOverrides() {
+		final Properties properties = new Properties();
+		properties.setProperty("db.pool.minSize", "1");
+		properties.setProperty("db.pool.maxSize", "1");
+		properties.setProperty("db.pool.acquireTimeoutMillis", "1000");
+		return properties;
+	}
+
+	@Test
+	public void testConnectionsAreReturnedToThePool() throws Exception {
+		final PoolStatisticsDto before = metricsService.getPoolStatistics();
+		assertThat(exerciseService.getExercises(90L, null, null, null, null), is(empty()));
+
+		final PoolStatisticsDto after = awaitCheckIns();
+		assertThat(after.getConnections(), is(1));
+		assertThat(after.getActiveConnections(), is(0));
+		assertThat(after.getIdleConnections(), is(1));
+		assertThat(after.getAcquisitions(), is(greaterThan(before.getAcquisitions())));
+		assertThat(after.getTimeouts(), is(0L));
+	}
+
+	@Test
+	public void testAcquisitionTimesOutWhenThePoolIsExhausted() throws Exception {
+		final ConnectionProvider connectionProvider = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+				.getServiceRegistry().getService(ConnectionProvider.class);
+		final Connection connection = connectionProvider.getConnection();
+		try {
+			assertThat(metricsService.getPoolStatistics().getActiveConnections(), is(1));
+			exerciseService.getExercises(91L, null, null, null, null);
+			fail("'exerciseService.getExercises' should have thrown an exception.");
+		} catch (PersistenceException e) {
+			// expected
+		} finally {
+			connectionProvider.closeConnection(connection);
+		}
+
+		final PoolStatisticsDto statistics = awaitCheckIns();
+		assertThat(statistics.getTimeouts(), is(1L));
+		assertThat(statistics.getActiveConnections(), is(0));
+	}
+
+	/**
+	 * c3p0 checks a closed connection in on a helper thread, so the statistics show it as active for a moment.
+	 *
+	 * @return the statistics once no connection is active, or after 5 seconds
+	 */
+	private PoolStatisticsDto awaitCheckIns() throws InterruptedException {
+		final long deadline = System.currentTimeMillis() + 5000L;
+		PoolStatisticsDto statistics = metricsService.getPoolStatistics();
+		while (statistics.getActiveConnections() > 0 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10L);
+			statistics = metricsService.getPoolStatistics();
+		}
+		return statistics;
+	}
+}
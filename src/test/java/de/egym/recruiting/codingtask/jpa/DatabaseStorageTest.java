@@ -0,0 +1,145 @@
+package de.egym.recruiting.codingtask.jpa;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.sql.Statement;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.Session;
+import org.hibernate.cache.spi.UpdateTimestampsCache;
+import org.junit.After;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.inject.Guice;
+import com.google.inject.Inject;
+import com.google.inject.Injector;
+
+import net.sf.ehcache.CacheManager;
+
+import de.egym.recruiting.codingtask.AbstractIntegrationTest;
+import de.egym.recruiting.codingtask.RootModule;
+import de.egym.recruiting.codingtask.TestClientService;
+import de.egym.recruiting.codingtask.dto.ExerciseTotalsDto;
+import de.egym.recruiting.codingtask.jpa.domain.Enums;
+import de.egym.recruiting.codingtask.jpa.domain.Exercise;
+import de.egym.recruiting.codingtask.rest.ExerciseService;
+
+public class DatabaseStorageTest extends AbstractIntegrationTest {
+
+	@ClassRule
+	public static final TemporaryFolder DATABASE_FOLDER = new TemporaryFolder();
+
+	@Inject
+	private TestClientService testClientService;
+
+	@Inject
+	private JpaPersistFilter jpaPersistFilter;
+
+	/**
+	 * Numbers the databases of the tests, every test starts on a new one.
+	 */
+	private static final AtomicInteger DATABASES = new AtomicInteger();
+
+	/**
+	 * Set by the first call of {@link #propertyOverrides()}, from the constructor of the superclass.
+	 */
+	private String databasePath;
+
+	private Injector restartedInjector;
+
+	@Override
+	protected Properties propertyOverrides() {
+		if (databasePath == null) {
+			databasePath = DATABASE_FOLDER.getRoot().getAbsolutePath() + "/egym" + DATABASES.incrementAndGet();
+		}
+		final Properties properties = new Properties();
+		properties.setProperty("db.storage", "FILE");
+		properties.setProperty("db.file.path", databasePath);
+		properties.setProperty("db.file.writeDelayMillis", "0");
+		return properties;
+	}
+
+	@After
+	public void tearDown() {
+		if (restartedInjector != null) {
+			restartedInjector.getInstance(JpaPersistFilter.class).destroy();
+		} else {
+			jpaPersistFilter.destroy();
+		}
+	}
+
+	@Test
+	public void testDataAndSchemaAreKeptOverRestarts() {
+		assertThat(getSchemaUpdate(injector), is("update"));
+		// not seeded with the TestData, nor served the cached exercises of the in-memory database
+		assertThat(testClientService.getExercises(1L, null, null), is(empty()));
+
+		final Exercise exercise = testClientService.createExercise(newExercise(95L, "2016-06-20T10:00:00", Enums.ExerciseType.OTHER, 600));
+		jpaPersistFilter.destroy();
+
+		restartedInjector = Guice.createInjector(new RootModule(propertyOverrides()));
+		assertThat(getSchemaUpdate(restartedInjector), is("none"));
+		final Exercise storedExercise = restartedInjector.getInstance(TestClientService.class)
+				.getExercise(exercise.getId());
+		assertThat(storedExercise.getUserId(), is(95L));
+		assertDate(storedExercise.getStartTime(), convertDate("2016-06-20T10:00:00"));
+	}
+
+	@Test
+	public void testSchemaUpdateFillsDailyStatsOfExistingExercises() {
+		testClientService.createExercise(newExercise(111L, "2016-06-20T10:00:00", Enums.ExerciseType.OTHER, 600));
+		// a database from before the daily stats and the schema version table
+		final EntityManager entityManager = injector.getInstance(EntityManagerFactory.class).createEntityManager();
+		try {
+			entityManager.getTransaction().begin();
+			entityManager.unwrap(Session.class).doWork(connection -> {
+				try (Statement statement = connection.createStatement()) {
+					statement.execute("DELETE FROM UserDailyStats");
+					statement.execute("DROP TABLE SCHEMA_VERSION");
+				}
+			});
+			entityManager.getTransaction().commit();
+		} finally {
+			entityManager.close();
+		}
+		jpaPersistFilter.destroy();
+
+		restartedInjector = Guice.createInjector(new RootModule(propertyOverrides()));
+		assertThat(getSchemaUpdate(restartedInjector), is("update"));
+		final List<ExerciseTotalsDto> days = restartedInjector.getInstance(ExerciseService.class)
+				.getExerciseTotals(111L, "2016-06-20", "2016-06-20", null, null);
+		assertThat(days, hasSize(1));
+		assertThat(days.get(0).getExercises(), is(1L));
+		assertThat(days.get(0).getDuration(), is(600L));
+	}
+
+	@Test
+	public void testCacheRegionsAreSeparateFromTheInMemoryDatabase() {
+		final String prefix = (String) injector.getInstance(EntityManagerFactory.class).getProperties()
+				.get("hibernate.cache.region_prefix");
+		assertThat(prefix, startsWith("file_"));
+		testClientService.createExercise(newExercise(116L, "2016-06-20T10:00:00", Enums.ExerciseType.OTHER, 600));
+		assertThat(testClientService.getExercises(116L, null, null), hasSize(1));
+
+		// configured like the regions of the in-memory database
+		final CacheManager cacheManager = CacheManager.getInstance();
+		assertThat(cacheManager.getCache(prefix + "." + Exercise.CACHE_REGION).getCacheConfiguration()
+				.getMaxEntriesLocalHeap(), is(cacheManager.getCache(Exercise.CACHE_REGION).getCacheConfiguration()
+				.getMaxEntriesLocalHeap()));
+		assertTrue(cacheManager.getCache(prefix + "." + UpdateTimestampsCache.REGION_NAME).getCacheConfiguration()
+				.isEternal());
+		assertThat(cacheManager.getCache(prefix + "." + Exercise.QUERY_CACHE_REGION).getSize(), is(greaterThan(0)));
+	}
+
+	private String getSchemaUpdate(final Injector injector) {
+		return (String) injector.getInstance(EntityManagerFactory.class).getProperties().get("hibernate.hbm2ddl.auto");
+	}
+}
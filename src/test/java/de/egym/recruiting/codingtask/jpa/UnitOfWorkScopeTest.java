@@ -0,0 +1,125 @@
+package de.egym.recruiting.codingtask.jpa;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.persistence.EntityManager;
+import javax.servlet.FilterChain;
+
+import org.hibernate.Session;
+import org.junit.Test;
+
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+
+import de.egym.recruiting.codingtask.AbstractIntegrationTest;
+import de.egym.recruiting.codingtask.TestClientService;
+import de.egym.recruiting.codingtask.dto.PersistenceStatisticsDto;
+import de.egym.recruiting.codingtask.jpa.dao.ExerciseDao;
+import de.egym.recruiting.codingtask.jpa.domain.Enums;
+import de.egym.recruiting.codingtask.jpa.domain.Exercise;
+import de.egym.recruiting.codingtask.rest.ExerciseService;
+
+public class UnitOfWorkScopeTest extends AbstractIntegrationTest {
+
+	@Inject
+	private JpaPersistFilter jpaPersistFilter;
+
+	@Inject
+	private UnitOfWorkScope unitOfWorkScope;
+
+	@Inject
+	private TestClientService testClientService;
+
+	@Inject
+	private ExerciseService exerciseService;
+
+	@Inject
+	private ExerciseDao exerciseDao;
+
+	@Inject
+	private Provider<EntityManager> entityManagerProvider;
+
+	@Test
+	public void testRequestWithoutTransactionOpensNoUnitOfWork() throws Exception {
+		final PersistenceStatisticsDto before = unitOfWorkScope.getStatistics();
+		inRequest((request, response) -> {
+		});
+
+		final PersistenceStatisticsDto after = unitOfWorkScope.getStatistics();
+		assertThat(after.getRequests() - before.getRequests(), is(1L));
+		assertThat(after.getRequestsWithoutUnitOfWork() - before.getRequestsWithoutUnitOfWork(), is(1L));
+		assertThat(after.getRequestsWithUnitOfWork(), is(before.getRequestsWithUnitOfWork()));
+	}
+
+	@Test
+	public void testTransactionsOfARequestShareTheLazilyOpenedUnitOfWork() throws Exception {
+		final Exercise exercise = testClientService.createExercise(newExercise(80L, "2016-06-20T10:00:00", Enums.ExerciseType.OTHER, 600));
+		final PersistenceStatisticsDto before = unitOfWorkScope.getStatistics();
+
+		final AtomicReference<Exercise> first = new AtomicReference<>();
+		final AtomicReference<Exercise> second = new AtomicReference<>();
+		final AtomicReference<Exercise> detached = new AtomicReference<>();
+		inRequest((request, response) -> {
+			assertThat(exerciseService.getExercises(80L, null, null, null, null), hasSize(1));
+			detached.set(exerciseService.getExerciseById(exercise.getId()));
+			assertFalse(entityManagerProvider.get().contains(detached.get()));
+			first.set(exerciseDao.findById(exercise.getId()));
+			second.set(exerciseDao.findById(exercise.getId()));
+		});
+		// same persistence context
+		assertThat(first.get(), is(sameInstance(second.get())));
+		assertThat(detached.get().getId(), is(exercise.getId()));
+		// outside of requests every transaction has its own
+		assertThat(exerciseDao.findById(exercise.getId()), is(not(sameInstance(first.get()))));
+
+		final PersistenceStatisticsDto after = unitOfWorkScope.getStatistics();
+		assertThat(after.getRequestsWithUnitOfWork() - before.getRequestsWithUnitOfWork(), is(1L));
+		// the GET requests only read
+		assertThat(after.getReadOnlyTransactions() - before.getReadOnlyTransactions(), is(2L));
+		assertThat(after.getReadWriteTransactions() - before.getReadWriteTransactions(), is(3L));
+	}
+
+	@Test
+	public void testUpdateAfterReadOnlyTransactionOfTheSameRequestIsStored() throws Exception {
+		final Exercise exercise = testClientService.createExercise(newExercise(81L, "2016-06-20T10:00:00", Enums.ExerciseType.OTHER, 600));
+
+		inRequest((request, response) -> {
+			assertThat(exerciseService.getExercises(81L, null, null, null, null), hasSize(1));
+			assertThat(exerciseService.getExerciseById(exercise.getId()).getDuration(), is(600));
+			final Exercise update = newExercise(81L, "2016-06-20T11:00:00", Enums.ExerciseType.OTHER, 600);
+			update.setDuration(900);
+			exerciseService.update(exercise.getId(), update);
+		});
+
+		final Exercise updatedExercise = testClientService.getExercise(exercise.getId());
+		assertThat(updatedExercise.getDuration(), is(900));
+		assertDate(updatedExercise.getStartTime(), convertDate("2016-06-20T11:00:00"));
+	}
+
+	@Test
+	public void testEntitiesOfReadOnlyTransactionsAreNotDirtyChecked() throws Exception {
+		final Exercise exercise = testClientService.createExercise(newExercise(82L, "2016-06-20T10:00:00", Enums.ExerciseType.OTHER, 600));
+
+		inRequest((request, response) -> {
+			final List<Exercise> overlapping = exerciseDao.findExercisesOverlapping(82L, Instant.EPOCH, Instant.now());
+			final Session session = entityManagerProvider.get().unwrap(Session.class);
+			assertThat(overlapping, hasSize(1));
+			assertTrue(session.isReadOnly(overlapping.get(0)));
+			// switched back for the next transaction
+			assertFalse(session.isDefaultReadOnly());
+		});
+		inRequest((request, response) -> {
+			final Exercise foundExercise = exerciseDao.findById(exercise.getId());
+			assertFalse(entityManagerProvider.get().unwrap(Session.class).isReadOnly(foundExercise));
+		});
+	}
+
+	private void inRequest(final FilterChain filterChain) throws Exception {
+		jpaPersistFilter.doFilter(null, null, filterChain);
+	}
+}
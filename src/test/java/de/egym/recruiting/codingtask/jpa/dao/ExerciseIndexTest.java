@@ -0,0 +1,104 @@
+package de.egym.recruiting.codingtask.jpa.dao;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Collections;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.Test;
+
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+
+import de.egym.recruiting.codingtask.AbstractIntegrationTest;
+import de.egym.recruiting.codingtask.jpa.domain.Enums;
+import de.egym.recruiting.codingtask.jpa.domain.Exercise;
+
+/**
+ * Asserts that HSQLDB serves the exercise queries of the ExerciseDaoImpl through the indexes declared on {@link Exercise}.
+ * The named queries are explained in the SQL Hibernate translates them to, the native page queries as built by the DAO.
+ */
+public class ExerciseIndexTest extends AbstractIntegrationTest {
+
+	@Inject
+	private Provider<EntityManager> entityManagerProvider;
+
+	@Inject
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	public void testConflictQueryUsesUserEndIndex() {
+		assertUsesIndex(namedQuerySql(Exercise.FIND_OVERLAPPING_IDS), Exercise.INDEX_USER_END);
+	}
+
+	@Test
+	public void testExercisesByTypeAndDateQueryUsesUserTypeStartIndex() {
+		assertUsesIndex(namedQuerySql(Exercise.FIND_BY_USER_TYPE_IN_RANGE), Exercise.INDEX_USER_TYPE_START_ID);
+	}
+
+	@Test
+	public void testExercisePageQueryUsesUserStartIdIndex() {
+		assertUsesIndex(ExerciseDaoImpl.exercisePageQuery(false, false, true, Enums.SortOrder.NEWEST_FIRST),
+				Exercise.INDEX_USER_START_ID);
+	}
+
+	@Test
+	public void testExercisePageByTypeQueryUsesUserTypeStartIdIndex() {
+		assertUsesIndex(ExerciseDaoImpl.exercisePageQuery(true, false, true, Enums.SortOrder.OLDEST_FIRST),
+				Exercise.INDEX_USER_TYPE_START_ID);
+	}
+
+	@Test
+	public void testRankingQueryUsesUserEndIndex() {
+		assertUsesIndex(namedQuerySql(Exercise.FIND_RANKING_EXERCISES), Exercise.INDEX_USER_END);
+	}
+
+	@Test
+	public void testExercisesByDateQueryUsesUserEndIndex() {
+		assertUsesIndex(namedQuerySql(Exercise.FIND_BY_USER_IN_RANGE), Exercise.INDEX_USER_END);
+	}
+
+	@Test
+	public void testDescriptionQueryUsesDescriptionIndex() {
+		assertUsesIndex(namedQuerySql(Exercise.FIND_BY_DESCRIPTION), Exercise.INDEX_DESCRIPTION_LOWER);
+	}
+
+	/**
+	 * @return the SQL Hibernate runs for the named JPQL query
+	 */
+	private String namedQuerySql(final String queryName) {
+		final SessionFactoryImplementor sessionFactory = (SessionFactoryImplementor) entityManagerFactory
+				.unwrap(SessionFactory.class);
+		final String jpql = sessionFactory.getNamedQuery(queryName).getQueryString();
+		final String[] sql = sessionFactory.getQueryPlanCache()
+				.getHQLQueryPlan(jpql, false, Collections.emptyMap())
+				.getSqlStrings();
+		assertThat(sql.length, is(1));
+		return sql[0];
+	}
+
+	/**
+	 * Explains the statement without binding its parameters, HSQLDB plans it when it is prepared. Named parameters of
+	 * a native query are replaced by JDBC ones.
+	 */
+	private void assertUsesIndex(final String sql, final String indexName) {
+		final StringBuilder plan = new StringBuilder();
+		entityManagerProvider.get().unwrap(Session.class).doWork(connection -> {
+			try (PreparedStatement statement = connection.prepareStatement("EXPLAIN PLAN FOR " + sql.replaceAll(":\\w+", "?"));
+				 ResultSet lines = statement.executeQuery()) {
+				while (lines.next()) {
+					plan.append(lines.getString(1)).append('\n');
+				}
+			}
+		});
+		assertThat(plan.toString().toLowerCase(), containsString("index=" + indexName.toLowerCase()));
+	}
+}
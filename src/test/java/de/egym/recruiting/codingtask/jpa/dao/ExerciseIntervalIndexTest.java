@@ -0,0 +1,102 @@
+package de.egym.recruiting.codingtask.jpa.dao;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Query;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+
+import de.egym.recruiting.codingtask.AbstractIntegrationTest;
+import de.egym.recruiting.codingtask.jpa.domain.Enums;
+import de.egym.recruiting.codingtask.jpa.domain.Exercise;
+
+public class ExerciseIntervalIndexTest extends AbstractIntegrationTest {
+
+	@Inject
+	private Provider<EntityManager> entityManagerProvider;
+
+	@Inject
+	private EntityManagerFactory entityManagerFactory;
+
+	@Inject
+	private ExerciseDao exerciseDao;
+
+	private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+	@After
+	public void tearDown() {
+		executor.shutdown();
+	}
+
+	@Test
+	public void testWriteCommittedDuringLoadIsNotLost() {
+		final long userId = 114L;
+		final AtomicReference<ExerciseIntervalIndex> index = new AtomicReference<>();
+		final AtomicReference<Exercise> concurrent = new AtomicReference<>();
+		// another request commits an exercise of the user once the load read the intervals, before they are installed
+		index.set(new ExerciseIntervalIndex(() -> afterQuery(entityManagerProvider.get(), () -> {
+			if (concurrent.get() == null) {
+				concurrent.set(executor.submit(() -> exerciseDao.create(newExercise(userId, "2016-06-20T10:00:00",
+						Enums.ExerciseType.OTHER, 600))).get(10, TimeUnit.SECONDS));
+				index.get().put(concurrent.get());
+			}
+		}), entityManagerFactory, true, false, 0));
+
+		final long from = convertDate("2016-06-20T00:00:00").toEpochMilli();
+		final long till = convertDate("2016-06-21T00:00:00").toEpochMilli();
+		// answered while the exercise was being written
+		assertThat(index.get().findOverlapping(userId, from, till), is(empty()));
+		assertThat(index.get().findOverlapping(userId, from, till), contains(concurrent.get().getId()));
+	}
+
+	/**
+	 * @return the entity manager whose named queries run the action after their results were read
+	 */
+	private EntityManager afterQuery(final EntityManager entityManager, final Action action) {
+		return (EntityManager) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { EntityManager.class },
+				(proxy, method, args) -> {
+					final Object result = invoke(entityManager, method, args);
+					return method.getName().equals("createNamedQuery") ? afterResults((Query) result, action) : result;
+				});
+	}
+
+	private Query afterResults(final Query query, final Action action) {
+		return (Query) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Query.class },
+				(proxy, method, args) -> {
+					final Object result = invoke(query, method, args);
+					if (method.getName().equals("getResultList")) {
+						action.run();
+					}
+					return result == query ? proxy : result;
+				});
+	}
+
+	private static Object invoke(final Object target, final Method method, final Object[] args)
+			throws Throwable {
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException e) {
+			throw e.getCause();
+		}
+	}
+
+	private interface Action {
+
+		void run() throws Exception;
+	}
+}
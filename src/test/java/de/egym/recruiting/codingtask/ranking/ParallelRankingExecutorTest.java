@@ -0,0 +1,109 @@
+package de.egym.recruiting.codingtask.ranking;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Test;
+
+import de.egym.recruiting.codingtask.dto.ExerciseDto;
+import de.egym.recruiting.codingtask.jpa.domain.Enums;
+import de.egym.recruiting.codingtask.jpa.domain.IdRank;
+
+public class ParallelRankingExecutorTest {
+
+	private final ParallelRankingExecutor sequentialExecutor = new ParallelRankingExecutor(4, Integer.MAX_VALUE);
+
+	private final ParallelRankingExecutor parallelExecutor = new ParallelRankingExecutor(4, 0);
+
+	@After
+	public void tearDown() {
+		sequentialExecutor.shutdown();
+		parallelExecutor.shutdown();
+	}
+
+	@Test
+	public void testPartitionedRankingEqualsSequentialRanking() {
+		final List<Long> userIds = userIds();
+		final List<ExerciseDto> exercises = exercises();
+
+		final List<IdRank> sequential = sequentialExecutor.rank(userIds, exercises);
+		final List<IdRank> parallel = parallelExecutor.rank(userIds, exercises);
+		assertThat(ids(parallel), is(ids(sequential)));
+		assertThat(parallel.stream().map(idRank -> idRank.rank).collect(Collectors.toList()),
+				is(sequential.stream().map(idRank -> idRank.rank).collect(Collectors.toList())));
+		assertThat(ids(sequential), is(ids(new RankingCalculator(userIds).addAll(exercises).getIdRanks(userIds))));
+	}
+
+	@Test
+	public void testPartitionedScoresEqualSequentialScores() {
+		final List<Long> userIds = userIds();
+		final List<ExerciseDto> exercises = exercises();
+
+		final ToLongFunction<Long> sequential = sequentialExecutor.scores(userIds, exercises);
+		final ToLongFunction<Long> parallel = parallelExecutor.scores(userIds, exercises);
+		for (long userId = 1; userId <= 600; userId++) {
+			assertThat(parallel.applyAsLong(userId), is(sequential.applyAsLong(userId)));
+		}
+		assertThat(parallel.applyAsLong(501L), is(0L));
+	}
+
+	@Test
+	public void testShutDownExecutorCalculatesOnCallingThread() {
+		parallelExecutor.shutdown();
+		assertThat(ids(parallelExecutor.rank(userIds(), exercises())),
+				is(ids(sequentialExecutor.rank(userIds(), exercises()))));
+	}
+
+	@Test
+	public void testDuplicateUsersAreRankedOnce() {
+		final List<ExerciseDto> exercises = Arrays.asList(
+				new ExerciseDto(1L, 2L, "", Enums.ExerciseType.RUNNING, Instant.ofEpochSecond(2000L), 600, 0, 100),
+				new ExerciseDto(2L, 3L, "", Enums.ExerciseType.RUNNING, Instant.ofEpochSecond(1000L), 600, 0, 200));
+		final List<IdRank> idRanks = parallelExecutor.rank(Arrays.asList(1L, 2L, 3L, 2L), exercises);
+		assertThat(ids(idRanks), is(Arrays.asList(3L, 2L, 1L)));
+	}
+
+	@Test
+	public void testMergeKeepsRankingOrder() {
+		final List<IdRank> merged = ParallelRankingExecutor.merge(Arrays.asList(
+				Arrays.asList(new IdRank(4L, 50L), new IdRank(1L, 10L)),
+				Arrays.asList(),
+				Arrays.asList(new IdRank(2L, 50L), new IdRank(3L, 10L), new IdRank(5L, 0L))));
+		assertThat(ids(merged), is(Arrays.asList(2L, 4L, 1L, 3L, 5L)));
+	}
+
+	private List<Long> userIds() {
+		final List<Long> userIds = new ArrayList<>();
+		for (long userId = 1; userId <= 500; userId++) {
+			userIds.add(userId);
+		}
+		return userIds;
+	}
+
+	/**
+	 * @return exercises of the users 1 to 600, newest first as the ranking query returns them
+	 */
+	private List<ExerciseDto> exercises() {
+		final Random random = new Random(42L);
+		final List<ExerciseDto> exercises = new ArrayList<>();
+		for (int i = 0; i < 20000; i++) {
+			final Enums.ExerciseType type = Enums.ExerciseType.values()[random.nextInt(Enums.ExerciseType.values().length)];
+			exercises.add(new ExerciseDto((long) i, 1L + random.nextInt(600), "", type,
+					Instant.ofEpochSecond(2000000000L - i * 60L), 60 * random.nextInt(120), 0, random.nextInt(800)));
+		}
+		return exercises;
+	}
+
+	private List<Long> ids(final List<IdRank> idRanks) {
+		return idRanks.stream().map(idRank -> idRank.id).collect(Collectors.toList());
+	}
+}
@@ -0,0 +1,131 @@
+package de.egym.recruiting.codingtask.ranking;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import de.egym.recruiting.codingtask.jpa.domain.IdRank;
+
+public class RankingCacheTest {
+
+	private final AtomicInteger computations = new AtomicInteger();
+
+	private final Function<List<Long>, RankingCache.Ranking> loader = userIds -> {
+		computations.incrementAndGet();
+		return new RankingCache.Ranking(userIds.stream().map(userId -> new IdRank(userId, userId)).sorted()
+				.collect(Collectors.toList()), Long.MAX_VALUE);
+	};
+
+	@Test
+	public void testUserSetIsRankedOnceInAnyOrder() {
+		final RankingCache rankingCache = new RankingCache(10, 60);
+		final List<IdRank> idRanks = rankingCache.get(Arrays.asList(1L, 3L, 2L), loader);
+		assertThat(ids(idRanks), is(Arrays.asList(3L, 2L, 1L)));
+		assertThat(rankingCache.get(Arrays.asList(2L, 1L, 3L), loader), is(sameInstance(idRanks)));
+		assertThat(computations.get(), is(1));
+
+		// duplicates are not cached
+		assertThat(ids(rankingCache.get(Arrays.asList(1L, 1L), loader)), is(Arrays.asList(1L, 1L)));
+		assertThat(computations.get(), is(2));
+	}
+
+	@Test
+	public void testWritesOfAMemberInvalidate() {
+		final RankingCache rankingCache = new RankingCache(10, 60);
+		rankingCache.get(Arrays.asList(1L, 2L), loader);
+		rankingCache.get(Arrays.asList(3L, 4L), loader);
+
+		rankingCache.invalidate(2L);
+		rankingCache.get(Arrays.asList(1L, 2L), loader);
+		rankingCache.get(Arrays.asList(3L, 4L), loader);
+		assertThat(computations.get(), is(3));
+		assertThat(rankingCache.size(), is(2));
+	}
+
+	@Test
+	public void testLeastRecentlyUsedIsEvictedAndExpiredIsRecomputed() {
+		final RankingCache rankingCache = new RankingCache(2, 60);
+		rankingCache.get(Collections.singletonList(1L), loader);
+		rankingCache.get(Collections.singletonList(2L), loader);
+		rankingCache.get(Collections.singletonList(1L), loader);
+		rankingCache.get(Collections.singletonList(3L), loader);
+		assertThat(rankingCache.size(), is(2));
+		assertThat(computations.get(), is(3));
+
+		rankingCache.get(Collections.singletonList(1L), loader);
+		assertThat(computations.get(), is(3));
+		rankingCache.get(Collections.singletonList(2L), loader);
+		assertThat(computations.get(), is(4));
+
+		final Function<List<Long>, RankingCache.Ranking> expiredLoader = userIds -> {
+			computations.incrementAndGet();
+			return new RankingCache.Ranking(Collections.emptyList(), System.currentTimeMillis() - 1);
+		};
+		rankingCache.get(Collections.singletonList(5L), expiredLoader);
+		rankingCache.get(Collections.singletonList(5L), expiredLoader);
+		assertThat(computations.get(), is(6));
+	}
+
+	@Test
+	public void testConcurrentRequestsShareOneComputation() throws Exception {
+		final RankingCache rankingCache = new RankingCache(10, 60);
+		final CountDownLatch computing = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final Function<List<Long>, RankingCache.Ranking> slowLoader = userIds -> {
+			computing.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				throw new IllegalStateException(e);
+			}
+			return loader.apply(userIds);
+		};
+
+		final ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			final Future<List<IdRank>> first = executor.submit(() -> rankingCache.get(Arrays.asList(1L, 2L), slowLoader));
+			assertTrue(computing.await(10, TimeUnit.SECONDS));
+			final Future<List<IdRank>> second = executor.submit(() -> rankingCache.get(Arrays.asList(2L, 1L), slowLoader));
+			final Future<List<IdRank>> third = executor.submit(() -> rankingCache.get(Arrays.asList(1L, 2L), slowLoader));
+			release.countDown();
+
+			assertThat(second.get(10, TimeUnit.SECONDS), is(sameInstance(first.get(10, TimeUnit.SECONDS))));
+			assertThat(third.get(10, TimeUnit.SECONDS), is(sameInstance(first.get())));
+			assertThat(computations.get(), is(1));
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testFailedComputationIsNotCached() {
+		final RankingCache rankingCache = new RankingCache(10, 60);
+		try {
+			rankingCache.get(Collections.singletonList(1L), userIds -> {
+				throw new IllegalStateException("database down");
+			});
+			fail("'rankingCache.get' should have thrown an exception.");
+		} catch (IllegalStateException e) {
+			assertThat(e.getMessage(), is("database down"));
+		}
+		assertThat(rankingCache.size(), is(0));
+		assertThat(ids(rankingCache.get(Collections.singletonList(1L), loader)), is(Collections.singletonList(1L)));
+	}
+
+	private static List<Long> ids(final List<IdRank> idRanks) {
+		return idRanks.stream().map(idRank -> idRank.id).collect(Collectors.toList());
+	}
+}
@@ -0,0 +1,93 @@
+package de.egym.recruiting.codingtask.rest;
+
+import com.google.inject.Inject;
+import de.egym.recruiting.codingtask.AbstractIntegrationTest;
+import de.egym.recruiting.codingtask.TestClientService;
+import de.egym.recruiting.codingtask.dto.BatchItemResultDto;
+import de.egym.recruiting.codingtask.jpa.domain.Enums;
+import de.egym.recruiting.codingtask.jpa.domain.Exercise;
+import org.junit.Test;
+
+import javax.ws.rs.core.MediaType;
+import java.io.ByteArrayInputStream;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+public class BatchImportTest extends AbstractIntegrationTest {
+
+	@Inject
+	private TestClientService testClientService;
+
+	@Inject
+	private ExerciseService exerciseService;
+
+	@Test
+	public void testBatchReportsCreatedInvalidAndConflictingExercises() {
+		final long userId1 = 50L;
+		final long userId2 = 51L;
+
+		final Exercise storedExercise = testClientService.createExercise(newExercise(userId2, "2016-06-20T10:00:00", Enums.ExerciseType.OTHER, 3600));
+
+		final Exercise invalidExercise = newExercise(userId1, "2016-06-20T14:00:00", Enums.ExerciseType.OTHER, 600);
+		invalidExercise.setDescription("Coding Task!");
+		final List<Exercise> batch = Arrays.asList(
+				newExercise(userId1, "2016-06-20T10:30:00", Enums.ExerciseType.OTHER, 600),
+				newExercise(userId1, "2016-06-20T10:00:00", Enums.ExerciseType.OTHER, 3600),
+				invalidExercise,
+				newExercise(userId2, "2016-06-20T10:59:00", Enums.ExerciseType.OTHER, 600),
+				newExercise(userId2, "2016-06-20T11:00:00", Enums.ExerciseType.OTHER, 600),
+				null);
+
+		final List<BatchItemResultDto> results = exerciseService.createAll(batch);
+		assertThat(results, hasSize(6));
+		for (int index = 0; index < results.size(); index++) {
+			assertThat(results.get(index).getIndex(), is(index));
+		}
+
+		// the earlier starting exercise of the batch wins
+		assertNotNull(results.get(1).getId());
+		assertThat(results.get(0).getId(), is(nullValue()));
+		assertThat(results.get(0).getConflictExerciseIds(), is(Collections.singletonList(results.get(1).getId())));
+
+		assertThat(results.get(2).getError(), containsString("description"));
+
+		assertThat(results.get(3).getConflictExerciseIds(), is(Collections.singletonList(storedExercise.getId())));
+		assertNotNull(results.get(4).getId());
+
+		assertThat(results.get(5).getError(), is(notNullValue()));
+
+		final Exercise createdExercise = testClientService.getExercise(results.get(4).getId());
+		assertThat(createdExercise.getUserId(), is(userId2));
+		assertDate(createdExercise.getStartTime(), convertDate("2016-06-20T11:00:00"));
+		assertThat(testClientService.getExercises(userId1, null, null), hasSize(1));
+	}
+
+	@Test
+	public void testNdjsonBodyIsReadIntoTheBatch() throws Exception {
+		final String body = "{\"userId\":52,\"description\":\"Run\",\"type\":\"RUNNING\",\"startTime\":\"2016-06-20T10:00:00\","
+				+ "\"duration\":600,\"distance\":2000,\"calories\":90}\n"
+				+ "{\"userId\":52,\"description\":\"Swim\",\"type\":\"SWIMMING\",\"startTime\":\"2016-06-20T11:00:00\","
+				+ "\"duration\":900,\"distance\":1000,\"calories\":150}\n";
+		final Type batchType = ExerciseService.class.getMethod("createAll", List.class).getGenericParameterTypes()[0];
+
+		final NdjsonReader reader = new NdjsonReader();
+		assertTrue(reader.isReadable(List.class, batchType, null, MediaType.valueOf(NdjsonReader.APPLICATION_NDJSON)));
+		@SuppressWarnings("unchecked")
+		final List<Exercise> exercises = (List<Exercise>) reader.readFrom((Class) List.class, batchType, null, null, null,
+				new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+		assertThat(exercises, hasSize(2));
+		assertThat(exercises.get(1).getType(), is(Enums.ExerciseType.SWIMMING));
+		assertDate(exercises.get(1).getStartTime(), convertDate("2016-06-20T11:00:00"));
+
+		final List<BatchItemResultDto> results = exerciseService.createAll(exercises);
+		assertNotNull(results.get(0).getId());
+		assertNotNull(results.get(1).getId());
+	}
+}
@@ -0,0 +1,84 @@
+package de.egym.recruiting.codingtask.rest;
+
+import com.google.inject.Inject;
+import de.egym.recruiting.codingtask.AbstractIntegrationTest;
+import de.egym.recruiting.codingtask.TestClientService;
+import de.egym.recruiting.codingtask.jpa.dao.ExerciseDao;
+import de.egym.recruiting.codingtask.jpa.domain.Enums;
+import de.egym.recruiting.codingtask.jpa.domain.Exercise;
+import de.egym.recruiting.codingtask.rest.exception.ConflictException;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Properties;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+public class ConflictIndexTest extends AbstractIntegrationTest {
+
+	@Inject
+	private TestClientService testClientService;
+
+	@Inject
+	private ExerciseDao exerciseDao;
+
+	@Override
+	protected Properties propertyOverrides() {
+		final Properties properties = new Properties();
+		properties.setProperty("conflict.index.enabled", "true");
+		return properties;
+	}
+
+	@Test
+	public void testConflictsFollowCreateUpdateAndDelete() {
+		final long userId = 40L;
+
+		final Exercise persistedExercise = testClientService.createExercise(newExercise(userId, "2016-06-20T10:00:00", Enums.ExerciseType.OTHER, 3600));
+		assertNotNull(persistedExercise);
+
+		try {
+			testClientService.createExercise(newExercise(userId, "2016-06-20T10:30:00", Enums.ExerciseType.OTHER, 600));
+			fail("'testClientService.createExercise(overlappingExercise)' should have thrown an exception.");
+		} catch (ConflictException e) {
+			assertThat(e.getMessage(), containsString(String.valueOf(persistedExercise.getId())));
+		}
+
+		final Exercise adjacentExercise = testClientService.createExercise(newExercise(userId, "2016-06-20T11:00:00", Enums.ExerciseType.OTHER, 600));
+		assertNotNull(adjacentExercise);
+
+		// moving the first exercise away frees its time range
+		persistedExercise.setStartTime(convertDate("2016-06-20T08:00:00"));
+		testClientService.updateExercise(persistedExercise);
+		assertNotNull(testClientService.createExercise(newExercise(userId, "2016-06-20T10:30:00", Enums.ExerciseType.OTHER, 600)));
+
+		try {
+			testClientService.createExercise(newExercise(userId, "2016-06-20T08:30:00", Enums.ExerciseType.OTHER, 600));
+			fail("'testClientService.createExercise(overlappingExercise)' should have thrown an exception.");
+		} catch (ConflictException e) {
+			assertThat(e.getMessage(), containsString(String.valueOf(persistedExercise.getId())));
+		}
+
+		// so does deleting the adjacent exercise
+		testClientService.deleteExercise(adjacentExercise.getId());
+		assertNotNull(testClientService.createExercise(newExercise(userId, "2016-06-20T11:05:00", Enums.ExerciseType.OTHER, 600)));
+	}
+
+	@Test
+	public void testRolledBackBatchLeavesNoConflicts() {
+		final long userId = 106L;
+		// loads the user into the index
+		assertThat(exerciseDao.findConflictExerciseIds(newExercise(userId, "2016-06-21T10:00:00", Enums.ExerciseType.OTHER, 600)), is(empty()));
+
+		final Exercise invalidExercise = newExercise(userId, "2016-06-21T12:00:00", Enums.ExerciseType.OTHER, 600);
+		invalidExercise.setType(null);
+		try {
+			exerciseDao.createAll(Arrays.asList(newExercise(userId, "2016-06-21T10:00:00", Enums.ExerciseType.OTHER, 600), invalidExercise));
+			fail("'exerciseDao.createAll(invalidBatch)' should have thrown an exception.");
+		} catch (RuntimeException e) {
+			// the whole batch is rolled back
+		}
+
+		assertThat(exerciseDao.findConflictExerciseIds(newExercise(userId, "2016-06-21T10:00:00", Enums.ExerciseType.OTHER, 600)), is(empty()));
+	}
+}
@@ -3,8 +3,10 @@ package de.egym.recruiting.codingtask.rest;
 import com.google.inject.Inject;
 import de.egym.recruiting.codingtask.AbstractIntegrationTest;
 import de.egym.recruiting.codingtask.TestClientService;
+import de.egym.recruiting.codingtask.dto.ExerciseDto;
 import de.egym.recruiting.codingtask.jpa.domain.Enums;
 import de.egym.recruiting.codingtask.jpa.domain.Exercise;
+import de.egym.recruiting.codingtask.rest.exception.ConflictException;
 import org.junit.Test;
 
 import java.util.List;
@@ -155,7 +157,7 @@ public class ExerciseBasicTest extends AbstractIntegrationTest {
 		assertNotNull(persistedExercise);
 		assertNotNull(persistedExercise.getId());
 
-		final List<Exercise> selectedExercises = testClientService.getExerciseByDescription("Coding Task testSelectByDescription");
+		final List<ExerciseDto> selectedExercises = testClientService.getExerciseByDescription("Coding Task testSelectByDescription");
 		assertNotNull(selectedExercises);
 
 		assertThat("timestamp", selectedExercises.size(), greaterThanOrEqualTo(1));
@@ -180,11 +182,11 @@ public class ExerciseBasicTest extends AbstractIntegrationTest {
 		assertNotNull(persistedExercise);
 		assertNotNull(persistedExercise.getId());
 
-		final List<Exercise> selectedExercises = testClientService.getExercises(userId, Enums.ExerciseType.OTHER, "2016-06-19");
+		final List<ExerciseDto> selectedExercises = testClientService.getExercises(userId, Enums.ExerciseType.OTHER, "2016-06-19");
 		assertNotNull(selectedExercises);
 		assertThat(selectedExercises.size(), is(1));
 
-		final Exercise selectedExercise = selectedExercises.get(0);
+		final ExerciseDto selectedExercise = selectedExercises.get(0);
 		assertThat(selectedExercise.getId(), is(persistedExercise.getId()));
 		assertThat(selectedExercise.getDescription(), is("Coding Task"));
 		assertThat(selectedExercise.getDuration(), is(14400));
@@ -194,4 +196,52 @@ public class ExerciseBasicTest extends AbstractIntegrationTest {
 		assertThat(selectedExercise.getUserId(), is(userId));
 		assertDate(selectedExercise.getStartTime(), convertDate(date));
 	}
+
+	@Test
+	public void testConflictFollowsUpdatedDuration() {
+		final long userId = 15L;
+
+		final Exercise exerciseToInsert = new Exercise();
+		exerciseToInsert.setDescription("Coding Task");
+		exerciseToInsert.setDuration(3600);
+		exerciseToInsert.setDistance(0);
+		exerciseToInsert.setCalories(500);
+		exerciseToInsert.setStartTime(convertDate("2016-06-20T10:00:00"));
+		exerciseToInsert.setType(Enums.ExerciseType.OTHER);
+		exerciseToInsert.setUserId(userId);
+
+		final Exercise persistedExercise = testClientService.createExercise(exerciseToInsert);
+		assertNotNull(persistedExercise);
+
+		final Exercise adjacentExercise = new Exercise();
+		adjacentExercise.setDescription("Coding Task");
+		adjacentExercise.setDuration(600);
+		adjacentExercise.setDistance(0);
+		adjacentExercise.setCalories(50);
+		adjacentExercise.setStartTime(convertDate("2016-06-20T11:00:00"));
+		adjacentExercise.setType(Enums.ExerciseType.OTHER);
+		adjacentExercise.setUserId(userId);
+
+		final Exercise persistedAdjacentExercise = testClientService.createExercise(adjacentExercise);
+		assertNotNull(persistedAdjacentExercise);
+
+		persistedAdjacentExercise.setDuration(7200);
+		testClientService.updateExercise(persistedAdjacentExercise);
+
+		final Exercise overlappingExercise = new Exercise();
+		overlappingExercise.setDescription("Coding Task");
+		overlappingExercise.setDuration(600);
+		overlappingExercise.setDistance(0);
+		overlappingExercise.setCalories(50);
+		overlappingExercise.setStartTime(convertDate("2016-06-20T12:30:00"));
+		overlappingExercise.setType(Enums.ExerciseType.OTHER);
+		overlappingExercise.setUserId(userId);
+
+		try {
+			testClientService.createExercise(overlappingExercise);
+			fail("'testClientService.createExercise(overlappingExercise)' should have thrown an exception.");
+		} catch (ConflictException e) {
+			assertThat(e.getMessage(), containsString(String.valueOf(persistedAdjacentExercise.getId())));
+		}
+	}
 }
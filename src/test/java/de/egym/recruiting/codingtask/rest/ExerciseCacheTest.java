@@ -0,0 +1,84 @@
+package de.egym.recruiting.codingtask.rest;
+
+import com.google.inject.Inject;
+import de.egym.recruiting.codingtask.AbstractIntegrationTest;
+import de.egym.recruiting.codingtask.TestClientService;
+import de.egym.recruiting.codingtask.dto.CacheStatisticsDto;
+import de.egym.recruiting.codingtask.dto.ExerciseDto;
+import de.egym.recruiting.codingtask.jpa.domain.Enums;
+import de.egym.recruiting.codingtask.jpa.domain.Exercise;
+import org.junit.Test;
+
+import javax.ws.rs.NotFoundException;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+public class ExerciseCacheTest extends AbstractIntegrationTest {
+
+	@Inject
+	private TestClientService testClientService;
+
+	@Inject
+	private MetricsService metricsService;
+
+	@Test
+	public void testReadsAfterWritesAreNotStale() {
+		final long userId = 70L;
+
+		final Exercise exercise = testClientService.createExercise(newExercise(userId, "2016-06-20T10:00:00", Enums.ExerciseType.RUNNING, 1800, "Morning Run"));
+		assertThat(testClientService.getExercise(exercise.getId()).getDescription(), is("Morning Run"));
+		assertThat(ids(testClientService.getExercises(userId, null, "2016-06-20")), contains(exercise.getId()));
+
+		// both reads are answered from the caches now
+		final long entityHits = statistics(Exercise.CACHE_REGION).getHitCount();
+		final long queryHits = statistics(Exercise.QUERY_CACHE_REGION).getHitCount();
+		assertThat(testClientService.getExercise(exercise.getId()).getDescription(), is("Morning Run"));
+		assertThat(ids(testClientService.getExercises(userId, null, "2016-06-20")), contains(exercise.getId()));
+		assertThat(statistics(Exercise.CACHE_REGION).getHitCount(), is(greaterThan(entityHits)));
+		assertThat(statistics(Exercise.QUERY_CACHE_REGION).getHitCount(), is(greaterThan(queryHits)));
+
+		exercise.setDescription("Evening Run");
+		exercise.setStartTime(convertDate("2016-06-21T18:00:00"));
+		testClientService.updateExercise(exercise);
+		assertThat(testClientService.getExercise(exercise.getId()).getDescription(), is("Evening Run"));
+		assertThat(testClientService.getExercises(userId, null, "2016-06-20"), is(empty()));
+		assertThat(ids(testClientService.getExercises(userId, null, "2016-06-21")), contains(exercise.getId()));
+
+		final Exercise otherExercise = testClientService.createExercise(newExercise(userId, "2016-06-21T08:00:00", Enums.ExerciseType.RUNNING, 1800, "Bike"));
+		assertThat(ids(testClientService.getExercises(userId, null, "2016-06-21")),
+				containsInAnyOrder(exercise.getId(), otherExercise.getId()));
+
+		testClientService.deleteExercise(exercise.getId());
+		assertThat(ids(testClientService.getExercises(userId, null, "2016-06-21")), contains(otherExercise.getId()));
+		try {
+			testClientService.getExercise(exercise.getId());
+			fail("'testClientService.getExercise(deletedExerciseId)' should have thrown an exception.");
+		} catch (NotFoundException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testStatisticsCoverTheExerciseRegions() {
+		// the query cache region is created by its first query
+		testClientService.getExercises(71L, null, null);
+		final List<String> regions = metricsService.getCacheStatistics().stream()
+				.map(CacheStatisticsDto::getRegion)
+				.collect(Collectors.toList());
+		assertThat(regions, hasItems(Exercise.CACHE_REGION, Exercise.QUERY_CACHE_REGION));
+	}
+
+	private CacheStatisticsDto statistics(final String region) {
+		return metricsService.getCacheStatistics().stream()
+				.filter(statistics -> statistics.getRegion().equals(region))
+				.findFirst()
+				.get();
+	}
+
+	private static List<Long> ids(final List<ExerciseDto> exercises) {
+		return exercises.stream().map(ExerciseDto::getId).collect(Collectors.toList());
+	}
+}
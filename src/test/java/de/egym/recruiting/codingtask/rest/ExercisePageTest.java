@@ -0,0 +1,87 @@
+package de.egym.recruiting.codingtask.rest;
+
+import com.google.inject.Inject;
+import de.egym.recruiting.codingtask.AbstractIntegrationTest;
+import de.egym.recruiting.codingtask.TestClientService;
+import de.egym.recruiting.codingtask.dto.ExerciseDto;
+import de.egym.recruiting.codingtask.dto.ExercisePageDto;
+import de.egym.recruiting.codingtask.jpa.domain.Enums;
+import de.egym.recruiting.codingtask.jpa.domain.Exercise;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+public class ExercisePageTest extends AbstractIntegrationTest {
+
+	@Inject
+	private TestClientService testClientService;
+
+	@Inject
+	private ExerciseService exerciseService;
+
+	@Test
+	public void testPagesFollowTheCursor() {
+		final long userId = 100L;
+		final Exercise first = testClientService.createExercise(newExercise(userId, "2016-06-20T07:00:00", Enums.ExerciseType.RUNNING, 600));
+		final Exercise second = testClientService.createExercise(newExercise(userId, "2016-06-20T09:00:00", Enums.ExerciseType.CYCLING, 600));
+		final Exercise third = testClientService.createExercise(newExercise(userId, "2016-06-21T07:00:00", Enums.ExerciseType.RUNNING, 600));
+
+		final ExercisePageDto firstPage = exerciseService.getExercisePage(userId, null, null, null, null, 2, null, null);
+		assertThat(ids(firstPage.getExercises()), contains(third.getId(), second.getId()));
+		assertThat(firstPage.getNextCursor(), is(notNullValue()));
+
+		// an exercise created in between does not shift the next page
+		testClientService.createExercise(newExercise(userId, "2016-06-22T07:00:00", Enums.ExerciseType.RUNNING, 600));
+		final ExercisePageDto lastPage = exerciseService.getExercisePage(userId, null, null, null, null, 2, firstPage.getNextCursor(), null);
+		assertThat(ids(lastPage.getExercises()), contains(first.getId()));
+		assertThat(lastPage.getNextCursor(), is(nullValue()));
+
+		final ExercisePageDto oldestFirst = exerciseService.getExercisePage(userId, null, null, null, null, 2, null,
+				Enums.SortOrder.OLDEST_FIRST);
+		assertThat(ids(oldestFirst.getExercises()), contains(first.getId(), second.getId()));
+		assertThat(ids(exerciseService.getExercisePage(userId, null, null, null, null, 2, oldestFirst.getNextCursor(),
+				Enums.SortOrder.OLDEST_FIRST).getExercises()), hasItem(third.getId()));
+	}
+
+	@Test
+	public void testPagesApplyTheFilters() {
+		final long userId = 101L;
+		final Exercise first = testClientService.createExercise(newExercise(userId, "2016-06-20T07:00:00", Enums.ExerciseType.RUNNING, 600));
+		testClientService.createExercise(newExercise(userId, "2016-06-20T09:00:00", Enums.ExerciseType.CYCLING, 600));
+		final Exercise third = testClientService.createExercise(newExercise(userId, "2016-06-21T07:00:00", Enums.ExerciseType.RUNNING, 600));
+
+		final ExercisePageDto runningPage = exerciseService.getExercisePage(userId, Enums.ExerciseType.RUNNING, null, null, null, 1, null, null);
+		assertThat(ids(runningPage.getExercises()), contains(third.getId()));
+		assertThat(ids(exerciseService.getExercisePage(userId, Enums.ExerciseType.RUNNING, null, null, null, 1,
+				runningPage.getNextCursor(), null).getExercises()), contains(first.getId()));
+
+		final ExercisePageDto dayPage = exerciseService.getExercisePage(userId, Enums.ExerciseType.RUNNING, "2016-06-20", null, null, null, null, null);
+		assertThat(ids(dayPage.getExercises()), contains(first.getId()));
+		assertThat(dayPage.getExercises().get(0).getStartTime(), is(convertDate("2016-06-20T07:00:00")));
+		assertThat(dayPage.getNextCursor(), is(nullValue()));
+	}
+
+	@Test
+	public void testInvalidPageParametersAreRejected() {
+		try {
+			exerciseService.getExercisePage(102L, null, null, null, null, 101, null, null);
+			fail("'exerciseService.getExercisePage' should have thrown an exception.");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+		try {
+			exerciseService.getExercisePage(102L, null, null, null, null, null, "not a cursor", null);
+			fail("'exerciseService.getExercisePage' should have thrown an exception.");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	private List<Long> ids(final List<ExerciseDto> exercises) {
+		return exercises.stream().map(ExerciseDto::getId).collect(Collectors.toList());
+	}
+}
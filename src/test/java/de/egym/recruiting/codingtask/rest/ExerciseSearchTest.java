@@ -0,0 +1,143 @@
+package de.egym.recruiting.codingtask.rest;
+
+import com.google.inject.Inject;
+import de.egym.recruiting.codingtask.AbstractIntegrationTest;
+import de.egym.recruiting.codingtask.TestClientService;
+import de.egym.recruiting.codingtask.dto.ExerciseDto;
+import de.egym.recruiting.codingtask.dto.ExercisePageDto;
+import de.egym.recruiting.codingtask.jpa.dao.ExerciseDao;
+import de.egym.recruiting.codingtask.jpa.domain.Enums;
+import de.egym.recruiting.codingtask.jpa.domain.Exercise;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+public class ExerciseSearchTest extends AbstractIntegrationTest {
+
+	@Inject
+	private TestClientService testClientService;
+
+	@Inject
+	private ExerciseService exerciseService;
+
+	@Inject
+	private ExerciseDao exerciseDao;
+
+	@Test
+	public void testSearchMatchesWordsAndPrefixes() {
+		final Exercise morning = testClientService.createExercise(newExercise(96L, "2016-06-20T07:00:00", Enums.ExerciseType.OTHER, 600, "Quokka morning run"));
+		final Exercise evening = testClientService.createExercise(newExercise(96L, "2016-06-20T19:00:00", Enums.ExerciseType.OTHER, 600, "Quokka evening run"));
+		final Exercise swim = testClientService.createExercise(newExercise(96L, "2016-06-21T07:00:00", Enums.ExerciseType.OTHER, 600, "Quokkas morning swim"));
+
+		assertThat(searchIds("QUOKKA RUN", null, null), contains(evening.getId(), morning.getId()));
+		assertThat(searchIds("quokka morn", null, null), contains(swim.getId(), morning.getId()));
+		assertThat(searchIds("quokkas", null, null), contains(swim.getId()));
+		assertThat(searchIds("quok", null, null), contains(swim.getId(), evening.getId(), morning.getId()));
+		assertThat(searchIds("quokka cycling", null, null), is(empty()));
+	}
+
+	@Test
+	public void testSearchPagesWithCursor() {
+		final Exercise first = testClientService.createExercise(newExercise(97L, "2016-06-20T07:00:00", Enums.ExerciseType.OTHER, 600, "Wombat walk"));
+		final Exercise second = testClientService.createExercise(newExercise(97L, "2016-06-20T08:00:00", Enums.ExerciseType.OTHER, 600, "Wombat walk"));
+		final Exercise third = testClientService.createExercise(newExercise(97L, "2016-06-20T09:00:00", Enums.ExerciseType.OTHER, 600, "Wombat walk"));
+
+		final ExercisePageDto firstPage = exerciseService.searchExercises("wombat", 2, null);
+		assertThat(ids(firstPage.getExercises()), contains(third.getId(), second.getId()));
+		assertThat(firstPage.getNextCursor(), is(notNullValue()));
+
+		final ExercisePageDto lastPage = exerciseService.searchExercises("wombat", 2, firstPage.getNextCursor());
+		assertThat(ids(lastPage.getExercises()), contains(first.getId()));
+		assertThat(lastPage.getNextCursor(), is(nullValue()));
+	}
+
+	@Test
+	public void testPrefixOfSeveralTokensPagesWithCursor() {
+		final Exercise both = testClientService.createExercise(newExercise(117L, "2016-06-20T07:00:00", Enums.ExerciseType.OTHER, 600, "Kiwikick kiwiloop"));
+		final Exercise kick = testClientService.createExercise(newExercise(117L, "2016-06-20T08:00:00", Enums.ExerciseType.OTHER, 600, "Kiwikick lap"));
+		final Exercise other = testClientService.createExercise(newExercise(117L, "2016-06-20T09:00:00", Enums.ExerciseType.OTHER, 600, "Kakapo lap"));
+		final Exercise loop = testClientService.createExercise(newExercise(117L, "2016-06-20T10:00:00", Enums.ExerciseType.OTHER, 600, "Kiwiloop lap"));
+
+		// an exercise with several tokens of the prefix is found once
+		final ExercisePageDto firstPage = exerciseService.searchExercises("kiwi", 2, null);
+		assertThat(ids(firstPage.getExercises()), contains(loop.getId(), kick.getId()));
+		final ExercisePageDto lastPage = exerciseService.searchExercises("kiwi", 2, firstPage.getNextCursor());
+		assertThat(ids(lastPage.getExercises()), contains(both.getId()));
+		assertThat(lastPage.getNextCursor(), is(nullValue()));
+
+		assertThat(searchIds("lap kiwi", null, null), contains(loop.getId(), kick.getId()));
+		assertThat(searchIds("kiwil kiwik", null, null), contains(both.getId()));
+		assertThat(searchIds("lap", null, null), hasItem(other.getId()));
+	}
+
+	@Test
+	public void testSearchFollowsUpdateAndDelete() {
+		final Exercise exercise = testClientService.createExercise(newExercise(98L, "2016-06-20T07:00:00", Enums.ExerciseType.OTHER, 600, "Numbat hike"));
+		assertThat(searchIds("numbat", null, null), contains(exercise.getId()));
+
+		exercise.setDescription("Bilby hike");
+		testClientService.updateExercise(exercise);
+		assertThat(searchIds("numbat", null, null), is(empty()));
+		assertThat(searchIds("bilby hike", null, null), contains(exercise.getId()));
+
+		testClientService.deleteExercise(exercise.getId());
+		assertThat(searchIds("bilby", null, null), is(empty()));
+	}
+
+	@Test
+	public void testRolledBackBatchIsNotFound() {
+		final Exercise invalidExercise = newExercise(107L, "2016-06-20T08:00:00", Enums.ExerciseType.OTHER, 600, "Dingo dash");
+		invalidExercise.setType(null);
+		try {
+			exerciseDao.createAll(Arrays.asList(newExercise(107L, "2016-06-20T07:00:00", Enums.ExerciseType.OTHER, 600, "Dingo dash"), invalidExercise));
+			fail("'exerciseDao.createAll(invalidBatch)' should have thrown an exception.");
+		} catch (RuntimeException e) {
+			// the whole batch is rolled back
+		}
+
+		final ExercisePageDto page = exerciseService.searchExercises("dingo", 1, null);
+		assertThat(page.getExercises(), is(empty()));
+		assertThat(page.getNextCursor(), is(nullValue()));
+	}
+
+	@Test
+	public void testSearchRejectsInvalidParameters() {
+		try {
+			exerciseService.searchExercises("run%", null, null);
+			fail("'exerciseService.searchExercises' should have thrown an exception.");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+		try {
+			exerciseService.searchExercises(" ", null, null);
+			fail("'exerciseService.searchExercises' should have thrown an exception.");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+		try {
+			exerciseService.searchExercises("run", 0, null);
+			fail("'exerciseService.searchExercises' should have thrown an exception.");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+		try {
+			exerciseService.searchExercises("run", null, "abc");
+			fail("'exerciseService.searchExercises' should have thrown an exception.");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	private List<Long> searchIds(final String query, final Integer pageSize, final String after) {
+		return ids(exerciseService.searchExercises(query, pageSize, after).getExercises());
+	}
+
+	private List<Long> ids(final List<ExerciseDto> exercises) {
+		return exercises.stream().map(ExerciseDto::getId).collect(Collectors.toList());
+	}
+}
@@ -0,0 +1,83 @@
+package de.egym.recruiting.codingtask.rest;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.google.inject.Inject;
+import de.egym.recruiting.codingtask.AbstractIntegrationTest;
+import de.egym.recruiting.codingtask.TestClientService;
+import de.egym.recruiting.codingtask.dto.ExerciseDto;
+import de.egym.recruiting.codingtask.jpa.domain.Enums;
+import de.egym.recruiting.codingtask.jpa.domain.Exercise;
+import org.junit.Test;
+
+import javax.ws.rs.core.StreamingOutput;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+public class ExerciseStreamTest extends AbstractIntegrationTest {
+
+	@Inject
+	private TestClientService testClientService;
+
+	@Inject
+	private ExerciseService exerciseService;
+
+	@Test
+	public void testStreamedExercisesEqualTheListedOnes() throws IOException {
+		final long userId = 60L;
+		final Instant firstStartTime = convertDate("2016-01-01T08:00:00");
+
+		// more exercises than the persistence context is cleared after
+		final List<Exercise> exercises = new ArrayList<>();
+		for (int i = 0; i < 250; i++) {
+			final Exercise exercise = new Exercise();
+			exercise.setDescription("Stream Test Run");
+			exercise.setDuration(1800);
+			exercise.setDistance(5000);
+			exercise.setCalories(300);
+			exercise.setStartTime(firstStartTime.plus(i, ChronoUnit.HOURS));
+			exercise.setType(i % 2 == 0 ? Enums.ExerciseType.RUNNING : Enums.ExerciseType.CYCLING);
+			exercise.setUserId(userId);
+			exercises.add(exercise);
+		}
+		exerciseService.createAll(exercises);
+
+		final List<ExerciseDto> streamedExercises = read(exerciseService.streamExercises(userId, null, null, null, null));
+		assertThat(streamedExercises, hasSize(250));
+		assertThat(ids(streamedExercises), is(ids(testClientService.getExercises(userId, null, null))));
+
+		final List<ExerciseDto> streamedRuns = read(exerciseService.streamExercises(userId, Enums.ExerciseType.RUNNING, "2016-01-02", null, null));
+		assertThat(ids(streamedRuns), is(ids(testClientService.getExercises(userId, Enums.ExerciseType.RUNNING, "2016-01-02"))));
+		assertThat(streamedRuns, hasSize(12));
+		assertDate(streamedRuns.stream().map(ExerciseDto::getStartTime).min(Instant::compareTo).get(), convertDate("2016-01-02T00:00:00"));
+
+		final List<ExerciseDto> streamedByDescription = read(exerciseService.streamExerciseByDescription("stream test run"));
+		assertThat(streamedByDescription, hasSize(250));
+	}
+
+	@Test
+	public void testEmptyStreamIsAnEmptyArray() throws IOException {
+		final ByteArrayOutputStream output = new ByteArrayOutputStream();
+		exerciseService.streamExercises(61L, null, null, null, null).write(output);
+		assertThat(output.toString("UTF-8"), is("[]"));
+	}
+
+	private List<ExerciseDto> read(final StreamingOutput streamingOutput) throws IOException {
+		final ByteArrayOutputStream output = new ByteArrayOutputStream();
+		streamingOutput.write(output);
+		return ObjectMapperProvider.objectMapper().readValue(output.toByteArray(), new TypeReference<List<ExerciseDto>>() {
+		});
+	}
+
+	private static Set<Long> ids(final List<ExerciseDto> exercises) {
+		return exercises.stream().map(ExerciseDto::getId).collect(Collectors.toSet());
+	}
+}
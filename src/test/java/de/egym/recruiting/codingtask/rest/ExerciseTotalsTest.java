@@ -0,0 +1,196 @@
+package de.egym.recruiting.codingtask.rest;
+
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import com.google.inject.persist.UnitOfWork;
+import de.egym.recruiting.codingtask.AbstractIntegrationTest;
+import de.egym.recruiting.codingtask.TestClientService;
+import de.egym.recruiting.codingtask.dto.ExerciseDto;
+import de.egym.recruiting.codingtask.dto.ExerciseTotalsDto;
+import de.egym.recruiting.codingtask.jpa.dao.ExerciseDao;
+import de.egym.recruiting.codingtask.jpa.domain.Enums;
+import de.egym.recruiting.codingtask.jpa.domain.Exercise;
+import org.junit.Test;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityTransaction;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+public class ExerciseTotalsTest extends AbstractIntegrationTest {
+
+	@Inject
+	private TestClientService testClientService;
+
+	@Inject
+	private ExerciseService exerciseService;
+
+	@Inject
+	private ExerciseDao exerciseDao;
+
+	@Inject
+	private UnitOfWork unitOfWork;
+
+	@Inject
+	private Provider<EntityManager> entityManagerProvider;
+
+	@Test
+	public void testExercisesOfDayRange() {
+		final long userId = 103L;
+		testClientService.createExercise(newExercise(userId, "2016-06-19T23:59:00", Enums.ExerciseType.RUNNING, 60));
+		final Exercise first = testClientService.createExercise(newExercise(userId, "2016-06-20T00:00:00", Enums.ExerciseType.RUNNING, 60));
+		final Exercise last = testClientService.createExercise(newExercise(userId, "2016-06-21T23:59:00", Enums.ExerciseType.CYCLING, 60));
+		final Exercise later = testClientService.createExercise(newExercise(userId, "2016-06-22T00:00:00", Enums.ExerciseType.RUNNING, 60));
+
+		assertThat(ids(exerciseService.getExercises(userId, null, null, "2016-06-20", "2016-06-21")),
+				containsInAnyOrder(first.getId(), last.getId()));
+		assertThat(ids(exerciseService.getExercises(userId, Enums.ExerciseType.RUNNING, null, "2016-06-20", null)),
+				containsInAnyOrder(first.getId(), later.getId()));
+		assertThat(ids(exerciseService.getExercisePage(userId, null, null, null, "2016-06-21", null, null, null)
+				.getExercises()), hasSize(3));
+
+		try {
+			exerciseService.getExercises(userId, null, "2016-06-20", "2016-06-20", null);
+			fail("'exerciseService.getExercises' should have thrown an exception.");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+		try {
+			exerciseService.getExercises(userId, null, null, "2016-06-21", "2016-06-20");
+			fail("'exerciseService.getExercises' should have thrown an exception.");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testTotalsPerDayAndWeek() {
+		final long userId = 104L;
+		// 2016-06-20 is a Monday
+		testClientService.createExercise(newExercise(userId, "2016-06-20T07:00:00", Enums.ExerciseType.RUNNING, 600));
+		testClientService.createExercise(newExercise(userId, "2016-06-20T19:00:00", Enums.ExerciseType.RUNNING, 1200));
+		testClientService.createExercise(newExercise(userId, "2016-06-20T21:00:00", Enums.ExerciseType.CYCLING, 1800));
+		testClientService.createExercise(newExercise(userId, "2016-06-26T23:00:00", Enums.ExerciseType.RUNNING, 300));
+		testClientService.createExercise(newExercise(userId, "2016-06-27T00:00:00", Enums.ExerciseType.RUNNING, 300));
+
+		final List<ExerciseTotalsDto> days = exerciseService.getExerciseTotals(userId, "2016-06-20", "2016-06-26", null, null);
+		assertThat(days, hasSize(3));
+		assertTotals(days.get(0), "2016-06-20", Enums.ExerciseType.CYCLING, 1, 1800);
+		assertTotals(days.get(1), "2016-06-20", Enums.ExerciseType.RUNNING, 2, 1800);
+		assertTotals(days.get(2), "2016-06-26", Enums.ExerciseType.RUNNING, 1, 300);
+		assertThat(days.get(1).getCalories(), is(200L));
+
+		final List<ExerciseTotalsDto> weeks = exerciseService.getExerciseTotals(userId, "2016-06-22", "2016-06-30",
+				Enums.Period.WEEK, Enums.ExerciseType.RUNNING);
+		assertThat(weeks, hasSize(2));
+		assertTotals(weeks.get(0), "2016-06-20", Enums.ExerciseType.RUNNING, 1, 300);
+		assertTotals(weeks.get(1), "2016-06-27", Enums.ExerciseType.RUNNING, 1, 300);
+		final List<ExerciseTotalsDto> weekTypes = exerciseService.getExerciseTotals(userId, "2016-06-20", "2016-06-26",
+				Enums.Period.WEEK, null);
+		assertThat(weekTypes, hasSize(2));
+		assertTotals(weekTypes.get(0), "2016-06-20", Enums.ExerciseType.CYCLING, 1, 1800);
+		assertTotals(weekTypes.get(1), "2016-06-20", Enums.ExerciseType.RUNNING, 3, 2100);
+
+		// the cached totals follow the writes
+		testClientService.createExercise(newExercise(userId, "2016-06-28T07:00:00", Enums.ExerciseType.RUNNING, 300));
+		assertTotals(exerciseService.getExerciseTotals(userId, "2016-06-22", "2016-06-30", Enums.Period.WEEK,
+				Enums.ExerciseType.RUNNING).get(1), "2016-06-27", Enums.ExerciseType.RUNNING, 2, 600);
+
+		try {
+			exerciseService.getExerciseTotals(userId, "2016-06-20", null, null, null);
+			fail("'exerciseService.getExerciseTotals' should have thrown an exception.");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testTotalsFollowUpdatesDeletesAndRebuild() {
+		final long userId = 105L;
+		final Exercise moved = testClientService.createExercise(newExercise(userId, "2016-07-04T07:00:00", Enums.ExerciseType.RUNNING, 600));
+		final Exercise deleted = testClientService.createExercise(newExercise(userId, "2016-07-04T19:00:00", Enums.ExerciseType.RUNNING, 1200));
+		testClientService.createExercise(newExercise(userId, "2016-07-05T07:00:00", Enums.ExerciseType.RUNNING, 300));
+
+		moved.setStartTime(convertDate("2016-07-05T19:00:00"));
+		moved.setDuration(900);
+		testClientService.updateExercise(moved);
+		testClientService.deleteExercise(deleted.getId());
+
+		List<ExerciseTotalsDto> days = exerciseService.getExerciseTotals(userId, "2016-07-04", "2016-07-05", null, null);
+		assertThat(days, hasSize(1));
+		assertTotals(days.get(0), "2016-07-05", Enums.ExerciseType.RUNNING, 2, 1200);
+		assertThat(days.get(0).getCalories(), is(200L));
+
+		assertThat(exerciseDao.rebuildDailyStats(), is(greaterThan(0)));
+		days = exerciseService.getExerciseTotals(userId, "2016-07-04", "2016-07-05", null, null);
+		assertThat(days, hasSize(1));
+		assertTotals(days.get(0), "2016-07-05", Enums.ExerciseType.RUNNING, 2, 1200);
+		assertThat(days.get(0).getDistance(), is(2000L));
+	}
+
+	@Test
+	public void testDeletingADeletedExerciseKeepsTheTotals() {
+		final long userId = 115L;
+		final Exercise deleted = testClientService.createExercise(newExercise(userId, "2016-07-18T07:00:00", Enums.ExerciseType.RUNNING, 600));
+		testClientService.createExercise(newExercise(userId, "2016-07-18T19:00:00", Enums.ExerciseType.RUNNING, 1200));
+		exerciseDao.deleteById(deleted.getId());
+
+		try {
+			// a concurrent delete of the same exercise
+			exerciseDao.deleteById(deleted.getId());
+			fail("'exerciseDao.deleteById(deletedId)' should have thrown an exception.");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+		final List<ExerciseTotalsDto> days = exerciseService.getExerciseTotals(userId, "2016-07-18", "2016-07-18", null, null);
+		assertThat(days, hasSize(1));
+		assertTotals(days.get(0), "2016-07-18", Enums.ExerciseType.RUNNING, 1, 1200);
+	}
+
+	@Test
+	public void testConcurrentFirstExercisesOfADayAddUp() throws Exception {
+		final long userId = 110L;
+		final ExecutorService executor = Executors.newSingleThreadExecutor();
+		unitOfWork.begin();
+		try {
+			final EntityTransaction transaction = entityManagerProvider.get().getTransaction();
+			transaction.begin();
+			// joins the open transaction, the inserted daily stats row stays uncommitted
+			exerciseDao.create(newExercise(userId, "2016-07-11T07:00:00", Enums.ExerciseType.RUNNING, 600));
+
+			final Future<Exercise> concurrent = executor.submit(() ->
+					exerciseDao.create(newExercise(userId, "2016-07-11T19:00:00", Enums.ExerciseType.RUNNING, 1200)));
+			// its insert of the same row waits for the open transaction
+			Thread.sleep(500);
+			assertFalse(concurrent.isDone());
+			transaction.commit();
+			assertNotNull(concurrent.get(10, TimeUnit.SECONDS));
+		} finally {
+			unitOfWork.end();
+			executor.shutdown();
+		}
+
+		final List<ExerciseTotalsDto> days = exerciseService.getExerciseTotals(userId, "2016-07-11", "2016-07-11", null, null);
+		assertThat(days, hasSize(1));
+		assertTotals(days.get(0), "2016-07-11", Enums.ExerciseType.RUNNING, 2, 1800);
+	}
+
+	private void assertTotals(final ExerciseTotalsDto totals, final String periodStart, final Enums.ExerciseType type,
+			final long exercises, final long duration) {
+		assertThat(totals.getPeriodStart(), is(periodStart));
+		assertThat(totals.getType(), is(type));
+		assertThat(totals.getExercises(), is(exercises));
+		assertThat(totals.getDuration(), is(duration));
+	}
+
+	private List<Long> ids(final List<ExerciseDto> exercises) {
+		return exercises.stream().map(ExerciseDto::getId).collect(Collectors.toList());
+	}
+}
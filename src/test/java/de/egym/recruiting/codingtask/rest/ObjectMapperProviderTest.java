@@ -0,0 +1,95 @@
+package de.egym.recruiting.codingtask.rest;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import javax.ws.rs.core.MediaType;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+
+import de.egym.recruiting.codingtask.dto.ExerciseDto;
+import de.egym.recruiting.codingtask.jpa.domain.Enums;
+import de.egym.recruiting.codingtask.jpa.domain.Exercise;
+
+public class ObjectMapperProviderTest {
+
+	@Test
+	public void testContextIsTheSharedMapper() {
+		final ObjectMapperProvider provider = new ObjectMapperProvider();
+		assertThat(provider.getContext(Exercise.class), is(sameInstance(provider.getContext(String.class))));
+		assertThat(ObjectMapperProvider.writerFor(Exercise.class), is(sameInstance(ObjectMapperProvider.writerFor(Exercise.class))));
+	}
+
+	@Test
+	public void testStartTimeIsWrittenCompactInUtcAndReadBack() throws Exception {
+		final Exercise exercise = new Exercise();
+		exercise.setUserId(1L);
+		exercise.setType(Enums.ExerciseType.RUNNING);
+		// 2016-06-01T14:23:35.789Z
+		exercise.setStartTime(Instant.ofEpochMilli(1464791015789L));
+
+		final String json = ObjectMapperProvider.writerFor(Exercise.class).writeValueAsString(exercise);
+		assertThat(json, containsString("\"startTime\":\"2016-06-01T14:23:35\""));
+		assertThat(json, not(containsString("\n")));
+
+		final Exercise readExercise = ObjectMapperProvider.objectMapper().readValue(json, Exercise.class);
+		assertThat(readExercise.getStartTime().toEpochMilli(), is(1464791015000L));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testSmileUsesTheJsonMappingAndDates() throws Exception {
+		final Exercise exercise = new Exercise();
+		exercise.setUserId(1L);
+		exercise.setType(Enums.ExerciseType.CYCLING);
+		exercise.setDescription("Evening Bike");
+		exercise.setStartTime(Instant.ofEpochMilli(1464791015789L));
+
+		final SmileProvider provider = new SmileProvider();
+		final MediaType smile = MediaType.valueOf(SmileProvider.APPLICATION_SMILE);
+		assertTrue(provider.isWriteable(Exercise.class, Exercise.class, null, smile));
+		final ByteArrayOutputStream output = new ByteArrayOutputStream();
+		provider.writeTo(exercise, Exercise.class, Exercise.class, null, smile, null, output);
+		final byte[] body = output.toByteArray();
+		assertThat(body.length, is(lessThan(ObjectMapperProvider.writerFor(Exercise.class).writeValueAsBytes(exercise).length)));
+		// same date text as JSON, not a binary timestamp
+		assertThat(new String(body, StandardCharsets.UTF_8), containsString("2016-06-01T14:23:35"));
+
+		final Exercise readExercise = (Exercise) provider.readFrom((Class) Exercise.class, Exercise.class, null, smile, null,
+				new ByteArrayInputStream(body));
+		assertThat(readExercise.getType(), is(Enums.ExerciseType.CYCLING));
+		assertThat(readExercise.getDescription(), is("Evening Bike"));
+		assertThat(readExercise.getStartTime().toEpochMilli(), is(1464791015000L));
+	}
+
+	@Test
+	public void testExerciseDtoIsWrittenLikeTheExercise() throws Exception {
+		final Exercise exercise = new Exercise();
+		exercise.setId(7L);
+		exercise.setUserId(1L);
+		exercise.setDescription("Evening Bike");
+		exercise.setType(Enums.ExerciseType.CYCLING);
+		exercise.setStartTime(Instant.ofEpochMilli(1464791015000L));
+		exercise.setDuration(3600);
+		exercise.setDistance(20000);
+		exercise.setCalories(700);
+		final ExerciseDto exerciseDto = new ExerciseDto(7L, 1L, "Evening Bike", Enums.ExerciseType.CYCLING,
+				Instant.ofEpochMilli(1464791015000L), 3600, 20000, 700);
+
+		final String json = ObjectMapperProvider.writerFor(ExerciseDto.class).writeValueAsString(exerciseDto);
+		assertThat(json, is(ObjectMapperProvider.writerFor(Exercise.class).writeValueAsString(exercise)));
+		assertThat(ObjectMapperProvider.objectMapper().readValue(json, ExerciseDto.class).toString(), is(exerciseDto.toString()));
+	}
+
+	@Test(expected = JsonMappingException.class)
+	public void testMalformedStartTimeIsRejected() throws Exception {
+		ObjectMapperProvider.objectMapper().readValue("{\"startTime\":\"01.06.2016 14:23\"}", Exercise.class);
+	}
+}
@@ -1,15 +1,21 @@
 package de.egym.recruiting.codingtask.rest;
 
+import com.google.inject.Guice;
 import com.google.inject.Inject;
 import de.egym.recruiting.codingtask.AbstractIntegrationTest;
+import de.egym.recruiting.codingtask.RootModule;
 import de.egym.recruiting.codingtask.TestClientService;
+import de.egym.recruiting.codingtask.dto.RankingScoreDto;
+import de.egym.recruiting.codingtask.jpa.dao.ExerciseDao;
 import de.egym.recruiting.codingtask.jpa.domain.Enums;
 import de.egym.recruiting.codingtask.jpa.domain.Exercise;
+import de.egym.recruiting.codingtask.ranking.RankingScoreIndex;
 import org.junit.Test;
 
+import java.time.Instant;
 import java.util.Arrays;
-import java.util.Calendar;
 import java.util.List;
+import java.util.Properties;
 
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertNotNull;
@@ -20,6 +26,15 @@ public class RankingBasicTest extends AbstractIntegrationTest {
 	@Inject
 	private TestClientService testClientService;
 
+	@Inject
+	private ExerciseService exerciseService;
+
+	@Inject
+	private ExerciseDao exerciseDao;
+
+	@Inject
+	private RankingScoreIndex rankingScoreIndex;
+
 	@Test
 	public void testRangingList() {
 		final long userId1 = 20L;
@@ -30,7 +45,7 @@ public class RankingBasicTest extends AbstractIntegrationTest {
 		exercise1ToInsert.setDuration(14400);
 		exercise1ToInsert.setDistance(0);
 		exercise1ToInsert.setCalories(500);
-		exercise1ToInsert.setStartTime(Calendar.getInstance().getTime());
+		exercise1ToInsert.setStartTime(Instant.now());
 		exercise1ToInsert.setType(Enums.ExerciseType.OTHER);
 		exercise1ToInsert.setUserId(userId1);
 
@@ -43,7 +58,7 @@ public class RankingBasicTest extends AbstractIntegrationTest {
 		exercise2ToInsert.setDuration(7200);
 		exercise2ToInsert.setDistance(1500);
 		exercise2ToInsert.setCalories(700);
-		exercise2ToInsert.setStartTime(Calendar.getInstance().getTime());
+		exercise2ToInsert.setStartTime(Instant.now());
 		exercise2ToInsert.setType(Enums.ExerciseType.OTHER);
 		exercise2ToInsert.setUserId(userId2);
 
@@ -58,4 +73,119 @@ public class RankingBasicTest extends AbstractIntegrationTest {
 		assertThat(ranking.get(1), is(userId1));
 	}
 
+	@Test
+	public void testRankingFollowsUpdateAndDelete() {
+		final long userId1 = 22L;
+		final long userId2 = 23L;
+
+		final Exercise exercise1ToInsert = new Exercise();
+		exercise1ToInsert.setDescription("Morning Run");
+		exercise1ToInsert.setDuration(3600);
+		exercise1ToInsert.setDistance(10000);
+		exercise1ToInsert.setCalories(600);
+		exercise1ToInsert.setStartTime(Instant.now());
+		exercise1ToInsert.setType(Enums.ExerciseType.RUNNING);
+		exercise1ToInsert.setUserId(userId1);
+
+		final Exercise persistedExercise1 = testClientService.createExercise(exercise1ToInsert);
+		assertNotNull(persistedExercise1);
+
+		final Exercise exercise2ToInsert = new Exercise();
+		exercise2ToInsert.setDescription("Evening Walk");
+		exercise2ToInsert.setDuration(3600);
+		exercise2ToInsert.setDistance(4000);
+		exercise2ToInsert.setCalories(300);
+		exercise2ToInsert.setStartTime(Instant.now());
+		exercise2ToInsert.setType(Enums.ExerciseType.WALKING);
+		exercise2ToInsert.setUserId(userId2);
+
+		final Exercise persistedExercise2 = testClientService.createExercise(exercise2ToInsert);
+		assertNotNull(persistedExercise2);
+
+		assertThat(testClientService.getRanking(Arrays.asList(userId2, userId1)), is(Arrays.asList(userId1, userId2)));
+
+		persistedExercise2.setCalories(3000);
+		testClientService.updateExercise(persistedExercise2);
+		assertThat(testClientService.getRanking(Arrays.asList(userId2, userId1)), is(Arrays.asList(userId2, userId1)));
+
+		testClientService.deleteExercise(persistedExercise2.getId());
+		assertThat(testClientService.getRanking(Arrays.asList(userId2, userId1)), is(Arrays.asList(userId1, userId2)));
+	}
+
+	@Test
+	public void testRankingPageWithScores() {
+		final long userId1 = 24L;
+		final long userId2 = 25L;
+		final long userId3 = 26L;
+		final long userId4 = 27L;
+
+		for (long userId = userId1; userId <= userId3; userId++) {
+			final Exercise exerciseToInsert = new Exercise();
+			exerciseToInsert.setDescription("Swimming");
+			exerciseToInsert.setDuration(600);
+			exerciseToInsert.setDistance(1000);
+			exerciseToInsert.setCalories((int) (100 * (userId - userId1 + 1)));
+			exerciseToInsert.setStartTime(Instant.now());
+			exerciseToInsert.setType(Enums.ExerciseType.SWIMMING);
+			exerciseToInsert.setUserId(userId);
+			assertNotNull(testClientService.createExercise(exerciseToInsert));
+		}
+
+		final List<Long> userIds = Arrays.asList(userId1, userId2, userId3, userId4);
+		assertThat(exerciseService.getRanking(userIds, 2, null), is(Arrays.asList(userId3, userId2)));
+		assertThat(exerciseService.getRanking(userIds, 2, 2), is(Arrays.asList(userId1, userId4)));
+		assertThat(exerciseService.getRanking(userIds, null, 3), is(Arrays.asList(userId4)));
+		assertThat(exerciseService.getRanking(userIds, 0, null).size(), is(0));
+
+		final List<RankingScoreDto> scores = exerciseService.getRankingScores(userIds, 2, 1);
+		assertThat(scores.size(), is(2));
+		assertThat(scores.get(0).getUserId(), is(userId2));
+		assertThat(scores.get(0).getScore(), is(3L * (10 + 200)));
+		assertThat(scores.get(1).getUserId(), is(userId1));
+		assertThat(scores.get(1).getScore(), is(3L * (10 + 100)));
+	}
+
+	@Test
+	public void testStoredScoresAreLoadedAtStartup() {
+		final long userId1 = 108L;
+		final long userId2 = 109L;
+
+		final Exercise exerciseToInsert = new Exercise();
+		exerciseToInsert.setDescription("Rowing");
+		exerciseToInsert.setDuration(600);
+		exerciseToInsert.setDistance(2000);
+		exerciseToInsert.setCalories(100);
+		exerciseToInsert.setStartTime(Instant.now());
+		exerciseToInsert.setType(Enums.ExerciseType.OTHER);
+		exerciseToInsert.setUserId(userId2);
+		// stored without passing the service, only the startup of the next instance sees it
+		assertNotNull(exerciseDao.create(exerciseToInsert));
+
+		final ExerciseService restartedService = Guice.createInjector(new RootModule(new Properties()))
+				.getInstance(ExerciseService.class);
+		final List<RankingScoreDto> scores = restartedService.getRankingScores(Arrays.asList(userId1, userId2), null, null);
+		assertThat(scores.get(0).getUserId(), is(userId2));
+		assertThat(scores.get(0).getScore(), is(10L + 100));
+	}
+
+	@Test
+	public void testStoredScoresAreLoadedByReload() {
+		final long userId1 = 112L;
+		final long userId2 = 113L;
+		// stored without passing the service like a bulk load
+		final Exercise exerciseToInsert = newExercise(userId2, "2016-06-20T10:00:00", Enums.ExerciseType.OTHER, 600);
+		exerciseToInsert.setStartTime(Instant.now());
+		assertNotNull(exerciseDao.create(exerciseToInsert));
+		assertThat(rankingScoreIndex.getScore(userId2, System.currentTimeMillis()), is(0L));
+
+		rankingScoreIndex.reload();
+		final List<RankingScoreDto> scores = exerciseService.getRankingScores(Arrays.asList(userId1, userId2), null, null);
+		assertThat(scores.get(0).getUserId(), is(userId2));
+		assertThat(scores.get(0).getScore(), is(10L + 100));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testRankingNegativeLimit() {
+		exerciseService.getRanking(Arrays.asList(20L, 21L), -1, null);
+	}
 }
@@ -0,0 +1,103 @@
+package de.egym.recruiting.codingtask.rest;
+
+import com.google.inject.Inject;
+import de.egym.recruiting.codingtask.AbstractIntegrationTest;
+import de.egym.recruiting.codingtask.TestClientService;
+import de.egym.recruiting.codingtask.dto.RankingScoreDto;
+import de.egym.recruiting.codingtask.jpa.dao.ExerciseDao;
+import de.egym.recruiting.codingtask.jpa.domain.Enums;
+import de.egym.recruiting.codingtask.jpa.domain.Exercise;
+import de.egym.recruiting.codingtask.ranking.RankingCalculator;
+import de.egym.recruiting.codingtask.ranking.RankingStrategy;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertThat;
+
+public class RankingSqlTest extends AbstractIntegrationTest {
+
+	@Inject
+	private TestClientService testClientService;
+
+	@Inject
+	private ExerciseService exerciseService;
+
+	@Inject
+	private ExerciseDao exerciseDao;
+
+	@Override
+	protected Properties propertyOverrides() {
+		final Properties properties = new Properties();
+		properties.setProperty("ranking.strategy", RankingStrategy.SQL.name());
+		return properties;
+	}
+
+	@Test
+	public void testRangingList() {
+		final long userId1 = 30L;
+		final long userId2 = 31L;
+
+		final Exercise exercise1ToInsert = new Exercise();
+		exercise1ToInsert.setDescription("Coding Task");
+		exercise1ToInsert.setDuration(14400);
+		exercise1ToInsert.setDistance(0);
+		exercise1ToInsert.setCalories(500);
+		exercise1ToInsert.setStartTime(Instant.now());
+		exercise1ToInsert.setType(Enums.ExerciseType.OTHER);
+		exercise1ToInsert.setUserId(userId1);
+		assertNotNull(testClientService.createExercise(exercise1ToInsert));
+
+		final Exercise exercise2ToInsert = new Exercise();
+		exercise2ToInsert.setDescription("Onsite Interview");
+		exercise2ToInsert.setDuration(7200);
+		exercise2ToInsert.setDistance(1500);
+		exercise2ToInsert.setCalories(700);
+		exercise2ToInsert.setStartTime(Instant.now());
+		exercise2ToInsert.setType(Enums.ExerciseType.OTHER);
+		exercise2ToInsert.setUserId(userId2);
+		assertNotNull(testClientService.createExercise(exercise2ToInsert));
+
+		final List<Long> ranking = testClientService.getRanking(Arrays.asList(userId1, userId2));
+		assertThat(ranking, is(Arrays.asList(userId2, userId1)));
+
+		final List<RankingScoreDto> scores = exerciseService.getRankingScores(Arrays.asList(userId1, userId2), null, null);
+		assertThat(scores.get(0).getScore(), is(7200L / 60 + 700));
+		assertThat(scores.get(1).getScore(), is(14400L / 60 + 500));
+	}
+
+	@Test
+	public void testOnlyNewestTenExercisesPerTypeOfTheLastFourWeeksCount() {
+		final long userId = 32L;
+		final long now = System.currentTimeMillis();
+
+		// 12 runs on the last 12 days, one run 30 days ago and one run tomorrow, each worth 2 * (10 + 90) points
+		for (int daysAgo = -1; daysAgo <= 30; daysAgo++) {
+			if (daysAgo > 12 && daysAgo < 30) {
+				continue;
+			}
+			final Exercise exerciseToInsert = new Exercise();
+			exerciseToInsert.setDescription("Run");
+			exerciseToInsert.setDuration(600);
+			exerciseToInsert.setDistance(2000);
+			exerciseToInsert.setCalories(90);
+			exerciseToInsert.setStartTime(Instant.ofEpochMilli(now - TimeUnit.DAYS.toMillis(daysAgo) - TimeUnit.HOURS.toMillis(1)));
+			exerciseToInsert.setType(Enums.ExerciseType.RUNNING);
+			exerciseToInsert.setUserId(userId);
+			assertNotNull(testClientService.createExercise(exerciseToInsert));
+		}
+
+		final List<Long> userIds = Collections.singletonList(userId);
+		final List<RankingScoreDto> scores = exerciseService.getRankingScores(userIds, null, null);
+		assertThat(scores.get(0).getScore(), is(200L * (100 + 90 + 80 + 70 + 60 + 50 + 40 + 30 + 20 + 10) / 100));
+		assertThat(scores.get(0).getScore(),
+				is(new RankingCalculator(userIds).addAll(exerciseDao.getRankingExercises(userIds)).getScore(userId)));
+	}
+}